@@ -0,0 +1,45 @@
+-- ============================================================================
+-- GestTravaux Pro - ID generator seeding
+-- ============================================================================
+-- Description: Seeds the ID_GENERATORS table from the rows already present.
+--              DEVIS, ENTREPRENEURS, PROPRIETAIRES, BIENS and CHANTIERS get
+--              their ids from pooled blocks of 50 (see @TableGenerator in the
+--              entities). With the pooled optimizer, next_val is the upper
+--              bound of the next block, so it is set to MAX(id) + 50: the next
+--              id handed out is MAX(id) + 1.
+--              Run after data.sql, or on an existing database before starting
+--              the new version of the application. Safe to run again: a
+--              counter is never moved backwards.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS ID_GENERATORS (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+
+    PRIMARY KEY (sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Pooled id generator state';
+
+INSERT INTO ID_GENERATORS (sequence_name, next_val)
+SELECT 'DEVIS', COALESCE(MAX(idDevis), 0) + 50 FROM DEVIS
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO ID_GENERATORS (sequence_name, next_val)
+SELECT 'ENTREPRENEURS', COALESCE(MAX(idEntrepreneur), 0) + 50 FROM ENTREPRENEURS
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO ID_GENERATORS (sequence_name, next_val)
+SELECT 'PROPRIETAIRES', COALESCE(MAX(idProprietaire), 0) + 50 FROM PROPRIETAIRES
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO ID_GENERATORS (sequence_name, next_val)
+SELECT 'BIENS', COALESCE(MAX(idBien), 0) + 50 FROM BIENS
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO ID_GENERATORS (sequence_name, next_val)
+SELECT 'CHANTIERS', COALESCE(MAX(idChantier), 0) + 50 FROM CHANTIERS
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+-- ============================================================================
+-- End of id_generators.sql
+-- ============================================================================
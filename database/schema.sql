@@ -37,6 +37,7 @@ CREATE TABLE ENTREPRENEURS (
     prenomEntrepreneur VARCHAR(100) NOT NULL,
     emailEntrepreneur VARCHAR(100) NOT NULL,
     telEntrepreneur VARCHAR(45) NOT NULL,
+    version INT NOT NULL DEFAULT 0,
 
     PRIMARY KEY (idEntrepreneur),
     UNIQUE KEY UK_email_entrepreneur (emailEntrepreneur),
@@ -117,6 +118,7 @@ CREATE TABLE BIENS (
     adresseBien VARCHAR(255) NOT NULL,
     villeBien VARCHAR(45) NOT NULL,
     PROPRIETAIRES_idProprietaire INT NOT NULL,
+    version INT NOT NULL DEFAULT 0,
 
     PRIMARY KEY (idBien),
     INDEX IDX_proprietaire (PROPRIETAIRES_idProprietaire),
@@ -180,6 +182,7 @@ CREATE TABLE CHANTIERS (
     INSPECTEURS_idInspecteur INT NOT NULL,
     BIENS_idBien INT NOT NULL,
     DOCUMENTS_idDocuments INT,
+    version INT NOT NULL DEFAULT 0,
 
     PRIMARY KEY (idChantier),
     INDEX IDX_inspecteur (INSPECTEURS_idInspecteur),
@@ -221,6 +224,7 @@ CREATE TABLE DEVIS (
     PRESTATIONS_idPrestation INT NOT NULL,
     ENTREPRENEURS_idEntrepreneur INT NOT NULL,
     CHANTIERS_idChantier INT NOT NULL,
+    version INT NOT NULL DEFAULT 0,
 
     PRIMARY KEY (idDevis),
     INDEX IDX_prestation (PRESTATIONS_idPrestation),
@@ -279,6 +283,7 @@ CREATE TABLE APPEL_OFFRE (
     datePublication DATETIME DEFAULT CURRENT_TIMESTAMP,
     dateEcheance DATE,
     statut VARCHAR(45) DEFAULT 'Ouvert',
+    version INT NOT NULL DEFAULT 0,
 
     PRIMARY KEY (idAppelOffre),
     INDEX IDX_statut (statut),
@@ -286,6 +291,21 @@ CREATE TABLE APPEL_OFFRE (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
 COMMENT='Call for tenders and bids';
 
+-- ============================================================================
+-- Table: ID_GENERATORS
+-- Description: Pooled identifier blocks for DEVIS, ENTREPRENEURS, PROPRIETAIRES,
+--              BIENS and CHANTIERS. The application reserves 50 ids per round
+--              trip so that inserts can be sent in JDBC batches.
+--              Run id_generators.sql after loading data to seed the counters.
+-- ============================================================================
+CREATE TABLE ID_GENERATORS (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+
+    PRIMARY KEY (sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Pooled id generator state';
+
 -- ============================================================================
 -- Additional Views for common queries
 -- ============================================================================
@@ -0,0 +1,155 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.dao.ChantierDAO;
+import com.immosync.gesttravaux.dao.ConflictException;
+import com.immosync.gesttravaux.dao.TransactionRunner;
+import com.immosync.gesttravaux.models.Chantier;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of concurrent edits of the same chantiers, on the {@link SeededDatabase}.
+ * Each thread plays a user: it reads one of the first {@link #rows} chantiers, "edits" it
+ * for {@link #thinkMillis}, then saves it. The edits are run in the {@link #mode} given
+ * as parameter:
+ * <ul>
+ *     <li>{@code optimistic}: the chantier is read and saved in separate transactions, and
+ *         a {@link ConflictException} on save is retried from a fresh read;</li>
+ *     <li>{@code pessimistic}: the chantier is read with {@code SELECT ... FOR UPDATE} and
+ *         the row lock is held for the think time, until the transaction commits.</li>
+ * </ul>
+ * The score is the number of edits saved per second; the {@link Counters} report the
+ * conflicts retried.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+    /**
+     * Locking mode of the edits: optimistic or pessimistic.
+     */
+    @Param({"optimistic", "pessimistic"})
+    public String mode;
+
+    /**
+     * Number of chantiers the threads edit.
+     */
+    @Param({"4"})
+    public int rows;
+
+    /**
+     * Time between the read and the save of an edit, in milliseconds.
+     */
+    @Param({"5"})
+    public int thinkMillis;
+
+    private final ChantierDAO chantierDAO = new ChantierDAO();
+    private List<Integer> ids;
+
+    /**
+     * Conflicts of the edits of a thread during an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        /**
+         * Saves refused with a {@link ConflictException}, then retried.
+         */
+        public long conflicts;
+
+        /**
+         * Resets the counter at the start of each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    /**
+     * Selects the chantiers edited.
+     */
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        ids = database.getChantierIds().subList(0, Math.min(rows, database.getChantierIds().size()));
+    }
+
+    /**
+     * One edit of a random chantier in the mode of the trial.
+     */
+    @Benchmark
+    public void edit(Counters counters) throws InterruptedException {
+        Integer id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        if ("pessimistic".equals(mode)) {
+            editPessimistic(id);
+        } else {
+            counters.conflicts += editOptimistic(id);
+        }
+    }
+
+    /**
+     * Reads, thinks and saves without holding a lock, retrying after a conflict.
+     *
+     * @return the number of conflicts
+     */
+    private int editOptimistic(Integer id) throws InterruptedException {
+        int conflicts = 0;
+        while (true) {
+            Chantier chantier = chantierDAO.findById(id).orElseThrow();
+            Thread.sleep(thinkMillis);
+            chantier.setInfoChantier(nextInfo());
+            try {
+                chantierDAO.update(chantier);
+                return conflicts;
+            } catch (ConflictException e) {
+                conflicts++;
+            }
+        }
+    }
+
+    /**
+     * Reads with a row lock, thinks and saves in one transaction.
+     */
+    private void editPessimistic(Integer id) {
+        TransactionRunner.runInTransaction(session -> {
+            Chantier chantier = session.find(Chantier.class, id, LockModeType.PESSIMISTIC_WRITE);
+            try {
+                Thread.sleep(thinkMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            chantier.setInfoChantier(nextInfo());
+        });
+    }
+
+    private static String nextInfo() {
+        return "Banc d'essai " + ThreadLocalRandom.current().nextInt(1_000_000);
+    }
+}
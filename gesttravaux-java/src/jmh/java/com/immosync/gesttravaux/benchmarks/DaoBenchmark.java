@@ -0,0 +1,95 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.dao.ChantierDAO;
+import com.immosync.gesttravaux.dao.EntrepreneurDAO;
+import com.immosync.gesttravaux.dao.ProprietaireDAO;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.models.Proprietaire;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmarks of the DAO hot paths on the {@link SeededDatabase}:
+ * reading by ID, listing a whole table, inserting a row, the chantier search and
+ * ordered list, and the entrepreneurs of a category.
+ * Each operation opens its own session and transaction, as the screens do.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+
+    private static final AtomicInteger SAVED = new AtomicInteger();
+
+    private final ChantierDAO chantierDAO = new ChantierDAO();
+    private final EntrepreneurDAO entrepreneurDAO = new EntrepreneurDAO();
+    private final ProprietaireDAO proprietaireDAO = new ProprietaireDAO();
+
+    /**
+     * {@code GenericDAO.findById} of a random chantier.
+     */
+    @Benchmark
+    public Optional<Chantier> findById(SeededDatabase database) {
+        return chantierDAO.findById(database.randomChantierId());
+    }
+
+    /**
+     * {@code GenericDAO.findAll} of the chantiers.
+     */
+    @Benchmark
+    public List<Chantier> findAll(SeededDatabase database) {
+        return chantierDAO.findAll();
+    }
+
+    /**
+     * {@code GenericDAO.save} of a new proprietaire; the table grows by one row per operation.
+     */
+    @Benchmark
+    public Proprietaire save(SeededDatabase database) {
+        int n = SAVED.incrementAndGet();
+        return proprietaireDAO.save(new Proprietaire("Banc", "Essai " + n, "banc.essai." + n + "@example.com"));
+    }
+
+    /**
+     * {@code ChantierDAO.search} of a word of the addresses or infos.
+     */
+    @Benchmark
+    public List<Chantier> chantierSearch(SeededDatabase database) {
+        return chantierDAO.search(database.randomSearchTerm());
+    }
+
+    /**
+     * {@code ChantierDAO.findAllOrdered}.
+     */
+    @Benchmark
+    public List<Chantier> chantierFindAllOrdered(SeededDatabase database) {
+        return chantierDAO.findAllOrdered();
+    }
+
+    /**
+     * {@code EntrepreneurDAO.findByCategorie} of a random category.
+     */
+    @Benchmark
+    public List<Entrepreneur> entrepreneurFindByCategorie(SeededDatabase database) {
+        return entrepreneurDAO.findByCategorie(database.randomCategorieId());
+    }
+}
@@ -0,0 +1,179 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Devis;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import jakarta.persistence.EntityGraph;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.graph.RootGraph;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * JMH benchmarks comparing the fetch plans of the main screens on the {@link SeededDatabase}.
+ * Each screen list is loaded with the {@link #plan} given as parameter:
+ * <ul>
+ *     <li>{@code eager}: the former EAGER plan, rebuilt as an entity graph of every
+ *         association that used to be EAGER;</li>
+ *     <li>{@code graph}: the named entity graph of the screen;</li>
+ *     <li>{@code lazy}: no graph at all, the associations being left as lazy proxies.</li>
+ * </ul>
+ * Besides the time of a load, the {@link Counters} report the SQL statements run and the
+ * entities materialised; divided by {@code loads}, they give the cost of one list.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchPlanBenchmark {
+
+    private static final int ROWS = 1000;
+
+    /**
+     * Fetch plan of the lists: eager, graph or lazy.
+     */
+    @Param({"eager", "graph", "lazy"})
+    public String plan;
+
+    /**
+     * SQL statements and entities of the loads of an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        /**
+         * Lists loaded.
+         */
+        public long loads;
+
+        /**
+         * SQL statements prepared by the loads.
+         */
+        public long statements;
+
+        /**
+         * Entities materialised by the loads.
+         */
+        public long entities;
+
+        /**
+         * Resets the counters at the start of each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            loads = 0;
+            statements = 0;
+            entities = 0;
+        }
+    }
+
+    /**
+     * Turns on the Hibernate statistics the counters are read from.
+     */
+    @Setup(Level.Trial)
+    public void enableStatistics(SeededDatabase database) {
+        HibernateUtil.getSessionFactory().getStatistics().setStatisticsEnabled(true);
+    }
+
+    /**
+     * The chantier list, with bien, proprietaire and inspecteur.
+     */
+    @Benchmark
+    public List<Chantier> chantierList(Counters counters) {
+        return load(counters, "FROM Chantier c ORDER BY c.idChantier", Chantier.class,
+                session -> {
+                    RootGraph<Chantier> graph = session.createEntityGraph(Chantier.class);
+                    graph.addSubgraph("bien").addAttributeNodes("proprietaire");
+                    graph.addAttributeNodes("inspecteur");
+                    return graph;
+                }, Chantier.GRAPH_LIST);
+    }
+
+    /**
+     * The devis list, with prestation, entrepreneur and chantier.
+     */
+    @Benchmark
+    public List<Devis> devisList(Counters counters) {
+        return load(counters, "FROM Devis d ORDER BY d.idDevis", Devis.class,
+                session -> {
+                    RootGraph<Devis> graph = session.createEntityGraph(Devis.class);
+                    graph.addSubgraph("prestation").addAttributeNodes("categorie");
+                    graph.addSubgraph("entrepreneur").addAttributeNodes("categories");
+                    var chantier = graph.addSubgraph("chantier");
+                    chantier.addSubgraph("bien").addAttributeNodes("proprietaire");
+                    chantier.addAttributeNodes("inspecteur");
+                    return graph;
+                }, Devis.GRAPH_LIST);
+    }
+
+    /**
+     * The entrepreneurs, with their categories.
+     */
+    @Benchmark
+    public List<Entrepreneur> entrepreneurList(Counters counters) {
+        return load(counters, "FROM Entrepreneur e ORDER BY e.idEntrepreneur", Entrepreneur.class,
+                session -> {
+                    RootGraph<Entrepreneur> graph = session.createEntityGraph(Entrepreneur.class);
+                    graph.addAttributeNodes("categories");
+                    return graph;
+                }, Entrepreneur.GRAPH_DETAIL);
+    }
+
+    /**
+     * Loads up to {@value #ROWS} rows of a list with the plan of the trial, from an empty
+     * second-level cache.
+     *
+     * @param eagerPlan builds the graph of the associations that used to be EAGER
+     * @param graphName the named graph of the screen
+     */
+    private <T> List<T> load(Counters counters, String hql, Class<T> type,
+                             Function<Session, EntityGraph<?>> eagerPlan, String graphName) {
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long entitiesBefore = statistics.getEntityLoadCount();
+        List<T> rows;
+        try (Session session = sessionFactory.openSession()) {
+            var query = session.createQuery(hql, type).setMaxResults(ROWS);
+            EntityGraph<?> graph = switch (plan) {
+                case "eager" -> eagerPlan.apply(session);
+                case "graph" -> session.getEntityGraph(graphName);
+                default -> null;
+            };
+            if (graph != null) {
+                query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, graph);
+            }
+            rows = query.getResultList();
+        }
+        counters.loads++;
+        counters.statements += statistics.getPrepareStatementCount() - statementsBefore;
+        counters.entities += statistics.getEntityLoadCount() - entitiesBefore;
+        return rows;
+    }
+}
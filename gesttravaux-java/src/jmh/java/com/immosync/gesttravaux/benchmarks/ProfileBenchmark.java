@@ -0,0 +1,140 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.config.PerformanceProfile;
+import com.immosync.gesttravaux.dao.ChantierDAO;
+import com.immosync.gesttravaux.dao.Page;
+import com.immosync.gesttravaux.dao.ProprietaireDAO;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dto.ChantierRow;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Proprietaire;
+import com.immosync.gesttravaux.services.ExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the {@link PerformanceProfile}s on the representative DAO workloads:
+ * reading a chantier by ID, as a form does; reading the first page of the chantier table;
+ * inserting proprietaires in batches of {@value #INSERT_BATCH}, as an import does, then
+ * deleting them; and exporting every chantier to a temporary CSV file.
+ * Each profile runs in a trial of its own, on a {@link ProfiledDatabase}.
+ * The profiles differ by MySQL driver settings, so the benchmark needs the MySQL
+ * database given by {@value SeededDatabase#URL_PROPERTY}.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int INSERT_BATCH = 500;
+
+    /**
+     * The seeded database, under the performance profile given as parameter.
+     */
+    @State(Scope.Benchmark)
+    public static class ProfiledDatabase extends SeededDatabase {
+
+        /**
+         * Performance profile of the trial.
+         */
+        @Param({"oltp", "bulk-load", "reporting"})
+        public String profile;
+
+        /**
+         * The profiles differ by MySQL driver settings, which H2 ignores.
+         */
+        @Override
+        protected boolean requiresMySql() {
+            return true;
+        }
+
+        @Override
+        protected PerformanceProfile performanceProfile() {
+            return PerformanceProfile.fromName(profile);
+        }
+    }
+
+    private final ChantierDAO chantierDAO = new ChantierDAO();
+    private final ProprietaireDAO proprietaireDAO = new ProprietaireDAO();
+    private final ExportService exportService = new ExportService();
+    private Path exportFile;
+
+    /**
+     * Creates the export file.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        exportFile = Files.createTempFile("gesttravaux-benchmark", ".csv");
+    }
+
+    /**
+     * Deletes the export file.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(exportFile);
+    }
+
+    /**
+     * Reads a random chantier by ID.
+     */
+    @Benchmark
+    public Optional<Chantier> findById(ProfiledDatabase database) {
+        return chantierDAO.findById(database.randomChantierId());
+    }
+
+    /**
+     * Reads the first page of the chantier table.
+     */
+    @Benchmark
+    public Page<ChantierRow> tablePage(ProfiledDatabase database) {
+        return chantierDAO.findRowPage(Sort.unsorted(), null, PAGE_SIZE);
+    }
+
+    /**
+     * Inserts a batch of proprietaires, then deletes them.
+     */
+    @Benchmark
+    public int batchInsert(ProfiledDatabase database) {
+        List<Proprietaire> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < INSERT_BATCH; i++) {
+            batch.add(new Proprietaire("Banc", "Essai " + i, "banc.essai." + i + "@example.com"));
+        }
+        List<Proprietaire> saved = proprietaireDAO.saveAll(batch);
+        return proprietaireDAO.deleteAllById(saved.stream().map(Proprietaire::getIdProprietaire).toList());
+    }
+
+    /**
+     * Exports every chantier.
+     */
+    @Benchmark
+    public long export(ProfiledDatabase database) throws IOException {
+        return exportService.exportChantiers(exportFile);
+    }
+}
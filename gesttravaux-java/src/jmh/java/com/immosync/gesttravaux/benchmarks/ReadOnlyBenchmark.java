@@ -0,0 +1,83 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.models.Chantier;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the session modes used to read lists, on the {@link SeededDatabase}.
+ * Every chantier, with its bien and inspecteur, is loaded in the session {@link #mode}
+ * given as parameter:
+ * <ul>
+ *     <li>{@code normal}: a normal session, which keeps a copy of the state of every
+ *         entity and dirty-checks them all at flush;</li>
+ *     <li>{@code read-only}: a read-only session with {@code FlushMode.MANUAL}, as the
+ *         DAO lists use;</li>
+ *     <li>{@code stateless}: a StatelessSession, which has no persistence context.</li>
+ * </ul>
+ * A session is flushed before it is closed, as at the commit of a transaction; the
+ * transaction is rolled back, nothing is written. Run with {@code -prof gc} to compare
+ * the memory allocated per load ({@code gc.alloc.rate.norm}).
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyBenchmark {
+
+    private static final String HQL =
+            "FROM Chantier c LEFT JOIN FETCH c.bien LEFT JOIN FETCH c.inspecteur ORDER BY c.idChantier";
+
+    /**
+     * Session mode: normal, read-only or stateless.
+     */
+    @Param({"normal", "read-only", "stateless"})
+    public String mode;
+
+    /**
+     * Loads every chantier in the session mode of the trial, then flushes the session.
+     */
+    @Benchmark
+    public List<Chantier> list(SeededDatabase database) {
+        if ("stateless".equals(mode)) {
+            try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+                return session.createSelectionQuery(HQL, Chantier.class).getResultList();
+            }
+        }
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            if ("read-only".equals(mode)) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            // Flushing needs a transaction; it is rolled back, nothing is written
+            session.beginTransaction();
+            try {
+                List<Chantier> chantiers = session.createSelectionQuery(HQL, Chantier.class).getResultList();
+                session.flush();
+                return chantiers;
+            } finally {
+                session.getTransaction().rollback();
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.config.PerformanceProfile;
+import com.immosync.gesttravaux.dao.TransactionRunner;
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Categorie;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Devis;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.models.Inspecteur;
+import com.immosync.gesttravaux.models.Prestation;
+import com.immosync.gesttravaux.models.Proprietaire;
+import com.immosync.gesttravaux.search.SearchIndex;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Database shared by the benchmarks of a trial, seeded with a synthetic dataset whose
+ * size is set by {@link #scale}: {@code scale} chantiers on {@code scale / 2} biens of
+ * {@code scale / 4} proprietaires, {@code scale / 5} entrepreneurs in 1 to 3 of
+ * 12 trade categories, and {@code scale} devis of these entrepreneurs for 2 prestations
+ * of each category. The dataset is generated from a fixed seed, so two
+ * runs of the same scale compare the same rows.
+ * <p>
+ * The database is an in-memory H2 database in MySQL mode, created by Hibernate from the
+ * mappings. A local MySQL database is used instead when the system property
+ * {@value #URL_PROPERTY} is set, with {@value #USER_PROPERTY} and
+ * {@value #PASSWORD_PROPERTY}; its tables are dropped and re-created, so it must be a
+ * database dedicated to the benchmarks.
+ * <p>
+ * Subclasses can run the trial under another {@link PerformanceProfile} than the one of
+ * hibernate.cfg.xml.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    /**
+     * System property with the JDBC URL of a MySQL database to use instead of H2.
+     */
+    public static final String URL_PROPERTY = "benchmark.url";
+
+    /**
+     * System property with the MySQL user name.
+     */
+    public static final String USER_PROPERTY = "benchmark.user";
+
+    /**
+     * System property with the MySQL password.
+     */
+    public static final String PASSWORD_PROPERTY = "benchmark.password";
+
+    private static final String H2_URL = "jdbc:h2:mem:gesttravaux;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int INSPECTEURS = 20;
+    private static final int PRESTATIONS_PER_CATEGORIE = 2;
+    private static final int SEED_BATCH = 500;
+    private static final long SEED = 42L;
+
+    private static final String[] VILLES = {
+            "Paris", "Lyon", "Marseille", "Toulouse", "Nice", "Nantes", "Strasbourg", "Montpellier",
+            "Bordeaux", "Lille", "Rennes", "Reims", "Grenoble", "Dijon", "Angers", "Villeurbanne"
+    };
+    private static final String[] RUES = {
+            "rue de la République", "avenue Jean Jaurès", "boulevard Victor Hugo", "rue Pasteur",
+            "place de la Mairie", "rue des Lilas", "chemin des Vignes", "allée des Tilleuls"
+    };
+    private static final String[] TRAVAUX = {
+            "réfection de la toiture", "ravalement de façade", "isolation des combles", "rénovation électrique",
+            "remplacement des fenêtres", "plomberie de la salle de bains", "peinture des parties communes",
+            "mise aux normes de l'ascenseur", "étanchéité de la terrasse", "remplacement de la chaudière"
+    };
+    private static final String[] SEARCH_TERMS = {
+            "toiture", "façade", "isolation", "électrique", "fenêtres", "chaudière", "République", "Lilas"
+    };
+    private static final String[] NOMS = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand",
+            "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "Fournier"
+    };
+    private static final String[] PRENOMS = {
+            "Claire", "Louis", "Camille", "Hugo", "Léa", "Jules", "Manon", "Arthur", "Chloé", "Paul"
+    };
+    private static final String[] METIERS = {
+            "Plomberie", "Électricité", "Maçonnerie", "Couverture", "Menuiserie", "Peinture",
+            "Chauffage", "Carrelage", "Isolation", "Serrurerie", "Vitrerie", "Terrassement"
+    };
+
+    /**
+     * Number of chantiers of the dataset; the other tables are sized from it.
+     */
+    @Param({"1000", "10000"})
+    public int scale;
+
+    private List<Integer> chantierIds;
+    private List<Integer> bienIds;
+    private List<Integer> entrepreneurIds;
+    private List<Integer> categorieIds;
+
+    /**
+     * Builds the SessionFactory on the benchmark database, seeds it and builds the search index.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty(URL_PROPERTY);
+        if (requiresMySql() && (url == null || url.isBlank())) {
+            throw new IllegalStateException("Ce banc d'essai mesure MySQL : définir -D" + URL_PROPERTY
+                    + "=jdbc:mysql://localhost:3306/<base dédiée>");
+        }
+        PerformanceProfile profile = performanceProfile();
+        if (profile != null) {
+            System.setProperty(PerformanceProfile.SYSTEM_PROPERTY, profile.getName());
+        }
+        HibernateUtil.setSettingsOverrides(databaseSettings());
+        Random random = new Random(SEED);
+        categorieIds = new ArrayList<>();
+        bienIds = new ArrayList<>();
+        chantierIds = new ArrayList<>();
+        entrepreneurIds = new ArrayList<>();
+        seed(random);
+        SearchIndex.getInstance().rebuild(HibernateUtil.getSessionFactory());
+    }
+
+    /**
+     * Closes the SessionFactory; the H2 database is dropped with the JVM of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    /**
+     * Gets the performance profile of the trial. Each trial runs in a JVM of its own,
+     * so the profile does not leak into the next one.
+     *
+     * @return the profile, or null for the profile of hibernate.cfg.xml
+     */
+    protected PerformanceProfile performanceProfile() {
+        return null;
+    }
+
+    /**
+     * Checks if the benchmark only makes sense on MySQL, in which case the trial fails
+     * instead of falling back to H2 when {@value #URL_PROPERTY} is not set.
+     *
+     * @return true to require a MySQL database
+     */
+    protected boolean requiresMySql() {
+        return false;
+    }
+
+    /**
+     * Gets the chantiers of the dataset, in insertion order.
+     *
+     * @return the chantier IDs
+     */
+    public List<Integer> getChantierIds() {
+        return Collections.unmodifiableList(chantierIds);
+    }
+
+    /**
+     * Gets a random chantier of the dataset.
+     *
+     * @return the chantier ID
+     */
+    public Integer randomChantierId() {
+        return pick(chantierIds);
+    }
+
+    /**
+     * Gets a random bien of the dataset.
+     *
+     * @return the bien ID
+     */
+    public Integer randomBienId() {
+        return pick(bienIds);
+    }
+
+    /**
+     * Gets a random entrepreneur of the dataset.
+     *
+     * @return the entrepreneur ID
+     */
+    public Integer randomEntrepreneurId() {
+        return pick(entrepreneurIds);
+    }
+
+    /**
+     * Gets a random category of the dataset.
+     *
+     * @return the category ID
+     */
+    public Integer randomCategorieId() {
+        return pick(categorieIds);
+    }
+
+    /**
+     * Gets a random word of the chantier addresses and infos, to search for.
+     *
+     * @return the search term
+     */
+    public String randomSearchTerm() {
+        return SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)];
+    }
+
+    /**
+     * Gets the Hibernate settings of the benchmark database.
+     */
+    private static Properties databaseSettings() {
+        Properties settings = new Properties();
+        String url = System.getProperty(URL_PROPERTY);
+        if (url == null || url.isBlank()) {
+            settings.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+            settings.setProperty("hibernate.connection.url", H2_URL);
+            settings.setProperty("hibernate.connection.username", "sa");
+            settings.setProperty("hibernate.connection.password", "");
+            settings.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        } else {
+            settings.setProperty("hibernate.connection.url", url);
+            settings.setProperty("hibernate.connection.username", System.getProperty(USER_PROPERTY, "root"));
+            settings.setProperty("hibernate.connection.password", System.getProperty(PASSWORD_PROPERTY, ""));
+        }
+        settings.setProperty("hibernate.hbm2ddl.auto", "create");
+        settings.setProperty("hibernate.show_sql", "false");
+        settings.setProperty("hibernate.format_sql", "false");
+        settings.setProperty("hibernate.generate_statistics", "false");
+        return settings;
+    }
+
+    /**
+     * Inserts the dataset, flushing and clearing the session every {@value #SEED_BATCH} rows.
+     */
+    private void seed(Random random) {
+        TransactionRunner.runInTransaction(session -> {
+            for (String metier : METIERS) {
+                Categorie categorie = new Categorie(metier);
+                session.persist(categorie);
+                session.flush();
+                categorieIds.add(categorie.getIdCategorie());
+            }
+
+            List<Integer> inspecteurIds = new ArrayList<>();
+            for (int i = 0; i < INSPECTEURS; i++) {
+                Inspecteur inspecteur = new Inspecteur(pick(random, NOMS), pick(random, PRENOMS),
+                        "inspecteur." + i + "@example.com");
+                inspecteur.setSecteurInspecteur(pick(random, VILLES));
+                session.persist(inspecteur);
+                session.flush();
+                inspecteurIds.add(inspecteur.getIdInspecteur());
+            }
+
+            List<Integer> proprietaireIds = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, scale / 4); i++) {
+                Proprietaire proprietaire = new Proprietaire(pick(random, NOMS), pick(random, PRENOMS),
+                        "proprietaire." + i + "@example.com");
+                session.persist(proprietaire);
+                proprietaireIds.add(proprietaire.getIdProprietaire());
+                flushEvery(session, i);
+            }
+
+            for (int i = 0; i < Math.max(1, scale / 2); i++) {
+                Bien bien = new Bien(address(random), pick(random, VILLES),
+                        session.getReference(Proprietaire.class, pick(random, proprietaireIds)));
+                session.persist(bien);
+                bienIds.add(bien.getIdBien());
+                flushEvery(session, i);
+            }
+
+            for (int i = 0; i < scale; i++) {
+                Chantier chantier = new Chantier(pick(random, VILLES), address(random),
+                        session.getReference(Bien.class, pick(random, bienIds)));
+                chantier.setInfoChantier(pick(random, TRAVAUX));
+                chantier.setStatutChantier(random.nextInt(3));
+                chantier.setInspecteur(session.getReference(Inspecteur.class, pick(random, inspecteurIds)));
+                session.persist(chantier);
+                chantierIds.add(chantier.getIdChantier());
+                flushEvery(session, i);
+            }
+
+            for (int i = 0; i < Math.max(1, scale / 5); i++) {
+                Entrepreneur entrepreneur = new Entrepreneur(pick(random, NOMS), pick(random, PRENOMS),
+                        "entrepreneur." + i + "@example.com");
+                entrepreneur.setVilleDeploiement(pick(random, VILLES));
+                Set<Categorie> categories = new HashSet<>();
+                for (int c = 0; c < 1 + random.nextInt(3); c++) {
+                    categories.add(session.getReference(Categorie.class, pick(random, categorieIds)));
+                }
+                entrepreneur.setCategories(categories);
+                session.persist(entrepreneur);
+                entrepreneurIds.add(entrepreneur.getIdEntrepreneur());
+                flushEvery(session, i);
+            }
+
+            List<Integer> prestationIds = new ArrayList<>();
+            for (Integer categorieId : categorieIds) {
+                for (int i = 0; i < PRESTATIONS_PER_CATEGORIE; i++) {
+                    Prestation prestation = new Prestation(pick(random, TRAVAUX),
+                            session.getReference(Categorie.class, categorieId));
+                    session.persist(prestation);
+                    session.flush();
+                    prestationIds.add(prestation.getIdPrestation());
+                }
+            }
+
+            for (int i = 0; i < scale; i++) {
+                Devis devis = new Devis(500 + random.nextInt(20_000), (1 + random.nextInt(12)) + " semaines",
+                        session.getReference(Prestation.class, pick(random, prestationIds)),
+                        session.getReference(Entrepreneur.class, pick(random, entrepreneurIds)),
+                        session.getReference(Chantier.class, pick(random, chantierIds)));
+                session.persist(devis);
+                flushEvery(session, i);
+            }
+        });
+    }
+
+    private static void flushEvery(Session session, int index) {
+        if ((index + 1) % SEED_BATCH == 0) {
+            session.flush();
+            session.clear();
+        }
+    }
+
+    private static String address(Random random) {
+        return (1 + random.nextInt(120)) + " " + pick(random, RUES);
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
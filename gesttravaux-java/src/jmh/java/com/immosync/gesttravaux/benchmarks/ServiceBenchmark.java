@@ -0,0 +1,128 @@
+package com.immosync.gesttravaux.benchmarks;
+
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.services.BienService;
+import com.immosync.gesttravaux.services.ChantierService;
+import com.immosync.gesttravaux.services.EntrepreneurService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmarks of the service create and update paths on the {@link SeededDatabase},
+ * validation and uniqueness checks included.
+ * Each thread updates chantiers and entrepreneurs it created itself, so that the
+ * updates never conflict, whatever the number of threads.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int WORKING_SET = 50;
+    private static final AtomicInteger CREATED = new AtomicInteger();
+
+    private final ChantierService chantierService = new ChantierService();
+    private final EntrepreneurService entrepreneurService = new EntrepreneurService();
+    private final BienService bienService = new BienService();
+
+    private final List<Bien> biens = new ArrayList<>();
+    private final List<Chantier> chantiers = new ArrayList<>();
+    private final List<Entrepreneur> entrepreneurs = new ArrayList<>();
+    private int next;
+
+    /**
+     * Loads the biens of the new chantiers and creates the rows updated by this thread.
+     */
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        for (int i = 0; i < WORKING_SET; i++) {
+            biens.add(bienService.findById(database.randomBienId()).orElseThrow());
+        }
+        for (int i = 0; i < WORKING_SET; i++) {
+            chantiers.add(chantierService.createChantier(newChantier()));
+            entrepreneurs.add(entrepreneurService.createEntrepreneur(newEntrepreneur()));
+        }
+    }
+
+    /**
+     * {@code ChantierService.createChantier}.
+     */
+    @Benchmark
+    public Chantier createChantier() {
+        return chantierService.createChantier(newChantier());
+    }
+
+    /**
+     * {@code ChantierService.updateChantier} of a chantier edited in a form.
+     */
+    @Benchmark
+    public Chantier updateChantier() {
+        int index = nextIndex();
+        Chantier chantier = chantiers.get(index);
+        chantier.setInfoChantier("Mise à jour " + CREATED.incrementAndGet());
+        chantier.setStatutChantier((chantier.getStatutChantier() + 1) % 3);
+        Chantier updated = chantierService.updateChantier(chantier);
+        chantiers.set(index, updated);
+        return updated;
+    }
+
+    /**
+     * {@code EntrepreneurService.createEntrepreneur}, with its e-mail uniqueness check.
+     */
+    @Benchmark
+    public Entrepreneur createEntrepreneur() {
+        return entrepreneurService.createEntrepreneur(newEntrepreneur());
+    }
+
+    /**
+     * {@code EntrepreneurService.updateEntrepreneur} of an entrepreneur edited in a form.
+     */
+    @Benchmark
+    public Entrepreneur updateEntrepreneur() {
+        int index = nextIndex();
+        Entrepreneur entrepreneur = entrepreneurs.get(index);
+        entrepreneur.setTelEntrepreneur("06" + String.format("%08d", CREATED.incrementAndGet() % 100_000_000));
+        Entrepreneur updated = entrepreneurService.updateEntrepreneur(entrepreneur);
+        entrepreneurs.set(index, updated);
+        return updated;
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % WORKING_SET;
+        return next;
+    }
+
+    private Chantier newChantier() {
+        Bien bien = biens.get(CREATED.incrementAndGet() % biens.size());
+        Chantier chantier = new Chantier(bien.getVilleBien(), bien.getAdresseBien(), bien);
+        chantier.setInfoChantier("Banc d'essai");
+        return chantier;
+    }
+
+    private static Entrepreneur newEntrepreneur() {
+        int n = CREATED.incrementAndGet();
+        return new Entrepreneur("Banc", "Essai " + n, "banc.essai." + n + "@example.com");
+    }
+}
@@ -0,0 +1,59 @@
+package com.immosync.gesttravaux;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.services.ExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+/**
+ * Headless entry point exporting chantiers or devis without starting the user interface.
+ * Usage: {@code ExportCli chantiers|devis <fichier.csv|fichier.xlsx>}
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class ExportCli {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportCli.class);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ExportCli() {
+    }
+
+    /**
+     * Runs the export.
+     *
+     * @param args the data to export and the output file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage : ExportCli chantiers|devis <fichier.csv|fichier.xlsx>");
+            System.exit(2);
+        }
+        Path file = Path.of(args[1]);
+        ExportService exportService = new ExportService();
+        int status = 0;
+        try {
+            long count = switch (args[0].toLowerCase()) {
+                case "chantiers" -> exportService.exportChantiers(file);
+                case "devis" -> exportService.exportDevis(file);
+                default -> throw new IllegalArgumentException("Données inconnues : " + args[0]);
+            };
+            System.out.println(count + " lignes exportées dans " + file.toAbsolutePath());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            status = 2;
+        } catch (Exception e) {
+            logger.error("Export failed", e);
+            System.err.println("L'export a échoué : " + e.getMessage());
+            status = 1;
+        } finally {
+            HibernateUtil.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -2,10 +2,16 @@ package com.immosync.gesttravaux;
 
 import com.immosync.gesttravaux.config.HibernateUtil;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +29,7 @@ public class MainApp extends Application {
 
     /**
      * Starts the JavaFX application.
+     * The SessionFactory is built in the background while the main window is displayed.
      *
      * @param stage the primary stage
      */
@@ -30,15 +37,17 @@ public class MainApp extends Application {
     public void start(Stage stage) {
         try {
             logger.info("Starting GestTravaux Pro application...");
+            long start = System.nanoTime();
             primaryStage = stage;
 
-            // Initialize Hibernate
-            HibernateUtil.getSessionFactory();
-            logger.info("Hibernate SessionFactory initialized");
+            // Initialize Hibernate, then the search index, in the background
+            HibernateUtil.startAsync();
+            Stage splash = showSplash();
 
             // Load main FXML
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Main.fxml"));
             Parent root = loader.load();
+            logger.info("Main view loaded in {} ms", (System.nanoTime() - start) / 1_000_000);
 
             // Create scene
             Scene scene = new Scene(root, 1200, 800);
@@ -49,6 +58,16 @@ public class MainApp extends Application {
             stage.setScene(scene);
             stage.setMaximized(true);
             stage.show();
+            splash.toFront();
+            logger.info("Main window shown in {} ms", (System.nanoTime() - start) / 1_000_000);
+
+            HibernateUtil.startAsync().whenComplete((sessionFactory, ex) -> Platform.runLater(() -> {
+                splash.close();
+                if (ex == null) {
+                    logger.info("Hibernate SessionFactory ready {} ms after launch",
+                            (System.nanoTime() - start) / 1_000_000);
+                }
+            }));
 
             logger.info("Application started successfully");
 
@@ -58,6 +77,29 @@ public class MainApp extends Application {
         }
     }
 
+    /**
+     * Shows a splash window while the database connection is being established.
+     *
+     * @return the splash stage
+     */
+    private Stage showSplash() {
+        Label title = new Label("GestTravaux Pro");
+        title.getStyleClass().add("label-header");
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(260);
+        VBox content = new VBox(15, title, new Label("Connexion à la base de données..."), progressBar);
+        content.setAlignment(Pos.CENTER);
+        content.setStyle("-fx-padding: 30; -fx-background-color: white; -fx-border-color: #bdc3c7;");
+
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        Scene scene = new Scene(content);
+        scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+        splash.setScene(scene);
+        splash.setAlwaysOnTop(true);
+        splash.show();
+        return splash;
+    }
+
     /**
      * Stops the application and cleans up resources.
      */
@@ -0,0 +1,80 @@
+package com.immosync.gesttravaux.config;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Names of the second-level cache regions.
+ * Each region is sized and given a time-to-live in application.conf (caffeine.jcache section);
+ * the names used here must match the keys declared there.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public final class CacheRegions {
+
+    public static final String CATEGORIE = "categorie";
+    public static final String PRESTATION = "prestation";
+    public static final String INSPECTEUR = "inspecteur";
+    public static final String PROPRIETAIRE = "proprietaire";
+    public static final String ENTREPRENEUR_CATEGORIES = "entrepreneur-categories";
+
+    /**
+     * All the regions declared by the mapped entities.
+     */
+    public static final List<String> ALL = List.of(
+            CATEGORIE, PRESTATION, INSPECTEUR, PROPRIETAIRE, ENTREPRENEUR_CATEGORIES);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CacheRegions() {
+    }
+
+    /**
+     * Collects the hit/miss counters of every region.
+     *
+     * @param statistics the Hibernate statistics
+     * @return the statistics of each region, in the order of {@link #ALL}
+     */
+    public static List<RegionStats> collect(Statistics statistics) {
+        List<RegionStats> result = new ArrayList<>(ALL.size());
+        for (String region : ALL) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            result.add(new RegionStats(region, stats.getHitCount(), stats.getMissCount(),
+                    stats.getPutCount(), stats.getElementCountInMemory()));
+        }
+        return result;
+    }
+
+    /**
+     * Hit/miss counters of one cache region.
+     *
+     * @param region the region name
+     * @param hits lookups answered by the cache
+     * @param misses lookups that went to the database
+     * @param puts entries stored in the cache
+     * @param size entries currently held, or a negative value if unknown
+     */
+    public record RegionStats(String region, long hits, long misses, long puts, long size) {
+
+        /**
+         * Gets the share of lookups answered by the cache.
+         *
+         * @return the hit ratio, between 0 and 1
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: hits=%d, misses=%d, puts=%d, size=%d, ratio=%.0f%%",
+                    region, hits, misses, puts, size, hitRatio() * 100);
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.immosync.gesttravaux.config;
 
+import com.immosync.gesttravaux.events.EntityEventListener;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchIndexListener;
 import org.hibernate.SessionFactory;
-import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.boot.registry.BootstrapServiceRegistry;
+import org.hibernate.boot.registry.BootstrapServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.service.ServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Hibernate utility class for managing SessionFactory.
  * This class follows the Singleton pattern to ensure only one SessionFactory instance.
+ * The SessionFactory is built once, on a background thread, and shared through a future
+ * so the UI can be displayed while Hibernate bootstraps.
  *
  * @author GestTravaux Pro
  * @version 1.0
@@ -17,7 +32,9 @@ import org.slf4j.LoggerFactory;
 public class HibernateUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(HibernateUtil.class);
-    private static SessionFactory sessionFactory;
+    private static final AtomicReference<CompletableFuture<SessionFactory>> bootstrap = new AtomicReference<>();
+    private static volatile PerformanceProfile performanceProfile;
+    private static volatile Properties settingsOverrides = new Properties();
 
     /**
      * Private constructor to prevent instantiation.
@@ -25,49 +42,200 @@ public class HibernateUtil {
     private HibernateUtil() {
     }
 
+    /**
+     * Starts building the SessionFactory on a background thread.
+     * Only the first call starts the bootstrap; later calls return the same future.
+     * A failed bootstrap is retried by the next call. Each SessionFactory built
+     * rebuilds the search index in the background, so the index also follows a retry
+     * or a {@link #shutdown()}.
+     *
+     * @return the future completed with the SessionFactory
+     */
+    public static CompletableFuture<SessionFactory> startAsync() {
+        while (true) {
+            CompletableFuture<SessionFactory> current = bootstrap.get();
+            if (current != null && !current.isCompletedExceptionally()) {
+                return current;
+            }
+            CompletableFuture<SessionFactory> created = new CompletableFuture<>();
+            if (bootstrap.compareAndSet(current, created)) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        created.complete(buildSessionFactory());
+                    } catch (Throwable ex) {
+                        created.completeExceptionally(ex);
+                    }
+                }, "hibernate-bootstrap");
+                created.thenAccept(SearchIndex.getInstance()::rebuildInBackground);
+                thread.setDaemon(true);
+                thread.start();
+                return created;
+            }
+        }
+    }
+
     /**
      * Gets the SessionFactory instance.
-     * Creates a new instance if it doesn't exist.
+     * Starts the bootstrap if needed and waits for it to complete.
      *
      * @return the SessionFactory instance
      */
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                logger.info("Initializing Hibernate SessionFactory...");
+        try {
+            return startAsync().join();
+        } catch (CompletionException ex) {
+            throw new ExceptionInInitializerError(ex.getCause());
+        }
+    }
 
-                // Create the SessionFactory from hibernate.cfg.xml
-                Configuration configuration = new Configuration();
-                configuration.configure("hibernate.cfg.xml");
+    /**
+     * Builds the SessionFactory from hibernate.cfg.xml, logging the duration of each phase.
+     *
+     * @return the new SessionFactory
+     */
+    private static SessionFactory buildSessionFactory() {
+        try {
+            logger.info("Initializing Hibernate SessionFactory...");
+            long start = System.nanoTime();
 
-                logger.info("Hibernate Configuration loaded");
+            // Keep the search index in step with the committed entities
+            BootstrapServiceRegistry bootstrapRegistry = new BootstrapServiceRegistryBuilder()
+                    .applyIntegrator(new SearchIndexListener.Registration())
+                    .applyIntegrator(new EntityEventListener.Registration())
+                    .build();
 
-                ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
-                        .applySettings(configuration.getProperties())
-                        .build();
+            // Create the SessionFactory from hibernate.cfg.xml
+            Configuration configuration = new Configuration(bootstrapRegistry);
+            configuration.configure("hibernate.cfg.xml");
+            PerformanceProfile profile = PerformanceProfile.select(configuration.getProperties());
+            configuration.addProperties(profile.toProperties());
+            performanceProfile = profile;
+            logger.info("Performance profile {}: {}", profile.getName(), profile.getSettings());
+            Properties overrides = settingsOverrides;
+            if (!overrides.isEmpty()) {
+                configuration.addProperties(overrides);
+                logger.info("Settings overridden: {}", overrides.stringPropertyNames());
+            }
+            long configured = System.nanoTime();
+            logger.info("Hibernate Configuration loaded in {} ms", (configured - start) / 1_000_000);
 
-                sessionFactory = configuration.buildSessionFactory(serviceRegistry);
+            // The builder of the Configuration carries the <mapping> entries of hibernate.cfg.xml
+            ServiceRegistry serviceRegistry = configuration.getStandardServiceRegistryBuilder()
+                    .applySettings(configuration.getProperties())
+                    .build();
+            long registryBuilt = System.nanoTime();
+            logger.info("Hibernate service registry built in {} ms", (registryBuilt - configured) / 1_000_000);
 
-                logger.info("Hibernate SessionFactory created successfully");
+            SessionFactory sessionFactory = configuration.buildSessionFactory(serviceRegistry);
+            long built = System.nanoTime();
+            logger.info("Hibernate SessionFactory created in {} ms (total bootstrap {} ms)",
+                    (built - registryBuilt) / 1_000_000, (built - start) / 1_000_000);
+            return sessionFactory;
 
-            } catch (Exception ex) {
-                logger.error("Failed to create SessionFactory", ex);
-                throw new ExceptionInInitializerError(ex);
-            }
+        } catch (Exception ex) {
+            logger.error("Failed to create SessionFactory", ex);
+            throw ex;
         }
-        return sessionFactory;
     }
 
     /**
      * Closes the SessionFactory and releases all resources.
-     * Should be called when the application is shutting down.
+     * Should be called when the application is shutting down. A later call to
+     * {@link #getSessionFactory()} builds a new SessionFactory, e.g. with another
+     * {@link PerformanceProfile}.
      */
     public static void shutdown() {
-        if (sessionFactory != null && !sessionFactory.isClosed()) {
-            logger.info("Closing Hibernate SessionFactory...");
-            sessionFactory.close();
-            logger.info("Hibernate SessionFactory closed");
+        CompletableFuture<SessionFactory> current = bootstrap.get();
+        if (current == null) {
+            return;
+        }
+        if (!current.isDone()) {
+            logger.info("SessionFactory still bootstrapping, it will be closed once built");
         }
+        current.thenAccept(sessionFactory -> {
+            if (!sessionFactory.isClosed()) {
+                logger.info("Closing Hibernate SessionFactory...");
+                CacheRegions.collect(sessionFactory.getStatistics())
+                        .forEach(stats -> logger.info("Second-level cache {}", stats));
+                sessionFactory.close();
+                logger.info("Hibernate SessionFactory closed");
+            }
+        });
+        bootstrap.compareAndSet(current, null);
+    }
+
+    /**
+     * Sets settings that override hibernate.cfg.xml and the performance profile, e.g. to
+     * run against another database. They apply to the next SessionFactory built, so they
+     * must be set before the first use of Hibernate or followed by {@link #shutdown()}.
+     *
+     * @param overrides the Hibernate settings, empty to use hibernate.cfg.xml alone
+     */
+    public static void setSettingsOverrides(Properties overrides) {
+        Properties copy = new Properties();
+        copy.putAll(overrides);
+        settingsOverrides = copy;
+    }
+
+    /**
+     * Gets the performance profile applied to the SessionFactory.
+     *
+     * @return the profile, null until the SessionFactory is built
+     */
+    public static PerformanceProfile getPerformanceProfile() {
+        return performanceProfile;
+    }
+
+    /**
+     * Gets the fetch size that streams a long result set instead of buffering it whole
+     * on the client: {@code Integer.MIN_VALUE}, which MySQL Connector/J reads as "row by
+     * row", or {@link PerformanceProfile#REPORTING_FETCH_SIZE} rows at a time on other
+     * databases, which reject a negative fetch size.
+     *
+     * @param sessionFactory the session factory
+     * @return the fetch size
+     */
+    public static int getStreamingFetchSize(SessionFactory sessionFactory) {
+        return sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                instanceof MySQLDialect ? Integer.MIN_VALUE : PerformanceProfile.REPORTING_FETCH_SIZE;
+    }
+
+    /**
+     * Gets the live metrics of the connection pool.
+     *
+     * @return the pool metrics snapshot
+     * @throws IllegalStateException if the pool is not the application pool
+     */
+    public static PoolMetrics.Snapshot getPoolMetrics() {
+        return getPool().getMetrics().snapshot();
+    }
+
+    /**
+     * Gets the maximum number of connections of the pool.
+     *
+     * @return the maximum pool size
+     * @throws IllegalStateException if the pool is not the application pool
+     */
+    public static int getMaximumPoolSize() {
+        return getPool().getMaximumPoolSize();
+    }
+
+    private static PooledConnectionProvider getPool() {
+        ConnectionProvider provider = getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            throw new IllegalStateException("Le pool de connexions n'est pas configuré");
+        }
+        return provider.unwrap(PooledConnectionProvider.class);
+    }
+
+    /**
+     * Gets the hit/miss counters of the second-level cache regions.
+     *
+     * @return the statistics of each region
+     */
+    public static List<CacheRegions.RegionStats> getCacheStatistics() {
+        return CacheRegions.collect(getSessionFactory().getStatistics());
     }
 
     /**
@@ -76,6 +244,8 @@ public class HibernateUtil {
      * @return true if SessionFactory is open, false otherwise
      */
     public static boolean isSessionFactoryOpen() {
-        return sessionFactory != null && !sessionFactory.isClosed();
+        CompletableFuture<SessionFactory> current = bootstrap.get();
+        return current != null && current.isDone() && !current.isCompletedExceptionally()
+                && !current.join().isClosed();
     }
 }
@@ -0,0 +1,166 @@
+package com.immosync.gesttravaux.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Named sets of JDBC driver and Hibernate settings, each tuned for one kind of workload.
+ * The profile is chosen at bootstrap by {@link HibernateUtil}: the system property
+ * {@value #SYSTEM_PROPERTY} wins over the {@value #SETTING} setting of hibernate.cfg.xml,
+ * and {@link #OLTP} is used when neither is set. Its settings override those of
+ * hibernate.cfg.xml.
+ * Driver properties are given to the pool as {@code hibernate.hikari.dataSource.*}
+ * settings, which HikariCP passes to MySQL Connector/J.
+ *
+ * <pre>
+ * java -Dgesttravaux.profile=bulk-load -jar gesttravaux-pro.jar
+ * </pre>
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public enum PerformanceProfile {
+
+    /**
+     * Interactive use: many short statements from forms, table pages and searches.
+     * Statements are prepared once on the server and kept in a per-connection cache,
+     * and the driver skips the round trips it can answer from its own session state.
+     */
+    OLTP("oltp", settings(
+            "dataSource.useServerPrepStmts", "true",
+            "dataSource.rewriteBatchedStatements", "true",
+            "dataSource.useLocalSessionState", "true",
+            "dataSource.elideSetAutoCommits", "true",
+            "dataSource.cacheResultSetMetadata", "true",
+            "dataSource.cacheServerConfiguration", "true",
+            "dataSource.maintainTimeStats", "false",
+            "hibernate.jdbc.batch_size", "50")),
+
+    /**
+     * Imports and mass updates. Statements are prepared by the driver, so that
+     * {@code rewriteBatchedStatements} turns each JDBC batch of INSERTs into a single
+     * multi-row INSERT, and batches are larger.
+     */
+    BULK_LOAD("bulk-load", settings(
+            "dataSource.useServerPrepStmts", "false",
+            "dataSource.rewriteBatchedStatements", "true",
+            "dataSource.useLocalSessionState", "true",
+            "dataSource.elideSetAutoCommits", "true",
+            "dataSource.maintainTimeStats", "false",
+            "hibernate.jdbc.batch_size", "500")),
+
+    /**
+     * Long lists and exports. Result sets are read from a server-side cursor
+     * {@value #REPORTING_FETCH_SIZE} rows at a time instead of being loaded whole
+     * into memory.
+     */
+    REPORTING("reporting", settings(
+            "dataSource.useServerPrepStmts", "true",
+            "dataSource.useCursorFetch", "true",
+            "dataSource.defaultFetchSize", String.valueOf(PerformanceProfile.REPORTING_FETCH_SIZE),
+            "dataSource.rewriteBatchedStatements", "true",
+            "dataSource.useLocalSessionState", "true",
+            "dataSource.cacheResultSetMetadata", "true",
+            "hibernate.jdbc.fetch_size", String.valueOf(PerformanceProfile.REPORTING_FETCH_SIZE),
+            "hibernate.jdbc.batch_size", "50"));
+
+    /**
+     * Name of the hibernate.cfg.xml setting selecting the profile.
+     */
+    public static final String SETTING = "gesttravaux.performance_profile";
+
+    /**
+     * Name of the system property selecting the profile, overriding hibernate.cfg.xml.
+     */
+    public static final String SYSTEM_PROPERTY = "gesttravaux.profile";
+
+    /**
+     * Rows read per round trip by the reporting profile.
+     */
+    public static final int REPORTING_FETCH_SIZE = 1000;
+
+    private final String profileName;
+    private final Map<String, String> profileSettings;
+
+    PerformanceProfile(String profileName, Map<String, String> profileSettings) {
+        this.profileName = profileName;
+        this.profileSettings = profileSettings;
+    }
+
+    /**
+     * Gets the name used to select the profile.
+     *
+     * @return the name, e.g. "bulk-load"
+     */
+    public String getName() {
+        return profileName;
+    }
+
+    /**
+     * Gets the Hibernate settings of the profile, driver properties included.
+     *
+     * @return the settings, by Hibernate setting name
+     */
+    public Map<String, String> getSettings() {
+        return profileSettings;
+    }
+
+    /**
+     * Gets the settings of the profile as properties, to add to a Hibernate configuration.
+     *
+     * @return the settings
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.putAll(profileSettings);
+        return properties;
+    }
+
+    /**
+     * Finds a profile by name.
+     *
+     * @param name the profile name, e.g. "oltp"
+     * @return the profile
+     * @throws IllegalArgumentException if no profile has this name
+     */
+    public static PerformanceProfile fromName(String name) {
+        for (PerformanceProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Profil de performance inconnu : " + name);
+    }
+
+    /**
+     * Selects the profile of a configuration.
+     *
+     * @param configuration the Hibernate settings read from hibernate.cfg.xml
+     * @return the profile named by the system property, else by the configuration, else {@link #OLTP}
+     */
+    public static PerformanceProfile select(Properties configuration) {
+        String name = System.getProperty(SYSTEM_PROPERTY, configuration.getProperty(SETTING));
+        return name == null || name.isBlank() ? OLTP : fromName(name);
+    }
+
+    /**
+     * Builds the settings of a profile. Driver properties are given without the pool prefix;
+     * the statement cache settings shared by every profile are added.
+     */
+    private static Map<String, String> settings(String... keyValues) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put(PooledConnectionProvider.HIKARI_PREFIX + "dataSource.cachePrepStmts", "true");
+        settings.put(PooledConnectionProvider.HIKARI_PREFIX + "dataSource.prepStmtCacheSize", "250");
+        settings.put(PooledConnectionProvider.HIKARI_PREFIX + "dataSource.prepStmtCacheSqlLimit", "2048");
+        settings.put("hibernate.order_inserts", "true");
+        settings.put("hibernate.order_updates", "true");
+        for (int i = 0; i < keyValues.length; i += 2) {
+            String key = keyValues[i].startsWith("dataSource.")
+                    ? PooledConnectionProvider.HIKARI_PREFIX + keyValues[i] : keyValues[i];
+            settings.put(key, keyValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(settings);
+    }
+}
@@ -0,0 +1,198 @@
+package com.immosync.gesttravaux.config;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live metrics of the JDBC connection pool.
+ * Records connection acquire times in a fixed-bucket histogram and exposes
+ * the active/idle/pending counts reported by the pool.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    /**
+     * Upper bounds (in microseconds) of the acquire-time histogram buckets.
+     * The last bucket collects every acquisition slower than the last bound.
+     */
+    static final long[] BUCKET_BOUNDS_MICROS = {
+            50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 5_000_000
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTotalNanos = new LongAdder();
+    private final LongAccumulator acquireMaxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile HikariPoolMXBean poolBean;
+
+    /**
+     * Constructor.
+     */
+    public PoolMetrics() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Creates the tracker Hikari reports pool events to.
+     *
+     * @param poolName the pool name
+     * @param poolStats the pool statistics (unused, live counts come from the pool MXBean)
+     * @return the metrics tracker
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recordAcquire(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                connectionsCreated.increment();
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Binds the pool whose live connection counts are reported.
+     *
+     * @param poolBean the pool MXBean
+     */
+    void bindPool(HikariPoolMXBean poolBean) {
+        this.poolBean = poolBean;
+    }
+
+    /**
+     * Records one connection acquisition.
+     *
+     * @param nanos the time spent waiting for the connection
+     */
+    void recordAcquire(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = BUCKET_BOUNDS_MICROS.length;
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            if (micros <= BUCKET_BOUNDS_MICROS[i]) {
+                bucket = i;
+                break;
+            }
+        }
+        buckets[bucket].increment();
+        acquireCount.increment();
+        acquireTotalNanos.add(nanos);
+        acquireMaxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Takes a consistent-enough snapshot of the pool state and histogram.
+     *
+     * @return the current metrics
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        HikariPoolMXBean bean = poolBean;
+        return new Snapshot(
+                bean != null ? bean.getActiveConnections() : 0,
+                bean != null ? bean.getIdleConnections() : 0,
+                bean != null ? bean.getThreadsAwaitingConnection() : 0,
+                bean != null ? bean.getTotalConnections() : 0,
+                acquireCount.sum(),
+                acquireTotalNanos.sum(),
+                acquireMaxNanos.get(),
+                connectionsCreated.sum(),
+                timeouts.sum(),
+                counts
+        );
+    }
+
+    /**
+     * Point-in-time view of the pool metrics.
+     *
+     * @param active connections currently borrowed
+     * @param idle connections waiting in the pool
+     * @param pending threads waiting for a connection
+     * @param total connections currently open
+     * @param acquireCount number of acquisitions recorded
+     * @param acquireTotalNanos cumulated acquire time
+     * @param acquireMaxNanos slowest acquisition
+     * @param connectionsCreated physical connections opened since startup
+     * @param timeouts acquisitions that timed out
+     * @param histogram acquisition counts per bucket of {@link #bucketBoundsMicros()}
+     */
+    public record Snapshot(int active, int idle, int pending, int total,
+                           long acquireCount, long acquireTotalNanos, long acquireMaxNanos,
+                           long connectionsCreated, long timeouts, long[] histogram) {
+
+        /**
+         * Gets the histogram bucket upper bounds in microseconds.
+         *
+         * @return the bucket bounds, the last bucket being unbounded
+         */
+        public static long[] bucketBoundsMicros() {
+            return BUCKET_BOUNDS_MICROS.clone();
+        }
+
+        /**
+         * Gets the mean acquire time.
+         *
+         * @return the mean acquire time in microseconds
+         */
+        public double meanAcquireMicros() {
+            return acquireCount == 0 ? 0 : acquireTotalNanos / 1_000.0 / acquireCount;
+        }
+
+        /**
+         * Estimates an acquire-time percentile from the histogram.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the upper bound of the bucket holding the percentile, in microseconds
+         */
+        public long percentileMicros(double percentile) {
+            if (acquireCount == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(acquireCount * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return i < BUCKET_BOUNDS_MICROS.length
+                            ? BUCKET_BOUNDS_MICROS[i]
+                            : TimeUnit.NANOSECONDS.toMicros(acquireMaxNanos);
+                }
+            }
+            return TimeUnit.NANOSECONDS.toMicros(acquireMaxNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, pending=%d, total=%d, acquired=%d, "
+                            + "mean=%.1fµs, p95≤%dµs, p99≤%dµs, max=%dµs, created=%d, timeouts=%d",
+                    active, idle, pending, total, acquireCount, meanAcquireMicros(),
+                    percentileMicros(95), percentileMicros(99),
+                    TimeUnit.NANOSECONDS.toMicros(acquireMaxNanos), connectionsCreated, timeouts);
+        }
+    }
+}
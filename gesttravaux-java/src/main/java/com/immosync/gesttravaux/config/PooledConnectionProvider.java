@@ -0,0 +1,193 @@
+package com.immosync.gesttravaux.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+
+/**
+ * Hibernate connection provider backed by a HikariCP pool.
+ * Configured from hibernate.cfg.xml: the standard hibernate.connection.* settings, or
+ * their jakarta.persistence.jdbc.* equivalents, give the JDBC URL and credentials, every hibernate.hikari.* setting is passed to
+ * the pool with its prefix removed (e.g. hibernate.hikari.minimumIdle).
+ * The minimum number of connections is opened eagerly at startup.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    /**
+     * Prefix of the pool settings in hibernate.cfg.xml.
+     */
+    public static final String HIKARI_PREFIX = "hibernate.hikari.";
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledConnectionProvider.class);
+
+    private static final String URL = "hibernate.connection.url";
+    private static final String USER = "hibernate.connection.username";
+    private static final String PASSWORD = "hibernate.connection.password";
+    private static final String DRIVER = "hibernate.connection.driver_class";
+
+    private final PoolMetrics metrics = new PoolMetrics();
+    private HikariDataSource dataSource;
+
+    /**
+     * Creates the pool from the Hibernate settings and warms it up.
+     *
+     * @param settings the Hibernate settings
+     */
+    @Override
+    public void configure(Map<String, Object> settings) {
+        HikariConfig config = new HikariConfig(extractPoolProperties(settings));
+        setIfPresent(settings, JdbcSettings.JAKARTA_JDBC_URL, URL, config::setJdbcUrl);
+        setIfPresent(settings, JdbcSettings.JAKARTA_JDBC_USER, USER, config::setUsername);
+        setIfPresent(settings, JdbcSettings.JAKARTA_JDBC_PASSWORD, PASSWORD, config::setPassword);
+        setIfPresent(settings, JdbcSettings.JAKARTA_JDBC_DRIVER, DRIVER, config::setDriverClassName);
+        config.setMetricsTrackerFactory(metrics);
+
+        logger.info("Starting connection pool {} (min={}, max={})",
+                config.getPoolName(), config.getMinimumIdle(), config.getMaximumPoolSize());
+        dataSource = new HikariDataSource(config);
+        metrics.bindPool(dataSource.getHikariPoolMXBean());
+        warmUp(config.getMinimumIdle());
+    }
+
+    /**
+     * Copies the hibernate.hikari.* settings, without their prefix.
+     *
+     * @param settings the Hibernate settings
+     * @return the pool properties
+     */
+    static Properties extractPoolProperties(Map<String, Object> settings) {
+        Properties properties = new Properties();
+        for (Map.Entry<String, Object> entry : settings.entrySet()) {
+            if (entry.getKey().startsWith(HIKARI_PREFIX) && entry.getValue() != null) {
+                properties.setProperty(entry.getKey().substring(HIKARI_PREFIX.length()),
+                        entry.getValue().toString());
+            }
+        }
+        return properties;
+    }
+
+    private static void setIfPresent(Map<String, Object> settings, String key, String legacyKey,
+                                     Consumer<String> setter) {
+        Object value = settings.get(key);
+        if (value == null) {
+            value = settings.get(legacyKey);
+        }
+        if (value != null) {
+            setter.accept(value.toString());
+        }
+    }
+
+    /**
+     * Opens the minimum number of connections up front so the first queries
+     * do not pay for the TCP handshake and MySQL authentication.
+     *
+     * @param minimumIdle the number of connections to open
+     */
+    private void warmUp(int minimumIdle) {
+        long start = System.nanoTime();
+        List<Connection> borrowed = new ArrayList<>(minimumIdle);
+        try {
+            for (int i = 0; i < minimumIdle; i++) {
+                borrowed.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            logger.warn("Connection pool warm-up stopped after {} connections", borrowed.size(), e);
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("Error returning warm-up connection to the pool", e);
+                }
+            }
+        }
+        logger.info("Connection pool warmed up with {} connections in {} ms",
+                borrowed.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    /**
+     * Gets the maximum number of connections of the pool.
+     *
+     * @return the maximum pool size
+     */
+    public int getMaximumPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    /**
+     * Gets the live pool metrics.
+     *
+     * @return the pool metrics
+     */
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null && !dataSource.isClosed()) {
+            logger.info("Closing connection pool: {}", metrics.snapshot());
+            dataSource.close();
+        }
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isAssignableFrom(getClass())
+                || unwrapType.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(getClass())) {
+            return (T) this;
+        }
+        if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    /**
+     * Gets the underlying pooled data source.
+     *
+     * @return the data source
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+}
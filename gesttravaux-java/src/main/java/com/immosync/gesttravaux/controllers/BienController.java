@@ -1,36 +1,51 @@
 package com.immosync.gesttravaux.controllers;
+import com.immosync.gesttravaux.dto.BienRow;
 import com.immosync.gesttravaux.models.*;
 import com.immosync.gesttravaux.services.*;
 import com.immosync.gesttravaux.utils.AlertUtil;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import com.immosync.gesttravaux.utils.FieldMerge;
+import com.immosync.gesttravaux.utils.FxEvents;
+import com.immosync.gesttravaux.utils.LiveSearch;
+import com.immosync.gesttravaux.utils.PagedTableLoader;
+import com.immosync.gesttravaux.utils.TableSync;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.List;
+import java.util.Optional;
 
 public class BienController {
     private static final Logger logger = LoggerFactory.getLogger(BienController.class);
-    @FXML private TableView<Bien> bienTable;
-    @FXML private TableColumn<Bien, Integer> idColumn;
-    @FXML private TableColumn<Bien, String> adresseColumn, villeColumn, proprietaireColumn;
+    @FXML private BorderPane root;
+    @FXML private TableView<BienRow> bienTable;
+    @FXML private TableColumn<BienRow, Integer> idColumn;
+    @FXML private TableColumn<BienRow, String> adresseColumn, villeColumn, proprietaireColumn;
     @FXML private TextField adresseField, villeField, searchField;
     @FXML private ComboBox<Proprietaire> proprietaireCombo;
     private final BienService bienService;
     private final ProprietaireService proprietaireService;
-    private final ObservableList<Bien> bienList;
+    private PagedTableLoader<BienRow> pagedLoader;
+    private LiveSearch<BienRow> liveSearch;
     private Bien currentBien;
+    private final FieldMerge<Bien> merge = new FieldMerge<Bien>()
+            .field("Adresse", Bien::getAdresseBien, Bien::setAdresseBien)
+            .field("Ville", Bien::getVilleBien, Bien::setVilleBien)
+            .field("Propriétaire", Bien::getProprietaire, Bien::setProprietaire);
 
     public BienController() {
         this.bienService = new BienService();
         this.proprietaireService = new ProprietaireService();
-        this.bienList = FXCollections.observableArrayList();
     }
 
     @FXML public void initialize() {
         setupTableColumns();
+        setupLiveSearch();
+        setupSync();
         loadProprietaires();
         loadBiens();
         setupTableSelectionListener();
@@ -38,15 +53,32 @@ public class BienController {
     }
 
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idBien"));
-        adresseColumn.setCellValueFactory(new PropertyValueFactory<>("adresseBien"));
-        villeColumn.setCellValueFactory(new PropertyValueFactory<>("villeBien"));
+        idColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().idBien()));
+        adresseColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().adresseBien()));
+        villeColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().villeBien()));
         proprietaireColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getProprietaire() != null ? 
-                cellData.getValue().getProprietaire().getFullName() : ""
-            )
+            new SimpleStringProperty(cellData.getValue().proprietaire() != null ? cellData.getValue().proprietaire() : "")
         );
+        pagedLoader = new PagedTableLoader<>(bienTable, bienService::getBienRows)
+                .identifiedBy(BienRow::idBien)
+                .sortable(idColumn, "idBien")
+                .sortable(adresseColumn, "adresseBien")
+                .sortable(villeColumn, "villeBien")
+                .sortable(proprietaireColumn, "proprietaire.nomProprietaire");
+    }
+
+    private void setupLiveSearch() {
+        liveSearch = new LiveSearch<>(searchField, bienService::searchRowsByAddress, true,
+                row -> LiveSearch.text(row.adresseBien(), row.villeBien()),
+                pagedLoader::showAll, pagedLoader::reload);
+    }
+
+    private void setupSync() {
+        new TableSync<>(pagedLoader, Bien.class, bienService::getBienRows)
+                .dependsOn(Proprietaire.class, "nomProprietaire", "prenomProprietaire")
+                .onChange(liveSearch::invalidate)
+                .start();
+        FxEvents.subscribe(root, Proprietaire.class, changes -> loadProprietaires());
     }
 
     private void setupTableSelectionListener() {
@@ -58,28 +90,34 @@ public class BienController {
     }
 
     private void loadProprietaires() {
-        try {
-            List<Proprietaire> proprietaires = proprietaireService.getAllProprietaires();
-            proprietaireCombo.setItems(FXCollections.observableArrayList(proprietaires));
-        } catch (Exception e) {
-            logger.error("Error loading proprietaires", e);
-        }
+        BackgroundTask.call(proprietaireService::getAllProprietaires)
+            .onSuccess(proprietaires -> proprietaireCombo.setItems(FXCollections.observableArrayList(proprietaires)))
+            .onError(e -> logger.error("Error loading proprietaires", e))
+            .start();
     }
 
     private void loadBiens() {
-        try {
-            List<Bien> biens = bienService.getAllBiens();
-            bienList.setAll(biens);
-            bienTable.setItems(bienList);
-            logger.info("Loaded {} biens", biens.size());
-        } catch (Exception e) {
-            logger.error("Error loading biens", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        liveSearch.reset();
+        pagedLoader.reload();
     }
 
-    private void displayBien(Bien bien) {
+    private void displayBien(BienRow row) {
+        BackgroundTask.call(() -> bienService.findById(row.idBien()))
+            .onSuccess(found -> {
+                if (row == bienTable.getSelectionModel().getSelectedItem()) showBien(found);
+            })
+            .onError("Erreur de chargement")
+            .start();
+    }
+
+    private void showBien(Optional<Bien> found) {
+        if (found.isEmpty()) {
+            clearForm();
+            return;
+        }
+        Bien bien = found.get();
         currentBien = bien;
+        merge.load(bien);
         adresseField.setText(bien.getAdresseBien());
         villeField.setText(bien.getVilleBien());
         proprietaireCombo.setValue(bien.getProprietaire());
@@ -92,44 +130,64 @@ public class BienController {
     }
 
     @FXML private void handleDelete() {
-        Bien selected = bienTable.getSelectionModel().getSelectedItem();
+        BienRow selected = bienTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner un bien à supprimer.");
             return;
         }
         if (AlertUtil.showDeleteConfirmation(selected.getFullAddress())) {
-            try {
-                bienService.deleteBien(selected.getIdBien());
-                AlertUtil.showSuccess("Bien supprimé avec succès");
-                loadBiens();
-                clearForm();
-            } catch (Exception e) {
-                logger.error("Error deleting bien", e);
-                AlertUtil.showError("Erreur de suppression", e);
-            }
+            BackgroundTask.run(() -> bienService.deleteBien(selected.idBien()))
+                .status("Suppression du bien...")
+                .disabling(root)
+                .onSuccess(done -> {
+                    AlertUtil.showSuccess("Bien supprimé avec succès");
+                    liveSearch.reset();
+                    pagedLoader.remove(selected.idBien());
+                    clearForm();
+                })
+                .onError("Erreur de suppression")
+                .start();
         }
     }
 
     @FXML private void handleSave() {
-        try {
-            if (currentBien == null) {
-                Bien bien = new Bien();
-                setBienFromForm(bien);
-                bienService.createBien(bien);
-                AlertUtil.showSuccess("Bien créé avec succès");
-            } else {
-                setBienFromForm(currentBien);
-                bienService.updateBien(currentBien);
-                AlertUtil.showSuccess("Bien modifié avec succès");
-            }
-            loadBiens();
-            clearForm();
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showValidationError(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error saving bien", e);
-            AlertUtil.showError("Erreur de sauvegarde", e);
-        }
+        boolean creating = currentBien == null;
+        Bien bien = creating ? new Bien() : currentBien;
+        setBienFromForm(bien);
+        save(bien, creating);
+    }
+
+    private void save(Bien bien, boolean creating) {
+        BackgroundTask.run(() -> {
+                if (creating) bienService.createBien(bien);
+                else bienService.updateBien(bien);
+            })
+            .status("Enregistrement du bien...")
+            .disabling(root)
+            .onSuccess(done -> {
+                AlertUtil.showSuccess(creating ? "Bien créé avec succès" : "Bien modifié avec succès");
+                liveSearch.reset();
+                clearForm();
+                pagedLoader.put(BienRow.of(bien));
+            })
+            .onConflict(conflict -> resolveConflict(bien))
+            .onError("Erreur de sauvegarde")
+            .start();
+    }
+
+    private void resolveConflict(Bien bien) {
+        BackgroundTask.call(() -> bienService.findById(bien.getIdBien()))
+            .onSuccess(found -> {
+                if (found.isEmpty()) {
+                    AlertUtil.showWarning("Conflit de modification", "Bien supprimé", "Ce bien a été supprimé par un autre utilisateur.");
+                    pagedLoader.remove(bien.getIdBien());
+                    clearForm();
+                    return;
+                }
+                merge.resolve(bien, found.get()).ifPresent(merged -> save(merged, false));
+            })
+            .onError("Erreur de chargement")
+            .start();
     }
 
     private void setBienFromForm(Bien bien) {
@@ -139,19 +197,7 @@ public class BienController {
     }
 
     @FXML private void handleCancel() { clearForm(); bienTable.getSelectionModel().clearSelection(); }
-    @FXML private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) loadBiens();
-        else {
-            try {
-                List<Bien> results = bienService.searchByAddress(searchTerm);
-                bienList.setAll(results);
-            } catch (Exception e) {
-                logger.error("Error searching biens", e);
-                AlertUtil.showError("Erreur de recherche", e);
-            }
-        }
-    }
+    @FXML private void handleSearch() { liveSearch.search(searchField.getText()); }
 
     @FXML private void handleRefresh() { loadBiens(); clearForm(); }
     private void clearForm() {
@@ -1,48 +1,68 @@
 package com.immosync.gesttravaux.controllers;
 
+import com.immosync.gesttravaux.dto.CategorieRow;
 import com.immosync.gesttravaux.models.Categorie;
 import com.immosync.gesttravaux.services.CategorieService;
 import com.immosync.gesttravaux.utils.AlertUtil;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import com.immosync.gesttravaux.utils.LiveSearch;
+import com.immosync.gesttravaux.utils.PagedTableLoader;
+import com.immosync.gesttravaux.utils.TableSync;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import javafx.scene.layout.BorderPane;
 
-import java.util.List;
+import java.util.Optional;
 
 public class CategorieController {
 
-    private static final Logger logger = LoggerFactory.getLogger(CategorieController.class);
-
-    @FXML private TableView<Categorie> categorieTable;
-    @FXML private TableColumn<Categorie, Integer> idColumn;
-    @FXML private TableColumn<Categorie, String> typeColumn;
+    @FXML private BorderPane root;
+    @FXML private TableView<CategorieRow> categorieTable;
+    @FXML private TableColumn<CategorieRow, Integer> idColumn;
+    @FXML private TableColumn<CategorieRow, String> typeColumn;
     @FXML private TextField typeField;
     @FXML private TextField searchField;
 
     private final CategorieService categorieService;
-    private final ObservableList<Categorie> categorieList;
+    private PagedTableLoader<CategorieRow> pagedLoader;
+    private LiveSearch<CategorieRow> liveSearch;
     private Categorie currentCategorie;
 
     public CategorieController() {
         this.categorieService = new CategorieService();
-        this.categorieList = FXCollections.observableArrayList();
     }
 
     @FXML
     public void initialize() {
         setupTableColumns();
+        setupLiveSearch();
+        setupSync();
         loadCategories();
         setupTableSelectionListener();
         clearForm();
     }
 
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idCategorie"));
-        typeColumn.setCellValueFactory(new PropertyValueFactory<>("type"));
+        idColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().idCategorie()));
+        typeColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().type()));
+        pagedLoader = new PagedTableLoader<>(categorieTable, categorieService::getCategorieRows)
+                .identifiedBy(CategorieRow::idCategorie)
+                .sortable(idColumn, "idCategorie")
+                .sortable(typeColumn, "type");
+    }
+
+    private void setupLiveSearch() {
+        liveSearch = new LiveSearch<>(searchField, categorieService::searchRowsByType,
+                row -> row.type(),
+                pagedLoader::showAll, pagedLoader::reload);
+    }
+
+    private void setupSync() {
+        new TableSync<>(pagedLoader, Categorie.class, categorieService::getCategorieRows)
+                .onChange(liveSearch::invalidate)
+                .start();
     }
 
     private void setupTableSelectionListener() {
@@ -56,18 +76,27 @@ public class CategorieController {
     }
 
     private void loadCategories() {
-        try {
-            List<Categorie> categories = categorieService.getAllCategories();
-            categorieList.setAll(categories);
-            categorieTable.setItems(categorieList);
-            logger.info("Loaded {} categories", categories.size());
-        } catch (Exception e) {
-            logger.error("Error loading categories", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        liveSearch.reset();
+        pagedLoader.reload();
+    }
+
+    private void displayCategorie(CategorieRow row) {
+        BackgroundTask.call(() -> categorieService.findById(row.idCategorie()))
+                .onSuccess(found -> {
+                    if (row == categorieTable.getSelectionModel().getSelectedItem()) {
+                        showCategorie(found);
+                    }
+                })
+                .onError("Erreur de chargement")
+                .start();
     }
 
-    private void displayCategorie(Categorie categorie) {
+    private void showCategorie(Optional<Categorie> found) {
+        if (found.isEmpty()) {
+            clearForm();
+            return;
+        }
+        Categorie categorie = found.get();
         currentCategorie = categorie;
         typeField.setText(categorie.getType());
     }
@@ -80,7 +109,7 @@ public class CategorieController {
 
     @FXML
     private void handleEdit() {
-        Categorie selected = categorieTable.getSelectionModel().getSelectedItem();
+        CategorieRow selected = categorieTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner une catégorie à modifier.");
         }
@@ -88,46 +117,49 @@ public class CategorieController {
 
     @FXML
     private void handleDelete() {
-        Categorie selected = categorieTable.getSelectionModel().getSelectedItem();
+        CategorieRow selected = categorieTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner une catégorie à supprimer.");
             return;
         }
 
-        if (AlertUtil.showDeleteConfirmation(selected.getType())) {
-            try {
-                categorieService.deleteCategorie(selected.getIdCategorie());
-                AlertUtil.showSuccess("Catégorie supprimée avec succès");
-                loadCategories();
-                clearForm();
-            } catch (Exception e) {
-                logger.error("Error deleting categorie", e);
-                AlertUtil.showError("Erreur de suppression", e);
-            }
+        if (AlertUtil.showDeleteConfirmation(selected.type())) {
+            BackgroundTask.run(() -> categorieService.deleteCategorie(selected.idCategorie()))
+                    .status("Suppression de la catégorie...")
+                    .disabling(root)
+                    .onSuccess(done -> {
+                        AlertUtil.showSuccess("Catégorie supprimée avec succès");
+                        liveSearch.reset();
+                        pagedLoader.remove(selected.idCategorie());
+                        clearForm();
+                    })
+                    .onError("Erreur de suppression")
+                    .start();
         }
     }
 
     @FXML
     private void handleSave() {
-        try {
-            if (currentCategorie == null) {
-                Categorie categorie = new Categorie();
-                categorie.setType(typeField.getText().trim());
-                categorieService.createCategorie(categorie);
-                AlertUtil.showSuccess("Catégorie créée avec succès");
-            } else {
-                currentCategorie.setType(typeField.getText().trim());
-                categorieService.updateCategorie(currentCategorie);
-                AlertUtil.showSuccess("Catégorie modifiée avec succès");
-            }
-            loadCategories();
-            clearForm();
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showValidationError(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error saving categorie", e);
-            AlertUtil.showError("Erreur de sauvegarde", e);
-        }
+        boolean creating = currentCategorie == null;
+        Categorie categorie = creating ? new Categorie() : currentCategorie;
+        categorie.setType(typeField.getText().trim());
+        BackgroundTask.run(() -> {
+                    if (creating) {
+                        categorieService.createCategorie(categorie);
+                    } else {
+                        categorieService.updateCategorie(categorie);
+                    }
+                })
+                .status("Enregistrement de la catégorie...")
+                .disabling(root)
+                .onSuccess(done -> {
+                    AlertUtil.showSuccess(creating ? "Catégorie créée avec succès" : "Catégorie modifiée avec succès");
+                    liveSearch.reset();
+                    clearForm();
+                    pagedLoader.put(CategorieRow.of(categorie));
+                })
+                .onError("Erreur de sauvegarde")
+                .start();
     }
 
     @FXML
@@ -138,18 +170,7 @@ public class CategorieController {
 
     @FXML
     private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadCategories();
-        } else {
-            try {
-                List<Categorie> results = categorieService.searchByType(searchTerm);
-                categorieList.setAll(results);
-            } catch (Exception e) {
-                logger.error("Error searching categories", e);
-                AlertUtil.showError("Erreur de recherche", e);
-            }
-        }
+        liveSearch.search(searchField.getText());
     }
 
     @FXML
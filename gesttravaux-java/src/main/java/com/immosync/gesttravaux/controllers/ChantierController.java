@@ -1,22 +1,33 @@
 package com.immosync.gesttravaux.controllers;
+import com.immosync.gesttravaux.dto.ChantierRow;
 import com.immosync.gesttravaux.models.*;
 import com.immosync.gesttravaux.services.*;
 import com.immosync.gesttravaux.utils.AlertUtil;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import com.immosync.gesttravaux.utils.FieldMerge;
+import com.immosync.gesttravaux.utils.FxEvents;
+import com.immosync.gesttravaux.utils.LiveSearch;
+import com.immosync.gesttravaux.utils.PagedTableLoader;
+import com.immosync.gesttravaux.utils.TableSync;
 import com.immosync.gesttravaux.dao.*;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
+import javafx.stage.FileChooser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.List;
+import java.io.File;
+import java.util.Optional;
 
 public class ChantierController {
     private static final Logger logger = LoggerFactory.getLogger(ChantierController.class);
-    @FXML private TableView<Chantier> chantierTable;
-    @FXML private TableColumn<Chantier, Integer> idColumn;
-    @FXML private TableColumn<Chantier, String> adresseColumn, villeColumn, bienColumn, inspecteurColumn, statutColumn;
+    @FXML private BorderPane root;
+    @FXML private TableView<ChantierRow> chantierTable;
+    @FXML private TableColumn<ChantierRow, Integer> idColumn;
+    @FXML private TableColumn<ChantierRow, String> adresseColumn, villeColumn, bienColumn, inspecteurColumn, statutColumn;
     @FXML private TextField adresseField, villeField, searchField;
     @FXML private ComboBox<Bien> bienCombo;
     @FXML private ComboBox<Inspecteur> inspecteurCombo;
@@ -26,43 +37,65 @@ public class ChantierController {
     private final ChantierService chantierService;
     private final BienService bienService;
     private final InspecteurDAO inspecteurDAO;
-    private final ObservableList<Chantier> chantierList;
+    private final ExportService exportService;
+    private PagedTableLoader<ChantierRow> pagedLoader;
+    private LiveSearch<ChantierRow> liveSearch;
     private Chantier currentChantier;
+    private long bienGeneration;
+    private long inspecteurGeneration;
+    private final FieldMerge<Chantier> merge = new FieldMerge<Chantier>()
+            .field("Adresse", Chantier::getAdresseChantier, Chantier::setAdresseChantier)
+            .field("Ville", Chantier::getVilleChantier, Chantier::setVilleChantier)
+            .field("Bien", Chantier::getBien, Chantier::setBien)
+            .field("Inspecteur", Chantier::getInspecteur, Chantier::setInspecteur)
+            .field("Statut", Chantier::getStatutChantier, Chantier::setStatutChantier)
+            .field("Informations", Chantier::getInfoChantier, Chantier::setInfoChantier);
 
     public ChantierController() {
         this.chantierService = new ChantierService();
         this.bienService = new BienService();
         this.inspecteurDAO = new InspecteurDAO();
-        this.chantierList = FXCollections.observableArrayList();
+        this.exportService = new ExportService();
     }
 
     @FXML public void initialize() {
         setupTableColumns();
+        setupLiveSearch();
         setupStatutCombo();
-        loadBiens();
-        loadInspecteurs();
+        setupSync();
+        loadChoices();
         loadChantiers();
         setupTableSelectionListener();
         clearForm();
     }
 
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idChantier"));
-        adresseColumn.setCellValueFactory(new PropertyValueFactory<>("adresseChantier"));
-        villeColumn.setCellValueFactory(new PropertyValueFactory<>("villeChantier"));
+        idColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().idChantier()));
+        adresseColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().adresseChantier()));
+        villeColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().villeChantier()));
         bienColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getBien() != null ? cellData.getValue().getBien().getFullAddress() : ""
-            )
+            new SimpleStringProperty(cellData.getValue().bien() != null ? cellData.getValue().bien() : "")
         );
         inspecteurColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getInspecteur() != null ? cellData.getValue().getInspecteur().getFullName() : ""
-            )
+            new SimpleStringProperty(cellData.getValue().inspecteur() != null ? cellData.getValue().inspecteur() : "")
         );
         statutColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getStatutString())
+            new SimpleStringProperty(cellData.getValue().getStatutString())
         );
+        pagedLoader = new PagedTableLoader<>(chantierTable, chantierService::getChantierRows)
+                .identifiedBy(ChantierRow::idChantier)
+                .sortable(idColumn, "idChantier")
+                .sortable(adresseColumn, "adresseChantier")
+                .sortable(villeColumn, "villeChantier")
+                .sortable(bienColumn, "bien.adresseBien")
+                .sortable(inspecteurColumn, "inspecteur.nomInspecteur")
+                .sortable(statutColumn, "statutChantier");
+    }
+
+    private void setupLiveSearch() {
+        liveSearch = new LiveSearch<>(searchField, chantierService::searchRows, true,
+                row -> LiveSearch.text(row.adresseChantier(), row.villeChantier(), row.infoChantier()),
+                pagedLoader::showAll, pagedLoader::reload);
     }
 
     private void setupStatutCombo() {
@@ -77,38 +110,75 @@ public class ChantierController {
         );
     }
 
-    private void loadBiens() {
-        try {
-            List<Bien> biens = bienService.getAllBiens();
-            bienCombo.setItems(FXCollections.observableArrayList(biens));
-        } catch (Exception e) {
-            logger.error("Error loading biens", e);
-        }
+    private void setupSync() {
+        new TableSync<>(pagedLoader, Chantier.class, chantierService::getChantierRows)
+                .dependsOn(Bien.class, "adresseBien", "villeBien")
+                .dependsOn(Inspecteur.class, "nomInspecteur", "prenomInspecteur")
+                .onChange(liveSearch::invalidate)
+                .start();
+        FxEvents.subscribe(root, Bien.class, changes -> loadBienChoices());
+        FxEvents.subscribe(root, Inspecteur.class, changes -> loadInspecteurChoices());
     }
 
-    private void loadInspecteurs() {
-        try {
-            List<Inspecteur> inspecteurs = inspecteurDAO.findAll();
-            inspecteurCombo.setItems(FXCollections.observableArrayList(inspecteurs));
-        } catch (Exception e) {
-            logger.error("Error loading inspecteurs", e);
-        }
+    private void loadChoices() {
+        loadBienChoices();
+        loadInspecteurChoices();
+    }
+
+    /**
+     * Loads the biens of the combo; a load overtaken by a newer one is not shown.
+     */
+    private void loadBienChoices() {
+        long requestGeneration = ++bienGeneration;
+        BackgroundTask.call(bienService::getAllBiens)
+            .onSuccess(biens -> {
+                if (requestGeneration == bienGeneration) bienCombo.setItems(FXCollections.observableArrayList(biens));
+            })
+            .onError(cause -> {
+                if (requestGeneration == bienGeneration) logger.error("Error loading biens", cause);
+            })
+            .start();
+    }
+
+    /**
+     * Loads the inspecteurs of the combo; a load overtaken by a newer one is not shown.
+     */
+    private void loadInspecteurChoices() {
+        long requestGeneration = ++inspecteurGeneration;
+        BackgroundTask.call(inspecteurDAO::findAll)
+            .onSuccess(inspecteurs -> {
+                if (requestGeneration == inspecteurGeneration) {
+                    inspecteurCombo.setItems(FXCollections.observableArrayList(inspecteurs));
+                }
+            })
+            .onError(cause -> {
+                if (requestGeneration == inspecteurGeneration) logger.error("Error loading inspecteurs", cause);
+            })
+            .start();
     }
 
     private void loadChantiers() {
-        try {
-            List<Chantier> chantiers = chantierService.getAllChantiers();
-            chantierList.setAll(chantiers);
-            chantierTable.setItems(chantierList);
-            logger.info("Loaded {} chantiers", chantiers.size());
-        } catch (Exception e) {
-            logger.error("Error loading chantiers", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        liveSearch.reset();
+        pagedLoader.reload();
+    }
+
+    private void displayChantier(ChantierRow row) {
+        BackgroundTask.call(() -> chantierService.findDetail(row.idChantier()))
+            .onSuccess(found -> {
+                if (row == chantierTable.getSelectionModel().getSelectedItem()) showChantier(found);
+            })
+            .onError("Erreur de chargement")
+            .start();
     }
 
-    private void displayChantier(Chantier chantier) {
+    private void showChantier(Optional<Chantier> found) {
+        if (found.isEmpty()) {
+            clearForm();
+            return;
+        }
+        Chantier chantier = found.get();
         currentChantier = chantier;
+        merge.load(chantier);
         adresseField.setText(chantier.getAdresseChantier());
         villeField.setText(chantier.getVilleChantier());
         bienCombo.setValue(chantier.getBien());
@@ -125,44 +195,64 @@ public class ChantierController {
     }
 
     @FXML private void handleDelete() {
-        Chantier selected = chantierTable.getSelectionModel().getSelectedItem();
+        ChantierRow selected = chantierTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner un chantier à supprimer.");
             return;
         }
-        if (AlertUtil.showDeleteConfirmation("Chantier #" + selected.getIdChantier())) {
-            try {
-                chantierService.deleteChantier(selected.getIdChantier());
-                AlertUtil.showSuccess("Chantier supprimé avec succès");
-                loadChantiers();
-                clearForm();
-            } catch (Exception e) {
-                logger.error("Error deleting chantier", e);
-                AlertUtil.showError("Erreur de suppression", e);
-            }
+        if (AlertUtil.showDeleteConfirmation("Chantier #" + selected.idChantier())) {
+            BackgroundTask.run(() -> chantierService.deleteChantier(selected.idChantier()))
+                .status("Suppression du chantier...")
+                .disabling(root)
+                .onSuccess(done -> {
+                    AlertUtil.showSuccess("Chantier supprimé avec succès");
+                    liveSearch.reset();
+                    pagedLoader.remove(selected.idChantier());
+                    clearForm();
+                })
+                .onError("Erreur de suppression")
+                .start();
         }
     }
 
     @FXML private void handleSave() {
-        try {
-            if (currentChantier == null) {
-                Chantier chantier = new Chantier();
-                setChantierFromForm(chantier);
-                chantierService.createChantier(chantier);
-                AlertUtil.showSuccess("Chantier créé avec succès");
-            } else {
-                setChantierFromForm(currentChantier);
-                chantierService.updateChantier(currentChantier);
-                AlertUtil.showSuccess("Chantier modifié avec succès");
-            }
-            loadChantiers();
-            clearForm();
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showValidationError(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error saving chantier", e);
-            AlertUtil.showError("Erreur de sauvegarde", e);
-        }
+        boolean creating = currentChantier == null;
+        Chantier chantier = creating ? new Chantier() : currentChantier;
+        setChantierFromForm(chantier);
+        save(chantier, creating);
+    }
+
+    private void save(Chantier chantier, boolean creating) {
+        BackgroundTask.run(() -> {
+                if (creating) chantierService.createChantier(chantier);
+                else chantierService.updateChantier(chantier);
+            })
+            .status("Enregistrement du chantier...")
+            .disabling(root)
+            .onSuccess(done -> {
+                AlertUtil.showSuccess(creating ? "Chantier créé avec succès" : "Chantier modifié avec succès");
+                liveSearch.reset();
+                clearForm();
+                pagedLoader.put(ChantierRow.of(chantier));
+            })
+            .onConflict(conflict -> resolveConflict(chantier))
+            .onError("Erreur de sauvegarde")
+            .start();
+    }
+
+    private void resolveConflict(Chantier chantier) {
+        BackgroundTask.call(() -> chantierService.findDetail(chantier.getIdChantier()))
+            .onSuccess(found -> {
+                if (found.isEmpty()) {
+                    AlertUtil.showWarning("Conflit de modification", "Chantier supprimé", "Ce chantier a été supprimé par un autre utilisateur.");
+                    pagedLoader.remove(chantier.getIdChantier());
+                    clearForm();
+                    return;
+                }
+                merge.resolve(chantier, found.get()).ifPresent(merged -> save(merged, false));
+            })
+            .onError("Erreur de chargement")
+            .start();
     }
 
     private void setChantierFromForm(Chantier chantier) {
@@ -180,21 +270,38 @@ public class ChantierController {
     }
 
     @FXML private void handleCancel() { clearForm(); chantierTable.getSelectionModel().clearSelection(); }
-    @FXML private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) loadChantiers();
-        else {
-            try {
-                List<Chantier> results = chantierService.search(searchTerm);
-                chantierList.setAll(results);
-            } catch (Exception e) {
-                logger.error("Error searching chantiers", e);
-                AlertUtil.showError("Erreur de recherche", e);
-            }
-        }
-    }
+    @FXML private void handleSearch() { liveSearch.search(searchField.getText()); }
 
     @FXML private void handleRefresh() { loadChantiers(); clearForm(); }
+
+    @FXML private void handleExport() {
+        ChoiceDialog<String> choice = new ChoiceDialog<>("Chantiers", "Chantiers", "Devis");
+        choice.setTitle("Exporter");
+        choice.setHeaderText("Données à exporter");
+        choice.setContentText("Données :");
+        Optional<String> data = choice.showAndWait();
+        if (data.isEmpty()) return;
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Exporter les " + data.get());
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Classeur Excel", "*.xlsx"),
+            new FileChooser.ExtensionFilter("Fichier CSV", "*.csv"));
+        fileChooser.setInitialFileName(data.get().toLowerCase() + ".xlsx");
+        File file = fileChooser.showSaveDialog(chantierTable.getScene().getWindow());
+        if (file == null) return;
+
+        BackgroundTask.call(() -> data.get().equals("Devis")
+                ? exportService.exportDevis(file.toPath())
+                : exportService.exportChantiers(file.toPath()))
+            .status("Export des " + data.get() + "...")
+            .onSuccess(count -> AlertUtil.showSuccess(count + " lignes exportées dans " + file.getName()))
+            .onError(cause -> {
+                logger.error("Error exporting {}", data.get(), cause);
+                AlertUtil.showError("Erreur d'export", "L'export a échoué", cause.getMessage());
+            })
+            .start();
+    }
     
     @FXML private void handleAddDocument() {
         if (currentChantier == null) {
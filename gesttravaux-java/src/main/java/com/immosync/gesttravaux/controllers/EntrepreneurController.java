@@ -1,19 +1,26 @@
 package com.immosync.gesttravaux.controllers;
 
+import com.immosync.gesttravaux.dto.EntrepreneurRow;
 import com.immosync.gesttravaux.models.Categorie;
 import com.immosync.gesttravaux.models.Entrepreneur;
 import com.immosync.gesttravaux.services.CategorieService;
 import com.immosync.gesttravaux.services.EntrepreneurService;
 import com.immosync.gesttravaux.utils.AlertUtil;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import com.immosync.gesttravaux.utils.FieldMerge;
+import com.immosync.gesttravaux.utils.LiveSearch;
+import com.immosync.gesttravaux.utils.PagedTableLoader;
+import com.immosync.gesttravaux.utils.TableSync;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import javafx.scene.layout.BorderPane;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controller for Entrepreneur management.
@@ -24,15 +31,14 @@ import java.util.List;
  */
 public class EntrepreneurController {
 
-    private static final Logger logger = LoggerFactory.getLogger(EntrepreneurController.class);
-
-    @FXML private TableView<Entrepreneur> entrepreneurTable;
-    @FXML private TableColumn<Entrepreneur, Integer> idColumn;
-    @FXML private TableColumn<Entrepreneur, String> nomColumn;
-    @FXML private TableColumn<Entrepreneur, String> prenomColumn;
-    @FXML private TableColumn<Entrepreneur, String> emailColumn;
-    @FXML private TableColumn<Entrepreneur, String> telColumn;
-    @FXML private TableColumn<Entrepreneur, String> villeColumn;
+    @FXML private BorderPane root;
+    @FXML private TableView<EntrepreneurRow> entrepreneurTable;
+    @FXML private TableColumn<EntrepreneurRow, Integer> idColumn;
+    @FXML private TableColumn<EntrepreneurRow, String> nomColumn;
+    @FXML private TableColumn<EntrepreneurRow, String> prenomColumn;
+    @FXML private TableColumn<EntrepreneurRow, String> emailColumn;
+    @FXML private TableColumn<EntrepreneurRow, String> telColumn;
+    @FXML private TableColumn<EntrepreneurRow, String> villeColumn;
 
     @FXML private TextField nomField;
     @FXML private TextField prenomField;
@@ -44,8 +50,19 @@ public class EntrepreneurController {
 
     private final EntrepreneurService entrepreneurService;
     private final CategorieService categorieService;
-    private final ObservableList<Entrepreneur> entrepreneurList;
+    private PagedTableLoader<EntrepreneurRow> pagedLoader;
+    private LiveSearch<EntrepreneurRow> liveSearch;
     private Entrepreneur currentEntrepreneur;
+    private final FieldMerge<Entrepreneur> merge = new FieldMerge<Entrepreneur>()
+            .field("Nom", Entrepreneur::getNomEntrepreneur, Entrepreneur::setNomEntrepreneur)
+            .field("Prénom", Entrepreneur::getPrenomEntrepreneur, Entrepreneur::setPrenomEntrepreneur)
+            .field("Email", Entrepreneur::getEmailEntrepreneur, Entrepreneur::setEmailEntrepreneur)
+            .field("Téléphone", Entrepreneur::getTelEntrepreneur, Entrepreneur::setTelEntrepreneur)
+            .field("Ville de déploiement", Entrepreneur::getVilleDeploiement, Entrepreneur::setVilleDeploiement)
+            .field("Catégories", entrepreneur -> Set.copyOf(entrepreneur.getCategories()), (entrepreneur, categories) -> {
+                entrepreneur.getCategories().clear();
+                entrepreneur.getCategories().addAll(categories);
+            });
 
     /**
      * Constructor.
@@ -53,7 +70,6 @@ public class EntrepreneurController {
     public EntrepreneurController() {
         this.entrepreneurService = new EntrepreneurService();
         this.categorieService = new CategorieService();
-        this.entrepreneurList = FXCollections.observableArrayList();
     }
 
     /**
@@ -62,6 +78,8 @@ public class EntrepreneurController {
     @FXML
     public void initialize() {
         setupTableColumns();
+        setupLiveSearch();
+        setupSync();
         loadEntrepreneurs();
         setupTableSelectionListener();
         clearForm();
@@ -71,12 +89,39 @@ public class EntrepreneurController {
      * Sets up table columns.
      */
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idEntrepreneur"));
-        nomColumn.setCellValueFactory(new PropertyValueFactory<>("nomEntrepreneur"));
-        prenomColumn.setCellValueFactory(new PropertyValueFactory<>("prenomEntrepreneur"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("emailEntrepreneur"));
-        telColumn.setCellValueFactory(new PropertyValueFactory<>("telEntrepreneur"));
-        villeColumn.setCellValueFactory(new PropertyValueFactory<>("villeDeploiement"));
+        idColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().idEntrepreneur()));
+        nomColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().nomEntrepreneur()));
+        prenomColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().prenomEntrepreneur()));
+        emailColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().emailEntrepreneur()));
+        telColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().telEntrepreneur()));
+        villeColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().villeDeploiement()));
+        pagedLoader = new PagedTableLoader<>(entrepreneurTable, entrepreneurService::getEntrepreneurRows)
+                .identifiedBy(EntrepreneurRow::idEntrepreneur)
+                .sortable(idColumn, "idEntrepreneur")
+                .sortable(nomColumn, "nomEntrepreneur")
+                .sortable(prenomColumn, "prenomEntrepreneur")
+                .sortable(emailColumn, "emailEntrepreneur")
+                .sortable(telColumn, "telEntrepreneur")
+                .sortable(villeColumn, "villeDeploiement");
+    }
+
+    /**
+     * Searches as the user types.
+     */
+    private void setupLiveSearch() {
+        liveSearch = new LiveSearch<>(searchField, entrepreneurService::searchRowsByName, true,
+                row -> LiveSearch.text(row.nomEntrepreneur(), row.prenomEntrepreneur(),
+                        row.emailEntrepreneur(), row.villeDeploiement()),
+                pagedLoader::showAll, pagedLoader::reload);
+    }
+
+    /**
+     * Patches the table with the changes made in other tabs.
+     */
+    private void setupSync() {
+        new TableSync<>(pagedLoader, Entrepreneur.class, entrepreneurService::getEntrepreneurRows)
+                .onChange(liveSearch::invalidate)
+                .start();
     }
 
     /**
@@ -93,25 +138,39 @@ public class EntrepreneurController {
     }
 
     /**
-     * Loads all entrepreneurs.
+     * Reloads the first page of entrepreneurs.
      */
     private void loadEntrepreneurs() {
-        try {
-            List<Entrepreneur> entrepreneurs = entrepreneurService.getAllEntrepreneurs();
-            entrepreneurList.setAll(entrepreneurs);
-            entrepreneurTable.setItems(entrepreneurList);
-            logger.info("Loaded {} entrepreneurs", entrepreneurs.size());
-        } catch (Exception e) {
-            logger.error("Error loading entrepreneurs", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        liveSearch.reset();
+        pagedLoader.reload();
+    }
+
+    /**
+     * Loads the selected entrepreneur in the background, then displays it.
+     * The result is dropped if another row was selected meanwhile.
+     */
+    private void displayEntrepreneur(EntrepreneurRow row) {
+        BackgroundTask.call(() -> entrepreneurService.findDetail(row.idEntrepreneur()))
+                .onSuccess(found -> {
+                    if (row == entrepreneurTable.getSelectionModel().getSelectedItem()) {
+                        showEntrepreneur(found);
+                    }
+                })
+                .onError("Erreur de chargement")
+                .start();
     }
 
     /**
      * Displays entrepreneur details in form.
      */
-    private void displayEntrepreneur(Entrepreneur entrepreneur) {
+    private void showEntrepreneur(Optional<Entrepreneur> found) {
+        if (found.isEmpty()) {
+            clearForm();
+            return;
+        }
+        Entrepreneur entrepreneur = found.get();
         currentEntrepreneur = entrepreneur;
+        merge.load(entrepreneur);
         nomField.setText(entrepreneur.getNomEntrepreneur());
         prenomField.setText(entrepreneur.getPrenomEntrepreneur());
         emailField.setText(entrepreneur.getEmailEntrepreneur());
@@ -138,7 +197,7 @@ public class EntrepreneurController {
      */
     @FXML
     private void handleEdit() {
-        Entrepreneur selected = entrepreneurTable.getSelectionModel().getSelectedItem();
+        EntrepreneurRow selected = entrepreneurTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner un entrepreneur à modifier.");
         }
@@ -149,51 +208,80 @@ public class EntrepreneurController {
      */
     @FXML
     private void handleDelete() {
-        Entrepreneur selected = entrepreneurTable.getSelectionModel().getSelectedItem();
+        EntrepreneurRow selected = entrepreneurTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner un entrepreneur à supprimer.");
             return;
         }
 
         if (AlertUtil.showDeleteConfirmation(selected.getFullName())) {
-            try {
-                entrepreneurService.deleteEntrepreneur(selected.getIdEntrepreneur());
-                AlertUtil.showSuccess("Entrepreneur supprimé avec succès");
-                loadEntrepreneurs();
-                clearForm();
-            } catch (Exception e) {
-                logger.error("Error deleting entrepreneur", e);
-                AlertUtil.showError("Erreur de suppression", e);
-            }
+            BackgroundTask.run(() -> entrepreneurService.deleteEntrepreneur(selected.idEntrepreneur()))
+                    .status("Suppression de l'entrepreneur...")
+                    .disabling(root)
+                    .onSuccess(done -> {
+                        AlertUtil.showSuccess("Entrepreneur supprimé avec succès");
+                        liveSearch.reset();
+                        pagedLoader.remove(selected.idEntrepreneur());
+                        clearForm();
+                    })
+                    .onError("Erreur de suppression")
+                    .start();
         }
     }
 
     /**
-     * Handles entrepreneur save.
+     * Handles entrepreneur save. The form is disabled while the entrepreneur is saved.
      */
     @FXML
     private void handleSave() {
-        try {
-            if (currentEntrepreneur == null) {
-                // Create new entrepreneur
-                Entrepreneur entrepreneur = new Entrepreneur();
-                setEntrepreneurFromForm(entrepreneur);
-                entrepreneurService.createEntrepreneur(entrepreneur);
-                AlertUtil.showSuccess("Entrepreneur créé avec succès");
-            } else {
-                // Update existing entrepreneur
-                setEntrepreneurFromForm(currentEntrepreneur);
-                entrepreneurService.updateEntrepreneur(currentEntrepreneur);
-                AlertUtil.showSuccess("Entrepreneur modifié avec succès");
-            }
-            loadEntrepreneurs();
-            clearForm();
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showValidationError(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error saving entrepreneur", e);
-            AlertUtil.showError("Erreur de sauvegarde", e);
-        }
+        boolean creating = currentEntrepreneur == null;
+        Entrepreneur entrepreneur = creating ? new Entrepreneur() : currentEntrepreneur;
+        setEntrepreneurFromForm(entrepreneur);
+        save(entrepreneur, creating);
+    }
+
+    /**
+     * Saves an entrepreneur in the background. A conflict with another user's update
+     * is merged field by field, then saved again.
+     */
+    private void save(Entrepreneur entrepreneur, boolean creating) {
+        BackgroundTask.run(() -> {
+                    if (creating) {
+                        entrepreneurService.createEntrepreneur(entrepreneur);
+                    } else {
+                        entrepreneurService.updateEntrepreneur(entrepreneur);
+                    }
+                })
+                .status("Enregistrement de l'entrepreneur...")
+                .disabling(root)
+                .onSuccess(done -> {
+                    AlertUtil.showSuccess(creating ? "Entrepreneur créé avec succès" : "Entrepreneur modifié avec succès");
+                    liveSearch.reset();
+                    clearForm();
+                    pagedLoader.put(EntrepreneurRow.of(entrepreneur));
+                })
+                .onConflict(conflict -> resolveConflict(entrepreneur))
+                .onError("Erreur de sauvegarde")
+                .start();
+    }
+
+    /**
+     * Reloads the entrepreneur saved by another user and merges the form into it.
+     */
+    private void resolveConflict(Entrepreneur entrepreneur) {
+        BackgroundTask.call(() -> entrepreneurService.findDetail(entrepreneur.getIdEntrepreneur()))
+                .onSuccess(found -> {
+                    if (found.isEmpty()) {
+                        AlertUtil.showWarning("Conflit de modification", "Entrepreneur supprimé",
+                                "Cet entrepreneur a été supprimé par un autre utilisateur.");
+                        pagedLoader.remove(entrepreneur.getIdEntrepreneur());
+                        clearForm();
+                        return;
+                    }
+                    merge.resolve(entrepreneur, found.get()).ifPresent(merged -> save(merged, false));
+                })
+                .onError("Erreur de chargement")
+                .start();
     }
 
     /**
@@ -221,18 +309,7 @@ public class EntrepreneurController {
      */
     @FXML
     private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadEntrepreneurs();
-        } else {
-            try {
-                List<Entrepreneur> results = entrepreneurService.searchByName(searchTerm);
-                entrepreneurList.setAll(results);
-            } catch (Exception e) {
-                logger.error("Error searching entrepreneurs", e);
-                AlertUtil.showError("Erreur de recherche", e);
-            }
-        }
+        liveSearch.search(searchField.getText());
     }
 
     /**
@@ -255,43 +332,47 @@ public class EntrepreneurController {
             return;
         }
 
-        // Open category selection dialog
-        try {
-            List<Categorie> allCategories = categorieService.getAllCategories();
-
-            Dialog<List<Categorie>> dialog = new Dialog<>();
-            dialog.setTitle("Gérer les Catégories");
-            dialog.setHeaderText("Sélectionnez les catégories pour " + currentEntrepreneur.getFullName());
-
-            ListView<Categorie> categoryListView = new ListView<>();
-            categoryListView.getItems().setAll(allCategories);
-            categoryListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        BackgroundTask.call(categorieService::getAllCategories)
+                .onSuccess(this::showCategoriesDialog)
+                .onError("Erreur")
+                .start();
+    }
 
-            // Select current categories
-            for (Categorie cat : currentEntrepreneur.getCategories()) {
-                categoryListView.getSelectionModel().select(cat);
-            }
+    /**
+     * Opens the category selection dialog for the current entrepreneur.
+     */
+    private void showCategoriesDialog(List<Categorie> allCategories) {
+        if (currentEntrepreneur == null) {
+            return;
+        }
+        Dialog<List<Categorie>> dialog = new Dialog<>();
+        dialog.setTitle("Gérer les Catégories");
+        dialog.setHeaderText("Sélectionnez les catégories pour " + currentEntrepreneur.getFullName());
 
-            dialog.getDialogPane().setContent(categoryListView);
-            dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        ListView<Categorie> categoryListView = new ListView<>();
+        categoryListView.getItems().setAll(allCategories);
+        categoryListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
-            dialog.setResultConverter(buttonType -> {
-                if (buttonType == ButtonType.OK) {
-                    return categoryListView.getSelectionModel().getSelectedItems();
-                }
-                return null;
-            });
+        // Select current categories
+        for (Categorie cat : currentEntrepreneur.getCategories()) {
+            categoryListView.getSelectionModel().select(cat);
+        }
 
-            dialog.showAndWait().ifPresent(selectedCategories -> {
-                currentEntrepreneur.getCategories().clear();
-                currentEntrepreneur.getCategories().addAll(selectedCategories);
-                categoriesListView.setItems(FXCollections.observableArrayList(selectedCategories));
-            });
+        dialog.getDialogPane().setContent(categoryListView);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
-        } catch (Exception e) {
-            logger.error("Error managing categories", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        dialog.setResultConverter(buttonType -> {
+            if (buttonType == ButtonType.OK) {
+                return categoryListView.getSelectionModel().getSelectedItems();
+            }
+            return null;
+        });
+
+        dialog.showAndWait().ifPresent(selectedCategories -> {
+            currentEntrepreneur.getCategories().clear();
+            currentEntrepreneur.getCategories().addAll(selectedCategories);
+            categoriesListView.setItems(FXCollections.observableArrayList(selectedCategories));
+        });
     }
 
     /**
@@ -1,15 +1,29 @@
 package com.immosync.gesttravaux.controllers;
 
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.services.BulkImportService;
+import com.immosync.gesttravaux.services.ImportReport;
 import com.immosync.gesttravaux.utils.AlertUtil;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
+import javafx.stage.FileChooser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Main controller for the application.
  * Manages navigation between different modules.
@@ -20,6 +34,7 @@ import org.slf4j.LoggerFactory;
 public class MainController {
 
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
+    private static final List<String> IMPORT_TYPES = List.of("Entrepreneurs", "Propriétaires", "Biens", "Chantiers");
 
     @FXML
     private TabPane mainTabPane;
@@ -30,6 +45,12 @@ public class MainController {
     @FXML
     private Label dbStatusLabel;
 
+    @FXML
+    private ProgressIndicator taskIndicator;
+
+    @FXML
+    private Label taskLabel;
+
     /**
      * Initializes the controller.
      */
@@ -37,6 +58,17 @@ public class MainController {
     public void initialize() {
         logger.info("Main controller initialized");
         updateStatus("Application prête");
+        taskIndicator.visibleProperty().bind(BackgroundTask.runningCountProperty().greaterThan(0));
+        taskLabel.textProperty().bind(BackgroundTask.statusTextProperty());
+        dbStatusLabel.setText("Base de données: Connexion...");
+        HibernateUtil.startAsync().whenComplete((sessionFactory, ex) -> Platform.runLater(() -> {
+            if (ex == null) {
+                dbStatusLabel.setText("Base de données: Connectée");
+            } else {
+                logger.error("Database connection failed", ex);
+                dbStatusLabel.setText("Base de données: Erreur de connexion");
+            }
+        }));
     }
 
     /**
@@ -101,6 +133,81 @@ public class MainController {
         );
     }
 
+    /**
+     * Imports a CSV file of entrepreneurs, proprietaires, biens or chantiers.
+     * The import runs in the background and its report is shown when it finishes.
+     */
+    @FXML
+    private void handleImport() {
+        ChoiceDialog<String> typeDialog = new ChoiceDialog<>(IMPORT_TYPES.get(0), IMPORT_TYPES);
+        typeDialog.setTitle("Importer un fichier CSV");
+        typeDialog.setHeaderText("Type de données à importer");
+        typeDialog.setContentText("Type :");
+        Optional<String> type = typeDialog.showAndWait();
+        if (type.isEmpty()) {
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importer des " + type.get());
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(mainTabPane.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        updateStatus("Import des " + type.get() + " en cours...");
+        BackgroundTask.call(() -> runImport(type.get(), file.toPath()))
+                .status("Import des " + type.get() + "...")
+                .onSuccess(report -> {
+                    updateStatus(report.getSummary());
+                    showImportReport(report);
+                })
+                .onError(cause -> {
+                    logger.error("Import failed", cause);
+                    updateStatus("Échec de l'import");
+                    AlertUtil.showError("Erreur", "L'import a échoué", cause.getMessage());
+                })
+                .start();
+    }
+
+    /**
+     * Runs an import on the calling thread.
+     *
+     * @param type the import type, one of {@link #IMPORT_TYPES}
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    private ImportReport runImport(String type, Path file) throws IOException {
+        BulkImportService importService = new BulkImportService();
+        return switch (type) {
+            case "Entrepreneurs" -> importService.importEntrepreneurs(file);
+            case "Propriétaires" -> importService.importProprietaires(file);
+            case "Biens" -> importService.importBiens(file);
+            case "Chantiers" -> importService.importChantiers(file);
+            default -> throw new IllegalArgumentException("Type d'import inconnu : " + type);
+        };
+    }
+
+    /**
+     * Shows the result of an import, with the first rejected rows.
+     *
+     * @param report the import report
+     */
+    private void showImportReport(ImportReport report) {
+        StringBuilder details = new StringBuilder();
+        report.getErrors().stream().limit(20).forEach(error -> details.append(error).append('\n'));
+        if (report.getErrorCount() > 20) {
+            details.append("... et ").append(report.getErrorCount() - 20).append(" autres erreurs");
+        }
+        if (report.getErrorCount() == 0) {
+            AlertUtil.showInfo("Import terminé", report.getSummary(), "Toutes les lignes ont été importées.");
+        } else {
+            AlertUtil.showWarning("Import terminé avec des erreurs", report.getSummary(), details.toString());
+        }
+    }
+
     /**
      * Handles application exit.
      */
@@ -116,11 +223,36 @@ public class MainController {
 
     /**
      * Loads a view in a new tab.
+     * Waits for the SessionFactory without blocking the UI if it is still bootstrapping,
+     * since the module controllers query the database as soon as they are created.
      *
      * @param tabName the tab name
      * @param fxmlPath the FXML file path
      */
     private void loadView(String tabName, String fxmlPath) {
+        if (!HibernateUtil.isSessionFactoryOpen()) {
+            updateStatus("Connexion à la base de données en cours...");
+            HibernateUtil.startAsync().whenComplete((sessionFactory, ex) -> Platform.runLater(() -> {
+                if (ex == null) {
+                    openView(tabName, fxmlPath);
+                } else {
+                    updateStatus("Base de données indisponible");
+                    AlertUtil.showError("Erreur", "Impossible de se connecter à la base de données",
+                            ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+                }
+            }));
+            return;
+        }
+        openView(tabName, fxmlPath);
+    }
+
+    /**
+     * Opens a view in a new tab, or selects it if it is already open.
+     *
+     * @param tabName the tab name
+     * @param fxmlPath the FXML file path
+     */
+    private void openView(String tabName, String fxmlPath) {
         try {
             // Check if tab already exists
             for (Tab tab : mainTabPane.getTabs()) {
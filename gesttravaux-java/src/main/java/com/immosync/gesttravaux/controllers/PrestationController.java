@@ -1,36 +1,46 @@
 package com.immosync.gesttravaux.controllers;
+import com.immosync.gesttravaux.dto.PrestationRow;
 import com.immosync.gesttravaux.models.*;
 import com.immosync.gesttravaux.services.*;
 import com.immosync.gesttravaux.utils.AlertUtil;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import com.immosync.gesttravaux.utils.FxEvents;
+import com.immosync.gesttravaux.utils.LiveSearch;
+import com.immosync.gesttravaux.utils.PagedTableLoader;
+import com.immosync.gesttravaux.utils.TableSync;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.List;
+import java.util.Optional;
 
 public class PrestationController {
     private static final Logger logger = LoggerFactory.getLogger(PrestationController.class);
-    @FXML private TableView<Prestation> prestationTable;
-    @FXML private TableColumn<Prestation, Integer> idColumn;
-    @FXML private TableColumn<Prestation, String> libelleColumn, categorieColumn;
+    @FXML private BorderPane root;
+    @FXML private TableView<PrestationRow> prestationTable;
+    @FXML private TableColumn<PrestationRow, Integer> idColumn;
+    @FXML private TableColumn<PrestationRow, String> libelleColumn, categorieColumn;
     @FXML private TextField libelleField, searchField;
     @FXML private ComboBox<Categorie> categorieCombo;
     private final PrestationService prestationService;
     private final CategorieService categorieService;
-    private final ObservableList<Prestation> prestationList;
+    private PagedTableLoader<PrestationRow> pagedLoader;
+    private LiveSearch<PrestationRow> liveSearch;
     private Prestation currentPrestation;
 
     public PrestationController() {
         this.prestationService = new PrestationService();
         this.categorieService = new CategorieService();
-        this.prestationList = FXCollections.observableArrayList();
     }
 
     @FXML public void initialize() {
         setupTableColumns();
+        setupLiveSearch();
+        setupSync();
         loadCategories();
         loadPrestations();
         setupTableSelectionListener();
@@ -38,14 +48,30 @@ public class PrestationController {
     }
 
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idPrestation"));
-        libelleColumn.setCellValueFactory(new PropertyValueFactory<>("libelle"));
+        idColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().idPrestation()));
+        libelleColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().libelle()));
         categorieColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getCategorie() != null ? 
-                cellData.getValue().getCategorie().getType() : ""
-            )
+            new SimpleStringProperty(cellData.getValue().categorie() != null ? cellData.getValue().categorie() : "")
         );
+        pagedLoader = new PagedTableLoader<>(prestationTable, prestationService::getPrestationRows)
+                .identifiedBy(PrestationRow::idPrestation)
+                .sortable(idColumn, "idPrestation")
+                .sortable(libelleColumn, "libelle")
+                .sortable(categorieColumn, "categorie.type");
+    }
+
+    private void setupLiveSearch() {
+        liveSearch = new LiveSearch<>(searchField, prestationService::searchRowsByLibelle,
+                row -> row.libelle(),
+                pagedLoader::showAll, pagedLoader::reload);
+    }
+
+    private void setupSync() {
+        new TableSync<>(pagedLoader, Prestation.class, prestationService::getPrestationRows)
+                .dependsOn(Categorie.class, "type")
+                .onChange(liveSearch::invalidate)
+                .start();
+        FxEvents.subscribe(root, Categorie.class, changes -> loadCategories());
     }
 
     private void setupTableSelectionListener() {
@@ -57,27 +83,32 @@ public class PrestationController {
     }
 
     private void loadCategories() {
-        try {
-            List<Categorie> categories = categorieService.getAllCategories();
-            categorieCombo.setItems(FXCollections.observableArrayList(categories));
-        } catch (Exception e) {
-            logger.error("Error loading categories", e);
-        }
+        BackgroundTask.call(categorieService::getAllCategories)
+            .onSuccess(categories -> categorieCombo.setItems(FXCollections.observableArrayList(categories)))
+            .onError(e -> logger.error("Error loading categories", e))
+            .start();
     }
 
     private void loadPrestations() {
-        try {
-            List<Prestation> prestations = prestationService.getAllPrestations();
-            prestationList.setAll(prestations);
-            prestationTable.setItems(prestationList);
-            logger.info("Loaded {} prestations", prestations.size());
-        } catch (Exception e) {
-            logger.error("Error loading prestations", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        liveSearch.reset();
+        pagedLoader.reload();
+    }
+
+    private void displayPrestation(PrestationRow row) {
+        BackgroundTask.call(() -> prestationService.findById(row.idPrestation()))
+            .onSuccess(found -> {
+                if (row == prestationTable.getSelectionModel().getSelectedItem()) showPrestation(found);
+            })
+            .onError("Erreur de chargement")
+            .start();
     }
 
-    private void displayPrestation(Prestation prestation) {
+    private void showPrestation(Optional<Prestation> found) {
+        if (found.isEmpty()) {
+            clearForm();
+            return;
+        }
+        Prestation prestation = found.get();
         currentPrestation = prestation;
         libelleField.setText(prestation.getLibelle());
         categorieCombo.setValue(prestation.getCategorie());
@@ -90,44 +121,44 @@ public class PrestationController {
     }
 
     @FXML private void handleDelete() {
-        Prestation selected = prestationTable.getSelectionModel().getSelectedItem();
+        PrestationRow selected = prestationTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner une prestation à supprimer.");
             return;
         }
-        if (AlertUtil.showDeleteConfirmation(selected.getLibelle())) {
-            try {
-                prestationService.deletePrestation(selected.getIdPrestation());
-                AlertUtil.showSuccess("Prestation supprimée avec succès");
-                loadPrestations();
-                clearForm();
-            } catch (Exception e) {
-                logger.error("Error deleting prestation", e);
-                AlertUtil.showError("Erreur de suppression", e);
-            }
+        if (AlertUtil.showDeleteConfirmation(selected.libelle())) {
+            BackgroundTask.run(() -> prestationService.deletePrestation(selected.idPrestation()))
+                .status("Suppression de la prestation...")
+                .disabling(root)
+                .onSuccess(done -> {
+                    AlertUtil.showSuccess("Prestation supprimée avec succès");
+                    liveSearch.reset();
+                    pagedLoader.remove(selected.idPrestation());
+                    clearForm();
+                })
+                .onError("Erreur de suppression")
+                .start();
         }
     }
 
     @FXML private void handleSave() {
-        try {
-            if (currentPrestation == null) {
-                Prestation prestation = new Prestation();
-                setPrestationFromForm(prestation);
-                prestationService.createPrestation(prestation);
-                AlertUtil.showSuccess("Prestation créée avec succès");
-            } else {
-                setPrestationFromForm(currentPrestation);
-                prestationService.updatePrestation(currentPrestation);
-                AlertUtil.showSuccess("Prestation modifiée avec succès");
-            }
-            loadPrestations();
-            clearForm();
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showValidationError(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error saving prestation", e);
-            AlertUtil.showError("Erreur de sauvegarde", e);
-        }
+        boolean creating = currentPrestation == null;
+        Prestation prestation = creating ? new Prestation() : currentPrestation;
+        setPrestationFromForm(prestation);
+        BackgroundTask.run(() -> {
+                if (creating) prestationService.createPrestation(prestation);
+                else prestationService.updatePrestation(prestation);
+            })
+            .status("Enregistrement de la prestation...")
+            .disabling(root)
+            .onSuccess(done -> {
+                AlertUtil.showSuccess(creating ? "Prestation créée avec succès" : "Prestation modifiée avec succès");
+                liveSearch.reset();
+                clearForm();
+                pagedLoader.put(PrestationRow.of(prestation));
+            })
+            .onError("Erreur de sauvegarde")
+            .start();
     }
 
     private void setPrestationFromForm(Prestation prestation) {
@@ -136,19 +167,7 @@ public class PrestationController {
     }
 
     @FXML private void handleCancel() { clearForm(); prestationTable.getSelectionModel().clearSelection(); }
-    @FXML private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) loadPrestations();
-        else {
-            try {
-                List<Prestation> results = prestationService.searchByLibelle(searchTerm);
-                prestationList.setAll(results);
-            } catch (Exception e) {
-                logger.error("Error searching prestations", e);
-                AlertUtil.showError("Erreur de recherche", e);
-            }
-        }
-    }
+    @FXML private void handleSearch() { liveSearch.search(searchField.getText()); }
 
     @FXML private void handleRefresh() { loadPrestations(); clearForm(); }
     private void clearForm() {
@@ -1,52 +1,76 @@
 package com.immosync.gesttravaux.controllers;
 
+import com.immosync.gesttravaux.dto.ProprietaireRow;
 import com.immosync.gesttravaux.models.Proprietaire;
 import com.immosync.gesttravaux.services.ProprietaireService;
 import com.immosync.gesttravaux.utils.AlertUtil;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.immosync.gesttravaux.utils.BackgroundTask;
+import com.immosync.gesttravaux.utils.LiveSearch;
+import com.immosync.gesttravaux.utils.PagedTableLoader;
+import com.immosync.gesttravaux.utils.TableSync;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import java.util.List;
+import javafx.scene.layout.BorderPane;
+import java.util.Optional;
 
 public class ProprietaireController {
-    private static final Logger logger = LoggerFactory.getLogger(ProprietaireController.class);
-    @FXML private TableView<Proprietaire> proprietaireTable;
-    @FXML private TableColumn<Proprietaire, Integer> idColumn;
-    @FXML private TableColumn<Proprietaire, String> nomColumn;
-    @FXML private TableColumn<Proprietaire, String> prenomColumn;
-    @FXML private TableColumn<Proprietaire, String> emailColumn;
-    @FXML private TableColumn<Proprietaire, String> telColumn;
+    @FXML private BorderPane root;
+    @FXML private TableView<ProprietaireRow> proprietaireTable;
+    @FXML private TableColumn<ProprietaireRow, Integer> idColumn;
+    @FXML private TableColumn<ProprietaireRow, String> nomColumn;
+    @FXML private TableColumn<ProprietaireRow, String> prenomColumn;
+    @FXML private TableColumn<ProprietaireRow, String> emailColumn;
+    @FXML private TableColumn<ProprietaireRow, String> telColumn;
     @FXML private TextField nomField;
     @FXML private TextField prenomField;
     @FXML private TextField emailField;
     @FXML private TextField telField;
     @FXML private TextField searchField;
     private final ProprietaireService proprietaireService;
-    private final ObservableList<Proprietaire> proprietaireList;
+    private PagedTableLoader<ProprietaireRow> pagedLoader;
+    private LiveSearch<ProprietaireRow> liveSearch;
     private Proprietaire currentProprietaire;
 
     public ProprietaireController() {
         this.proprietaireService = new ProprietaireService();
-        this.proprietaireList = FXCollections.observableArrayList();
     }
 
     @FXML public void initialize() {
         setupTableColumns();
+        setupLiveSearch();
+        setupSync();
         loadProprietaires();
         setupTableSelectionListener();
         clearForm();
     }
 
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idProprietaire"));
-        nomColumn.setCellValueFactory(new PropertyValueFactory<>("nomProprietaire"));
-        prenomColumn.setCellValueFactory(new PropertyValueFactory<>("prenomProprietaire"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("emailProprietaire"));
-        telColumn.setCellValueFactory(new PropertyValueFactory<>("telProprietaire"));
+        idColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().idProprietaire()));
+        nomColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().nomProprietaire()));
+        prenomColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().prenomProprietaire()));
+        emailColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().emailProprietaire()));
+        telColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().telProprietaire()));
+        pagedLoader = new PagedTableLoader<>(proprietaireTable, proprietaireService::getProprietaireRows)
+                .identifiedBy(ProprietaireRow::idProprietaire)
+                .sortable(idColumn, "idProprietaire")
+                .sortable(nomColumn, "nomProprietaire")
+                .sortable(prenomColumn, "prenomProprietaire")
+                .sortable(emailColumn, "emailProprietaire")
+                .sortable(telColumn, "telProprietaire");
+    }
+
+    private void setupLiveSearch() {
+        liveSearch = new LiveSearch<>(searchField, proprietaireService::searchRowsByName, true,
+                row -> LiveSearch.text(row.nomProprietaire(), row.prenomProprietaire(), row.emailProprietaire()),
+                pagedLoader::showAll, pagedLoader::reload);
+    }
+
+    private void setupSync() {
+        new TableSync<>(pagedLoader, Proprietaire.class, proprietaireService::getProprietaireRows)
+                .onChange(liveSearch::invalidate)
+                .start();
     }
 
     private void setupTableSelectionListener() {
@@ -58,18 +82,25 @@ public class ProprietaireController {
     }
 
     private void loadProprietaires() {
-        try {
-            List<Proprietaire> proprietaires = proprietaireService.getAllProprietaires();
-            proprietaireList.setAll(proprietaires);
-            proprietaireTable.setItems(proprietaireList);
-            logger.info("Loaded {} proprietaires", proprietaires.size());
-        } catch (Exception e) {
-            logger.error("Error loading proprietaires", e);
-            AlertUtil.showError("Erreur", e);
-        }
+        liveSearch.reset();
+        pagedLoader.reload();
+    }
+
+    private void displayProprietaire(ProprietaireRow row) {
+        BackgroundTask.call(() -> proprietaireService.findById(row.idProprietaire()))
+            .onSuccess(found -> {
+                if (row == proprietaireTable.getSelectionModel().getSelectedItem()) showProprietaire(found);
+            })
+            .onError("Erreur de chargement")
+            .start();
     }
 
-    private void displayProprietaire(Proprietaire proprietaire) {
+    private void showProprietaire(Optional<Proprietaire> found) {
+        if (found.isEmpty()) {
+            clearForm();
+            return;
+        }
+        Proprietaire proprietaire = found.get();
         currentProprietaire = proprietaire;
         nomField.setText(proprietaire.getNomProprietaire());
         prenomField.setText(proprietaire.getPrenomProprietaire());
@@ -83,51 +114,51 @@ public class ProprietaireController {
     }
 
     @FXML private void handleEdit() {
-        Proprietaire selected = proprietaireTable.getSelectionModel().getSelectedItem();
+        ProprietaireRow selected = proprietaireTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner un propriétaire à modifier.");
         }
     }
 
     @FXML private void handleDelete() {
-        Proprietaire selected = proprietaireTable.getSelectionModel().getSelectedItem();
+        ProprietaireRow selected = proprietaireTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             AlertUtil.showWarning("Attention", "Aucune sélection", "Veuillez sélectionner un propriétaire à supprimer.");
             return;
         }
         if (AlertUtil.showDeleteConfirmation(selected.getFullName())) {
-            try {
-                proprietaireService.deleteProprietaire(selected.getIdProprietaire());
-                AlertUtil.showSuccess("Propriétaire supprimé avec succès");
-                loadProprietaires();
-                clearForm();
-            } catch (Exception e) {
-                logger.error("Error deleting proprietaire", e);
-                AlertUtil.showError("Erreur de suppression", e);
-            }
+            BackgroundTask.run(() -> proprietaireService.deleteProprietaire(selected.idProprietaire()))
+                .status("Suppression du propriétaire...")
+                .disabling(root)
+                .onSuccess(done -> {
+                    AlertUtil.showSuccess("Propriétaire supprimé avec succès");
+                    liveSearch.reset();
+                    pagedLoader.remove(selected.idProprietaire());
+                    clearForm();
+                })
+                .onError("Erreur de suppression")
+                .start();
         }
     }
 
     @FXML private void handleSave() {
-        try {
-            if (currentProprietaire == null) {
-                Proprietaire proprietaire = new Proprietaire();
-                setProprietaireFromForm(proprietaire);
-                proprietaireService.createProprietaire(proprietaire);
-                AlertUtil.showSuccess("Propriétaire créé avec succès");
-            } else {
-                setProprietaireFromForm(currentProprietaire);
-                proprietaireService.updateProprietaire(currentProprietaire);
-                AlertUtil.showSuccess("Propriétaire modifié avec succès");
-            }
-            loadProprietaires();
-            clearForm();
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showValidationError(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error saving proprietaire", e);
-            AlertUtil.showError("Erreur de sauvegarde", e);
-        }
+        boolean creating = currentProprietaire == null;
+        Proprietaire proprietaire = creating ? new Proprietaire() : currentProprietaire;
+        setProprietaireFromForm(proprietaire);
+        BackgroundTask.run(() -> {
+                if (creating) proprietaireService.createProprietaire(proprietaire);
+                else proprietaireService.updateProprietaire(proprietaire);
+            })
+            .status("Enregistrement du propriétaire...")
+            .disabling(root)
+            .onSuccess(done -> {
+                AlertUtil.showSuccess(creating ? "Propriétaire créé avec succès" : "Propriétaire modifié avec succès");
+                liveSearch.reset();
+                clearForm();
+                pagedLoader.put(ProprietaireRow.of(proprietaire));
+            })
+            .onError("Erreur de sauvegarde")
+            .start();
     }
 
     private void setProprietaireFromForm(Proprietaire proprietaire) {
@@ -143,18 +174,7 @@ public class ProprietaireController {
     }
 
     @FXML private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadProprietaires();
-        } else {
-            try {
-                List<Proprietaire> results = proprietaireService.searchByName(searchTerm);
-                proprietaireList.setAll(results);
-            } catch (Exception e) {
-                logger.error("Error searching proprietaires", e);
-                AlertUtil.showError("Erreur de recherche", e);
-            }
-        }
+        liveSearch.search(searchField.getText());
     }
 
     @FXML private void handleRefresh() {
@@ -1,11 +1,15 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dto.BienRow;
 import com.immosync.gesttravaux.models.Bien;
-import org.hibernate.Session;
+import com.immosync.gesttravaux.models.Proprietaire;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchType;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Bien entity.
@@ -16,11 +20,52 @@ import java.util.List;
  */
 public class BienDAO extends GenericDAO<Bien, Integer> {
 
+    /**
+     * Projection of the bien table, without the WHERE clause.
+     */
+    private static final String ROWS = "SELECT new " + BienRow.class.getName()
+            + "(b.idBien, b.adresseBien, b.villeBien, CONCAT(p.prenomProprietaire, ' ', p.nomProprietaire)) "
+            + "FROM Bien b LEFT JOIN b.proprietaire p";
+
+    /**
+     * Projection of the table rows of a list of IDs.
+     */
+    private static final String ROWS_BY_ID = ROWS + " WHERE b.idBien IN :ids";
+
+    /**
+     * LIKE criteria of the entity and row searches, used until the search index is built.
+     */
+    private static final String SEARCH = "LOWER(b.adresseBien) LIKE LOWER(:term) "
+            + "OR LOWER(b.villeBien) LIKE LOWER(:term)";
+
+    private final ChantierDAO chantierDAO;
+
     /**
      * Constructor.
      */
     public BienDAO() {
         super(Bien.class);
+        this.chantierDAO = new ChantierDAO();
+    }
+
+    /**
+     * Pages are ordered by city and address, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("villeBien", "adresseBien");
+    }
+
+    /**
+     * Lists fetch the associations shown in the bien table.
+     *
+     * @return the list graph
+     */
+    @Override
+    protected String defaultGraph() {
+        return Bien.GRAPH_LIST;
     }
 
     /**
@@ -30,12 +75,12 @@ public class BienDAO extends GenericDAO<Bien, Integer> {
      * @return list of properties in the specified city
      */
     public List<Bien> findByVille(String ville) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Bien> query = session.createQuery(
-                    "FROM Bien b WHERE b.villeBien = :ville", Bien.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Bien> query = createListQuery(session,
+                    "FROM Bien b WHERE b.villeBien = :ville");
             query.setParameter("ville", ville);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -45,40 +90,86 @@ public class BienDAO extends GenericDAO<Bien, Integer> {
      * @return list of properties owned by the specified proprietaire
      */
     public List<Bien> findByProprietaire(Integer proprietaireId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Bien> query = session.createQuery(
-                    "FROM Bien b WHERE b.proprietaire.idProprietaire = :proprietaireId", Bien.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Bien> query = createListQuery(session,
+                    "FROM Bien b WHERE b.proprietaire.idProprietaire = :proprietaireId");
             query.setParameter("proprietaireId", proprietaireId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
      * Searches properties by address or city.
+     * Hits are ranked by relevance through the {@link SearchIndex}, which folds accents,
+     * stems French words and tolerates typos.
      *
      * @param searchTerm the search term
      * @return list of matching properties
      */
     public List<Bien> searchByAddress(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Bien> query = session.createQuery(
-                    "FROM Bien b WHERE LOWER(b.adresseBien) LIKE LOWER(:term) " +
-                    "OR LOWER(b.villeBien) LIKE LOWER(:term)", Bien.class);
-            query.setParameter("term", "%" + searchTerm + "%");
-            return query.getResultList();
-        }
+        return SearchIndex.getInstance().findIds(SearchType.BIEN, searchTerm)
+                .map(this::findAllById)
+                .orElseGet(() -> TransactionRunner.withSession(session -> {
+                    Query<Bien> query = createListQuery(session,
+                            "FROM Bien b WHERE " + SEARCH);
+                    query.setParameter("term", "%" + searchTerm + "%");
+                    return query.getResultList();
+                }));
+    }
+
+    /**
+     * Gets one page of the bien table.
+     *
+     * @param sort the sort order, or an empty sort for the default order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<BienRow> findRowPage(Sort sort, Page.Cursor after, int limit) {
+        return findRowPage(sort, after, limit, ROWS_BY_ID,
+                BienRow.class, BienRow::idBien);
+    }
+
+    /**
+     * Gets the bien table rows of some properties, e.g. to refresh rows changed elsewhere.
+     *
+     * @param ids the property IDs
+     * @return the rows of the properties that still exist, in the order of the IDs
+     */
+    public List<BienRow> findRowsById(List<Integer> ids) {
+        return findRowsById(ids, ROWS_BY_ID, BienRow.class, BienRow::idBien);
+    }
+
+    /**
+     * Searches properties by address or city, returning table rows ranked by relevance.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<BienRow> searchRowsByAddress(String searchTerm) {
+        return SearchIndex.getInstance().findIds(SearchType.BIEN, searchTerm)
+                .map(ids -> findRowsById(ids, ROWS_BY_ID, BienRow.class, BienRow::idBien))
+                .orElseGet(() -> findRows(ROWS + " WHERE " + SEARCH, BienRow.class,
+                        Map.of("term", "%" + searchTerm + "%")));
     }
 
     /**
      * Gets all properties ordered by city and address.
+     * The entities are shared through the query cache and must not be modified.
      *
      * @return list of properties ordered by location
      */
     public List<Bien> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Bien> query = session.createQuery(
-                    "FROM Bien b ORDER BY b.villeBien, b.adresseBien", Bien.class);
-            return query.getResultList();
-        }
+        return findCached("FROM Bien b ORDER BY b.villeBien, b.adresseBien", Proprietaire.class);
+    }
+
+    /**
+     * Deletes the chantiers of the biens, with their own dependents, before the biens.
+     *
+     * @param ids the bien IDs
+     */
+    @Override
+    protected void deleteDependents(Collection<Integer> ids) {
+        chantierDAO.deleteAllById(selectIds("SELECT c.idChantier FROM Chantier c WHERE c.bien.idBien IN :ids", ids));
     }
 }
@@ -1,11 +1,13 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dto.CategorieRow;
 import com.immosync.gesttravaux.models.Categorie;
-import org.hibernate.Session;
+import com.immosync.gesttravaux.models.Entrepreneur;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Categorie entity.
@@ -16,11 +18,40 @@ import java.util.List;
  */
 public class CategorieDAO extends GenericDAO<Categorie, Integer> {
 
+    /**
+     * Projection of the categorie table, without the WHERE clause.
+     */
+    private static final String ROWS = "SELECT new " + CategorieRow.class.getName()
+            + "(c.idCategorie, c.type) FROM Categorie c";
+
+    /**
+     * Projection of the categorie table restricted to some IDs.
+     */
+    private static final String ROWS_BY_ID = ROWS + " WHERE c.idCategorie IN :ids";
+
+    /**
+     * Criteria shared by the entity and row searches.
+     */
+    private static final String SEARCH = "LOWER(c.type) LIKE LOWER(:term)";
+
+    private final PrestationDAO prestationDAO;
+
     /**
      * Constructor.
      */
     public CategorieDAO() {
         super(Categorie.class);
+        this.prestationDAO = new PrestationDAO();
+    }
+
+    /**
+     * Pages are ordered by type, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("type");
     }
 
     /**
@@ -30,12 +61,12 @@ public class CategorieDAO extends GenericDAO<Categorie, Integer> {
      * @return category with the specified type or null
      */
     public Categorie findByType(String type) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Categorie> query = session.createQuery(
                     "FROM Categorie c WHERE c.type = :type", Categorie.class);
             query.setParameter("type", type);
             return query.uniqueResult();
-        }
+        });
     }
 
     /**
@@ -45,24 +76,69 @@ public class CategorieDAO extends GenericDAO<Categorie, Integer> {
      * @return list of matching categories
      */
     public List<Categorie> searchByType(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Categorie> query = session.createQuery(
-                    "FROM Categorie c WHERE LOWER(c.type) LIKE LOWER(:term)", Categorie.class);
+                    "FROM Categorie c WHERE " + SEARCH, Categorie.class);
             query.setParameter("term", "%" + searchTerm + "%");
             return query.getResultList();
-        }
+        });
+    }
+
+    /**
+     * Gets one page of the categorie table.
+     *
+     * @param sort the sort order, or an empty sort for the default order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<CategorieRow> findRowPage(Sort sort, Page.Cursor after, int limit) {
+        return findRowPage(sort, after, limit, ROWS_BY_ID,
+                CategorieRow.class, CategorieRow::idCategorie);
+    }
+
+    /**
+     * Gets the categorie table rows of some categories, e.g. to refresh rows changed elsewhere.
+     *
+     * @param ids the category IDs
+     * @return the rows of the categories that still exist, in the order of the IDs
+     */
+    public List<CategorieRow> findRowsById(List<Integer> ids) {
+        return findRowsById(ids, ROWS_BY_ID, CategorieRow.class, CategorieRow::idCategorie);
+    }
+
+    /**
+     * Searches categories by type, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<CategorieRow> searchRowsByType(String searchTerm) {
+        return findRows(ROWS + " WHERE " + SEARCH, CategorieRow.class, Map.of("term", "%" + searchTerm + "%"));
     }
 
     /**
      * Gets all categories ordered by type.
+     * The entities are shared through the query cache and must not be modified.
      *
      * @return list of categories ordered by type
      */
     public List<Categorie> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Categorie> query = session.createQuery(
-                    "FROM Categorie c ORDER BY c.type", Categorie.class);
-            return query.getResultList();
-        }
+        // Entrepreneur cascades PERSIST/MERGE to its categories
+        return findCached("FROM Categorie c ORDER BY c.type", Entrepreneur.class);
+    }
+
+    /**
+     * Deletes the prestations of the categories, with their devis, and the links to
+     * entrepreneurs before the categories.
+     *
+     * @param ids the categorie IDs
+     */
+    @Override
+    protected void deleteDependents(Collection<Integer> ids) {
+        prestationDAO.deleteAllById(selectIds(
+                "SELECT p.idPrestation FROM Prestation p WHERE p.categorie.idCategorie IN :ids", ids));
+        executeNativeBulk("DELETE FROM ENTREPRENEURS_has_CATEGORIES WHERE CATEGORIES_idCategorie IN (:ids)",
+                "ENTREPRENEURS_has_CATEGORIES", ids);
     }
 }
@@ -1,11 +1,15 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dto.ChantierRow;
 import com.immosync.gesttravaux.models.Chantier;
-import org.hibernate.Session;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchType;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Chantier entity.
@@ -16,11 +20,54 @@ import java.util.List;
  */
 public class ChantierDAO extends GenericDAO<Chantier, Integer> {
 
+    /**
+     * Projection of the chantier table, without the WHERE clause.
+     */
+    private static final String ROWS = "SELECT new " + ChantierRow.class.getName()
+            + "(c.idChantier, c.adresseChantier, c.villeChantier, c.infoChantier, "
+            + "CONCAT(b.adresseBien, ', ', b.villeBien), CONCAT(i.prenomInspecteur, ' ', i.nomInspecteur), "
+            + "c.statutChantier) "
+            + "FROM Chantier c LEFT JOIN c.bien b LEFT JOIN c.inspecteur i";
+
+    /**
+     * Projection of the table rows of a list of IDs.
+     */
+    private static final String ROWS_BY_ID = ROWS + " WHERE c.idChantier IN :ids";
+
+    /**
+     * LIKE criteria of the entity and row searches, used until the search index is built.
+     */
+    private static final String SEARCH = "LOWER(c.adresseChantier) LIKE LOWER(:term) "
+            + "OR LOWER(c.villeChantier) LIKE LOWER(:term) OR LOWER(c.infoChantier) LIKE LOWER(:term)";
+
+    private final DevisDAO devisDAO;
+
     /**
      * Constructor.
      */
     public ChantierDAO() {
         super(Chantier.class);
+        this.devisDAO = new DevisDAO();
+    }
+
+    /**
+     * Pages are ordered by status and city, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("statutChantier", "villeChantier");
+    }
+
+    /**
+     * Lists fetch the associations shown in the chantier table.
+     *
+     * @return the list graph
+     */
+    @Override
+    protected String defaultGraph() {
+        return Chantier.GRAPH_LIST;
     }
 
     /**
@@ -30,12 +77,12 @@ public class ChantierDAO extends GenericDAO<Chantier, Integer> {
      * @return list of chantiers with the specified status
      */
     public List<Chantier> findByStatut(Integer statut) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Chantier> query = session.createQuery(
-                    "FROM Chantier c WHERE c.statutChantier = :statut", Chantier.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Chantier> query = createListQuery(session,
+                    "FROM Chantier c WHERE c.statutChantier = :statut");
             query.setParameter("statut", statut);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -45,12 +92,12 @@ public class ChantierDAO extends GenericDAO<Chantier, Integer> {
      * @return list of chantiers for the specified property
      */
     public List<Chantier> findByBien(Integer bienId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Chantier> query = session.createQuery(
-                    "FROM Chantier c WHERE c.bien.idBien = :bienId", Chantier.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Chantier> query = createListQuery(session,
+                    "FROM Chantier c WHERE c.bien.idBien = :bienId");
             query.setParameter("bienId", bienId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -60,12 +107,12 @@ public class ChantierDAO extends GenericDAO<Chantier, Integer> {
      * @return list of chantiers assigned to the specified inspector
      */
     public List<Chantier> findByInspecteur(Integer inspecteurId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Chantier> query = session.createQuery(
-                    "FROM Chantier c WHERE c.inspecteur.idInspecteur = :inspecteurId", Chantier.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Chantier> query = createListQuery(session,
+                    "FROM Chantier c WHERE c.inspecteur.idInspecteur = :inspecteurId");
             query.setParameter("inspecteurId", inspecteurId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -75,29 +122,67 @@ public class ChantierDAO extends GenericDAO<Chantier, Integer> {
      * @return list of chantiers in the specified city
      */
     public List<Chantier> findByVille(String ville) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Chantier> query = session.createQuery(
-                    "FROM Chantier c WHERE c.villeChantier = :ville", Chantier.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Chantier> query = createListQuery(session,
+                    "FROM Chantier c WHERE c.villeChantier = :ville");
             query.setParameter("ville", ville);
             return query.getResultList();
-        }
+        });
     }
 
     /**
      * Searches chantiers by address or info.
+     * Hits are ranked by relevance through the {@link SearchIndex}, which folds accents,
+     * stems French words and tolerates typos.
      *
      * @param searchTerm the search term
      * @return list of matching chantiers
      */
     public List<Chantier> search(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Chantier> query = session.createQuery(
-                    "FROM Chantier c WHERE LOWER(c.adresseChantier) LIKE LOWER(:term) " +
-                    "OR LOWER(c.villeChantier) LIKE LOWER(:term) " +
-                    "OR LOWER(c.infoChantier) LIKE LOWER(:term)", Chantier.class);
-            query.setParameter("term", "%" + searchTerm + "%");
-            return query.getResultList();
-        }
+        return SearchIndex.getInstance().findIds(SearchType.CHANTIER, searchTerm)
+                .map(this::findAllById)
+                .orElseGet(() -> TransactionRunner.withSession(session -> {
+                    Query<Chantier> query = createListQuery(session,
+                            "FROM Chantier c WHERE " + SEARCH);
+                    query.setParameter("term", "%" + searchTerm + "%");
+                    return query.getResultList();
+                }));
+    }
+
+    /**
+     * Gets one page of the chantier table.
+     *
+     * @param sort the sort order, or an empty sort for the default order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<ChantierRow> findRowPage(Sort sort, Page.Cursor after, int limit) {
+        return findRowPage(sort, after, limit, ROWS_BY_ID,
+                ChantierRow.class, ChantierRow::idChantier);
+    }
+
+    /**
+     * Gets the chantier table rows of some worksites, e.g. to refresh rows changed elsewhere.
+     *
+     * @param ids the worksite IDs
+     * @return the rows of the worksites that still exist, in the order of the IDs
+     */
+    public List<ChantierRow> findRowsById(List<Integer> ids) {
+        return findRowsById(ids, ROWS_BY_ID, ChantierRow.class, ChantierRow::idChantier);
+    }
+
+    /**
+     * Searches chantiers by address or info, returning table rows ranked by relevance.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<ChantierRow> searchRows(String searchTerm) {
+        return SearchIndex.getInstance().findIds(SearchType.CHANTIER, searchTerm)
+                .map(ids -> findRowsById(ids, ROWS_BY_ID, ChantierRow.class, ChantierRow::idChantier))
+                .orElseGet(() -> findRows(ROWS + " WHERE " + SEARCH, ChantierRow.class,
+                        Map.of("term", "%" + searchTerm + "%")));
     }
 
     /**
@@ -106,10 +191,63 @@ public class ChantierDAO extends GenericDAO<Chantier, Integer> {
      * @return list of chantiers ordered
      */
     public List<Chantier> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Chantier> query = session.createQuery(
-                    "FROM Chantier c ORDER BY c.statutChantier, c.villeChantier", Chantier.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Chantier> query = createListQuery(session,
+                    "FROM Chantier c ORDER BY c.statutChantier, c.villeChantier");
             return query.getResultList();
+        });
+    }
+
+    /**
+     * Sets the status of several chantiers with set-based UPDATE statements.
+     *
+     * @param ids the chantier IDs
+     * @param statut the new status
+     * @return the number of chantiers updated
+     */
+    public int updateStatut(Collection<Integer> ids, Integer statut) {
+        return executeBulk("UPDATE VERSIONED Chantier c SET c.statutChantier = :statut WHERE c.idChantier IN :ids",
+                ids, Map.of("statut", statut));
+    }
+
+    /**
+     * Sets the status of every chantier matching a filter with a single UPDATE statement.
+     * A null criterion matches any value.
+     *
+     * @param ville the city, or null
+     * @param inspecteurId the inspector ID, or null
+     * @param statutActuel the current status, or null
+     * @param statut the new status
+     * @return the number of chantiers updated
+     */
+    public int updateStatutWhere(String ville, Integer inspecteurId, Integer statutActuel, Integer statut) {
+        StringBuilder hql = new StringBuilder("UPDATE VERSIONED Chantier c SET c.statutChantier = :statut WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("statut", statut);
+        if (ville != null) {
+            hql.append(" AND c.villeChantier = :ville");
+            parameters.put("ville", ville);
         }
+        if (inspecteurId != null) {
+            hql.append(" AND c.inspecteur.idInspecteur = :inspecteurId");
+            parameters.put("inspecteurId", inspecteurId);
+        }
+        if (statutActuel != null) {
+            hql.append(" AND c.statutChantier = :statutActuel");
+            parameters.put("statutActuel", statutActuel);
+        }
+        return executeBulk(hql.toString(), parameters);
+    }
+
+    /**
+     * Deletes the devis and document links of the chantiers before the chantiers.
+     *
+     * @param ids the chantier IDs
+     */
+    @Override
+    protected void deleteDependents(Collection<Integer> ids) {
+        devisDAO.deleteByChantiers(ids);
+        executeNativeBulk("DELETE FROM CHANTIERS_has_DOCUMENTS WHERE CHANTIERS_idChantier IN (:ids)",
+                "CHANTIERS_has_DOCUMENTS", ids);
     }
 }
@@ -0,0 +1,47 @@
+package com.immosync.gesttravaux.dao;
+
+/**
+ * Thrown when an entity is saved from a stale copy: another user updated or deleted
+ * it since it was loaded, so its {@code @Version} no longer matches the database.
+ * Nothing has been written; the caller reloads the entity, merges the changes and
+ * saves again.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class ConflictException extends RuntimeException {
+
+    private final Class<?> entityType;
+    private final transient Object entityId;
+
+    /**
+     * Constructor.
+     *
+     * @param entityType the entity class
+     * @param entityId the entity ID
+     * @param cause the optimistic locking failure
+     */
+    public ConflictException(Class<?> entityType, Object entityId, Throwable cause) {
+        super("Modifié par un autre utilisateur : " + entityType.getSimpleName() + " #" + entityId, cause);
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    /**
+     * Gets the class of the entity in conflict.
+     *
+     * @return the entity class
+     */
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Gets the ID of the entity in conflict.
+     *
+     * @return the entity ID
+     */
+    public Object getEntityId() {
+        return entityId;
+    }
+}
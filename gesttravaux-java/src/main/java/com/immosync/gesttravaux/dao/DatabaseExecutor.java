@@ -0,0 +1,209 @@
+package com.immosync.gesttravaux.dao;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking DAO and service calls in the background and returns their result as a
+ * {@link CompletableFuture}, so independent loads can run in parallel and be composed:
+ *
+ * <pre>
+ * DatabaseExecutor.supplyAsync(bienService::getAllBiens)
+ *         .thenCombine(inspecteurDAO.findAllAsync(), Map::entry)
+ *         .thenAccept(...);
+ * </pre>
+ *
+ * Tasks run on virtual threads when the JVM provides them (Java 21 and later), and on
+ * a fixed pool of daemon platform threads otherwise, the extra tasks waiting in its queue.
+ * A semaphore bounds the number of tasks using the database at once to
+ * {@link #concurrencyLimit(int, boolean, int)}, so no task waits in the connection pool;
+ * the platform thread pool is sized to the same limit.
+ * <p>
+ * MySQL Connector/J 8.0 executes every statement inside a {@code synchronized} block on
+ * its connection, which pins a virtual thread to its carrier thread for the whole round
+ * trip (visible with {@code -Djdk.tracePinnedThreads=full}). With virtual threads the
+ * limit is therefore also kept below the number of carrier threads, so pinned queries
+ * can never starve the other virtual threads.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public final class DatabaseExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseExecutor.class);
+
+    /**
+     * Concurrency limit used when the connection pool size cannot be read.
+     */
+    static final int FALLBACK_LIMIT = 4;
+
+    private static final long IDLE_SECONDS = 60;
+
+    private static final boolean VIRTUAL_THREADS;
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        ExecutorService executor;
+        boolean virtual;
+        try {
+            // Looked up reflectively, the code being compiled for Java 17
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtual = true;
+        } catch (ReflectiveOperationException e) {
+            // Resized to the concurrency limit once the connection pool is known
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(FALLBACK_LIMIT, FALLBACK_LIMIT,
+                    IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "db-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            virtual = false;
+        }
+        EXECUTOR = executor;
+        VIRTUAL_THREADS = virtual;
+    }
+
+    private static final ReentrantLock LIMITER_LOCK = new ReentrantLock();
+    private static final Semaphore FALLBACK_LIMITER = new Semaphore(FALLBACK_LIMIT, true);
+    private static volatile Semaphore limiter;
+    private static boolean fallbackLogged;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private DatabaseExecutor() {
+    }
+
+    /**
+     * Runs a blocking call in the background.
+     * The future fails with the exception thrown by the call.
+     *
+     * @param work the call, e.g. a DAO or service method
+     * @param <R> the result type
+     * @return the future result
+     */
+    public static <R> CompletableFuture<R> supplyAsync(Supplier<R> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            Semaphore permits = limiter();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return work.get();
+            } finally {
+                permits.release();
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Runs a blocking call without result in the background.
+     *
+     * @param work the call
+     * @return the future completed when the call returns
+     */
+    public static CompletableFuture<Void> runAsync(Runnable work) {
+        return supplyAsync(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Checks if tasks run on virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Computes the number of tasks allowed to use the database at once.
+     * It is the size of the connection pool; with virtual threads it is also kept
+     * below the number of carrier threads, which pinned JDBC calls hold.
+     *
+     * @param poolSize the maximum size of the connection pool
+     * @param virtualThreads true if tasks run on virtual threads
+     * @param carriers the number of carrier threads
+     * @return the concurrency limit, at least 1
+     */
+    public static int concurrencyLimit(int poolSize, boolean virtualThreads, int carriers) {
+        int limit = virtualThreads ? Math.min(poolSize, carriers - 1) : poolSize;
+        return Math.max(1, limit);
+    }
+
+    /**
+     * Creates the limiter on first use, once the connection pool is known.
+     * Called from a task, so waiting for the Hibernate bootstrap never blocks the caller.
+     * While the pool size cannot be read, e.g. after a failed bootstrap, the task gets the
+     * {@value #FALLBACK_LIMIT}-permit fallback limiter and the next task tries again.
+     */
+    private static Semaphore limiter() {
+        Semaphore current = limiter;
+        if (current == null) {
+            // A lock rather than synchronized, which would pin the virtual thread during the bootstrap
+            LIMITER_LOCK.lock();
+            try {
+                current = limiter;
+                if (current == null) {
+                    int poolSize;
+                    try {
+                        poolSize = HibernateUtil.getMaximumPoolSize();
+                    } catch (IllegalStateException | ExceptionInInitializerError e) {
+                        if (!fallbackLogged) {
+                            fallbackLogged = true;
+                            logger.warn("Connection pool size unknown, {} concurrent database tasks allowed until it is known",
+                                    FALLBACK_LIMIT, e);
+                        }
+                        return FALLBACK_LIMITER;
+                    }
+                    int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                            Runtime.getRuntime().availableProcessors());
+                    int limit = concurrencyLimit(poolSize, VIRTUAL_THREADS, carriers);
+                    logger.info("Database tasks run on {} threads, at most {} at once",
+                            VIRTUAL_THREADS ? "virtual" : "platform", limit);
+                    if (EXECUTOR instanceof ThreadPoolExecutor pool) {
+                        resize(pool, limit);
+                    }
+                    current = new Semaphore(limit, true);
+                    limiter = current;
+                }
+            } finally {
+                LIMITER_LOCK.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sets the number of threads of the platform thread pool, growing the maximum before
+     * the core size, or shrinking the core size before the maximum, as the pool requires.
+     */
+    private static void resize(ThreadPoolExecutor pool, int threads) {
+        if (threads > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(threads);
+            pool.setCorePoolSize(threads);
+        } else {
+            pool.setCorePoolSize(threads);
+            pool.setMaximumPoolSize(threads);
+        }
+    }
+}
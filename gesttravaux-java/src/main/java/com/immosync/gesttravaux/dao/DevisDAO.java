@@ -1,11 +1,11 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
 import com.immosync.gesttravaux.models.Devis;
-import org.hibernate.Session;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Devis entity.
@@ -23,6 +23,26 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
         super(Devis.class);
     }
 
+    /**
+     * Pages are ordered by creation date, newest first, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.unsorted().then("dateCreation", false);
+    }
+
+    /**
+     * Lists fetch the associations shown wherever devis are listed.
+     *
+     * @return the list graph
+     */
+    @Override
+    protected String defaultGraph() {
+        return Devis.GRAPH_LIST;
+    }
+
     /**
      * Finds devis by chantier.
      *
@@ -30,12 +50,12 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
      * @return list of devis for the specified chantier
      */
     public List<Devis> findByChantier(Integer chantierId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Devis> query = session.createQuery(
-                    "FROM Devis d WHERE d.chantier.idChantier = :chantierId", Devis.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Devis> query = createListQuery(session,
+                    "FROM Devis d WHERE d.chantier.idChantier = :chantierId");
             query.setParameter("chantierId", chantierId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -45,12 +65,12 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
      * @return list of devis from the specified entrepreneur
      */
     public List<Devis> findByEntrepreneur(Integer entrepreneurId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Devis> query = session.createQuery(
-                    "FROM Devis d WHERE d.entrepreneur.idEntrepreneur = :entrepreneurId", Devis.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Devis> query = createListQuery(session,
+                    "FROM Devis d WHERE d.entrepreneur.idEntrepreneur = :entrepreneurId");
             query.setParameter("entrepreneurId", entrepreneurId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -60,12 +80,12 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
      * @return list of devis for the specified prestation
      */
     public List<Devis> findByPrestation(Integer prestationId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Devis> query = session.createQuery(
-                    "FROM Devis d WHERE d.prestation.idPrestation = :prestationId", Devis.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Devis> query = createListQuery(session,
+                    "FROM Devis d WHERE d.prestation.idPrestation = :prestationId");
             query.setParameter("prestationId", prestationId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -75,12 +95,12 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
      * @return list of devis with the specified status
      */
     public List<Devis> findByStatut(String statut) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Devis> query = session.createQuery(
-                    "FROM Devis d WHERE d.statut = :statut", Devis.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Devis> query = createListQuery(session,
+                    "FROM Devis d WHERE d.statut = :statut");
             query.setParameter("statut", statut);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -91,13 +111,13 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
      * @return list of devis within the price range
      */
     public List<Devis> findByPriceRange(Integer minPrix, Integer maxPrix) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Devis> query = session.createQuery(
-                    "FROM Devis d WHERE d.prix BETWEEN :minPrix AND :maxPrix", Devis.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Devis> query = createListQuery(session,
+                    "FROM Devis d WHERE d.prix BETWEEN :minPrix AND :maxPrix");
             query.setParameter("minPrix", minPrix);
             query.setParameter("maxPrix", maxPrix);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -106,10 +126,67 @@ public class DevisDAO extends GenericDAO<Devis, Integer> {
      * @return list of devis ordered by creation date
      */
     public List<Devis> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Devis> query = session.createQuery(
-                    "FROM Devis d ORDER BY d.dateCreation DESC", Devis.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Devis> query = createListQuery(session,
+                    "FROM Devis d ORDER BY d.dateCreation DESC");
             return query.getResultList();
-        }
+        });
+    }
+
+    /**
+     * Sets the status of several devis with set-based UPDATE statements.
+     *
+     * @param ids the devis IDs
+     * @param statut the new status
+     * @return the number of devis updated
+     */
+    public int updateStatut(Collection<Integer> ids, String statut) {
+        return executeBulk("UPDATE VERSIONED Devis d SET d.statut = :statut WHERE d.idDevis IN :ids",
+                ids, Map.of("statut", statut));
+    }
+
+    /**
+     * Moves every devis of a chantier from one status to another with a single UPDATE statement.
+     *
+     * @param chantierId the chantier ID
+     * @param statutActuel the current status of the devis to change
+     * @param statut the new status
+     * @return the number of devis updated
+     */
+    public int updateStatutByChantier(Integer chantierId, String statutActuel, String statut) {
+        return executeBulk("UPDATE VERSIONED Devis d SET d.statut = :statut "
+                        + "WHERE d.chantier.idChantier = :chantierId AND d.statut = :statutActuel",
+                Map.of("statut", statut, "chantierId", chantierId, "statutActuel", statutActuel));
+    }
+
+    /**
+     * Deletes the devis of the given chantiers with set-based DELETE statements.
+     *
+     * @param chantierIds the chantier IDs
+     * @return the number of devis deleted
+     */
+    public int deleteByChantiers(Collection<Integer> chantierIds) {
+        return executeBulk("DELETE FROM Devis d WHERE d.chantier.idChantier IN :ids", chantierIds, Map.of());
+    }
+
+    /**
+     * Deletes the devis of the given prestations with set-based DELETE statements.
+     *
+     * @param prestationIds the prestation IDs
+     * @return the number of devis deleted
+     */
+    public int deleteByPrestations(Collection<Integer> prestationIds) {
+        return executeBulk("DELETE FROM Devis d WHERE d.prestation.idPrestation IN :ids", prestationIds, Map.of());
+    }
+
+    /**
+     * Deletes the devis of the given entrepreneurs with set-based DELETE statements.
+     *
+     * @param entrepreneurIds the entrepreneur IDs
+     * @return the number of devis deleted
+     */
+    public int deleteByEntrepreneurs(Collection<Integer> entrepreneurIds) {
+        return executeBulk("DELETE FROM Devis d WHERE d.entrepreneur.idEntrepreneur IN :ids",
+                entrepreneurIds, Map.of());
     }
 }
@@ -1,11 +1,14 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dto.EntrepreneurRow;
 import com.immosync.gesttravaux.models.Entrepreneur;
-import org.hibernate.Session;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchType;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Entrepreneur entity.
@@ -16,11 +19,53 @@ import java.util.List;
  */
 public class EntrepreneurDAO extends GenericDAO<Entrepreneur, Integer> {
 
+    /**
+     * Projection of the entrepreneur table, without the WHERE clause.
+     */
+    private static final String ROWS = "SELECT new " + EntrepreneurRow.class.getName()
+            + "(e.idEntrepreneur, e.nomEntrepreneur, e.prenomEntrepreneur, e.emailEntrepreneur, "
+            + "e.telEntrepreneur, e.villeDeploiement) FROM Entrepreneur e";
+
+    /**
+     * Projection of the table rows of a list of IDs.
+     */
+    private static final String ROWS_BY_ID = ROWS + " WHERE e.idEntrepreneur IN :ids";
+
+    /**
+     * LIKE criteria of the entity and row searches, used until the search index is built.
+     */
+    private static final String SEARCH = "LOWER(e.nomEntrepreneur) LIKE LOWER(:term) "
+            + "OR LOWER(e.prenomEntrepreneur) LIKE LOWER(:term)";
+
+    private final DevisDAO devisDAO;
+
     /**
      * Constructor.
      */
     public EntrepreneurDAO() {
         super(Entrepreneur.class);
+        this.devisDAO = new DevisDAO();
+    }
+
+    /**
+     * Pages are ordered by name.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("nomEntrepreneur", "prenomEntrepreneur");
+    }
+
+    /**
+     * Finders return entrepreneurs with their categories, fetched in the same statement,
+     * so a list of N entrepreneurs costs one query instead of N + 1.
+     *
+     * @return the detail graph
+     */
+    @Override
+    protected String defaultGraph() {
+        return Entrepreneur.GRAPH_DETAIL;
     }
 
     /**
@@ -30,12 +75,12 @@ public class EntrepreneurDAO extends GenericDAO<Entrepreneur, Integer> {
      * @return list of entrepreneurs in the specified city
      */
     public List<Entrepreneur> findByVille(String ville) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Entrepreneur> query = session.createQuery(
-                    "FROM Entrepreneur e WHERE e.villeDeploiement = :ville", Entrepreneur.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Entrepreneur> query = createListQuery(session,
+                    "FROM Entrepreneur e WHERE e.villeDeploiement = :ville");
             query.setParameter("ville", ville);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -45,43 +90,96 @@ public class EntrepreneurDAO extends GenericDAO<Entrepreneur, Integer> {
      * @return entrepreneur with the specified email or null
      */
     public Entrepreneur findByEmail(String email) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Entrepreneur> query = session.createQuery(
                     "FROM Entrepreneur e WHERE e.emailEntrepreneur = :email", Entrepreneur.class);
             query.setParameter("email", email);
             return query.uniqueResult();
-        }
+        });
     }
 
     /**
      * Searches entrepreneurs by name.
+     * Hits are ranked by relevance through the {@link SearchIndex}, which folds accents,
+     * stems French words and tolerates typos.
      *
      * @param searchTerm the search term
      * @return list of matching entrepreneurs
      */
     public List<Entrepreneur> searchByName(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Entrepreneur> query = session.createQuery(
-                    "FROM Entrepreneur e WHERE LOWER(e.nomEntrepreneur) LIKE LOWER(:term) " +
-                    "OR LOWER(e.prenomEntrepreneur) LIKE LOWER(:term)", Entrepreneur.class);
-            query.setParameter("term", "%" + searchTerm + "%");
-            return query.getResultList();
-        }
+        return SearchIndex.getInstance().findIds(SearchType.ENTREPRENEUR, searchTerm)
+                .map(this::findAllById)
+                .orElseGet(() -> TransactionRunner.withSession(session -> {
+                    Query<Entrepreneur> query = createListQuery(session,
+                            "FROM Entrepreneur e WHERE " + SEARCH);
+                    query.setParameter("term", "%" + searchTerm + "%");
+                    return query.getResultList();
+                }));
+    }
+
+    /**
+     * Gets one page of the entrepreneur table.
+     *
+     * @param sort the sort order, or an empty sort for the default order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<EntrepreneurRow> findRowPage(Sort sort, Page.Cursor after, int limit) {
+        return findRowPage(sort, after, limit, ROWS_BY_ID,
+                EntrepreneurRow.class, EntrepreneurRow::idEntrepreneur);
+    }
+
+    /**
+     * Gets the entrepreneur table rows of some contractors, e.g. to refresh rows changed elsewhere.
+     *
+     * @param ids the contractor IDs
+     * @return the rows of the contractors that still exist, in the order of the IDs
+     */
+    public List<EntrepreneurRow> findRowsById(List<Integer> ids) {
+        return findRowsById(ids, ROWS_BY_ID, EntrepreneurRow.class, EntrepreneurRow::idEntrepreneur);
+    }
+
+    /**
+     * Searches entrepreneurs by name, returning table rows ranked by relevance.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<EntrepreneurRow> searchRowsByName(String searchTerm) {
+        return SearchIndex.getInstance().findIds(SearchType.ENTREPRENEUR, searchTerm)
+                .map(ids -> findRowsById(ids, ROWS_BY_ID, EntrepreneurRow.class, EntrepreneurRow::idEntrepreneur))
+                .orElseGet(() -> findRows(ROWS + " WHERE " + SEARCH, EntrepreneurRow.class,
+                        Map.of("term", "%" + searchTerm + "%")));
     }
 
     /**
      * Finds entrepreneurs by category.
+     * The category is matched in a subquery rather than a join, so the fetched
+     * categories of each entrepreneur are complete.
      *
      * @param categorieId the category ID
      * @return list of entrepreneurs with the specified category
      */
     public List<Entrepreneur> findByCategorie(Integer categorieId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Entrepreneur> query = session.createQuery(
-                    "SELECT DISTINCT e FROM Entrepreneur e JOIN e.categories c WHERE c.idCategorie = :categorieId",
-                    Entrepreneur.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Entrepreneur> query = createListQuery(session,
+                    "FROM Entrepreneur e WHERE EXISTS "
+                    + "(SELECT c FROM e.categories c WHERE c.idCategorie = :categorieId)");
             query.setParameter("categorieId", categorieId);
             return query.getResultList();
-        }
+        });
+    }
+
+    /**
+     * Deletes the devis and category links of the entrepreneurs before the entrepreneurs.
+     *
+     * @param ids the entrepreneur IDs
+     */
+    @Override
+    protected void deleteDependents(Collection<Integer> ids) {
+        devisDAO.deleteByEntrepreneurs(ids);
+        executeNativeBulk("DELETE FROM ENTREPRENEURS_has_CATEGORIES WHERE ENTREPRENEURS_idEntrepreneur IN (:ids)",
+                "ENTREPRENEURS_has_CATEGORIES", ids);
     }
 }
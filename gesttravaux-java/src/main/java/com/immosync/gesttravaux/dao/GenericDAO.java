@@ -1,18 +1,47 @@
 package com.immosync.gesttravaux.dao;
 
 import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.events.EntityChange;
+import com.immosync.gesttravaux.events.EntityEventBus;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchType;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
 import org.hibernate.Session;
-import org.hibernate.Transaction;
+import org.hibernate.StaleStateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.MutationQuery;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Generic DAO implementation providing basic CRUD operations.
  * All specific DAOs should extend this class.
+ * Finders read through {@link TransactionRunner#withSession(java.util.function.Function)}:
+ * outside a transaction the session is read-only, so the entities returned are
+ * never snapshotted, dirty-checked or flushed. The {@code *Async} variants run on the
+ * {@link DatabaseExecutor}; any other finder can be run there the same way.
  *
  * @param <T> the entity type
  * @param <ID> the ID type
@@ -22,7 +51,18 @@ import java.util.Optional;
 public abstract class GenericDAO<T, ID> {
 
     private static final Logger logger = LoggerFactory.getLogger(GenericDAO.class);
+
+    /**
+     * Batch size used by {@link #saveAll(Collection)} when hibernate.jdbc.batch_size is not set.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * Maximum number of IDs bound to one IN list by {@link #executeBulk(String, Collection, Map)} and the other chunked statements.
+     */
+    protected static final int BULK_ID_CHUNK = 1000;
     private final Class<T> entityClass;
+    private volatile String idProperty;
 
     /**
      * Constructor with entity class.
@@ -35,45 +75,114 @@ public abstract class GenericDAO<T, ID> {
 
     /**
      * Saves a new entity to the database.
+     * Joins the current {@link TransactionRunner} transaction if one is running.
      *
      * @param entity the entity to save
      * @return the saved entity with generated ID
      */
     public T save(T entity) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(entity);
-            transaction.commit();
+        try {
+            TransactionRunner.runInTransaction(session -> {
+                session.persist(entity);
+                TransactionRunner.afterCommit(this::invalidateQueryCache);
+            });
             logger.info("Entity saved: {}", entity);
             return entity;
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
             logger.error("Error saving entity", e);
             throw new RuntimeException("Error saving entity", e);
         }
     }
 
+    /**
+     * Saves a collection of new entities in a single transaction.
+     * Inserts are sent in JDBC batches of hibernate.jdbc.batch_size statements,
+     * and the session is flushed and cleared after each batch to keep memory flat.
+     *
+     * @param entities the entities to save
+     * @return the saved entities with generated IDs
+     */
+    public List<T> saveAll(Collection<T> entities) {
+        int configured = HibernateUtil.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcBatchSize();
+        return saveAll(entities, configured > 0 ? configured : DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Saves a collection of new entities in a single transaction, with the given batch size.
+     * When joining a running transaction the session is flushed but not cleared,
+     * so the caller's managed entities stay attached.
+     *
+     * @param entities the entities to save
+     * @param batchSize number of inserts per JDBC batch and per flush
+     * @return the saved entities with generated IDs
+     */
+    public List<T> saveAll(Collection<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("La taille de lot doit être positive");
+        }
+        List<T> saved = new ArrayList<>(entities.size());
+        if (entities.isEmpty()) {
+            return saved;
+        }
+        boolean joined = TransactionRunner.isActive();
+        try {
+            long start = System.nanoTime();
+            TransactionRunner.runInTransaction(session -> {
+                Integer previousBatchSize = session.getJdbcBatchSize();
+                session.setJdbcBatchSize(batchSize);
+                try {
+                    for (T entity : entities) {
+                        session.persist(entity);
+                        saved.add(entity);
+                        if (saved.size() % batchSize == 0) {
+                            session.flush();
+                            if (!joined) {
+                                session.clear();
+                            }
+                        }
+                    }
+                    if (joined) {
+                        session.flush();
+                    }
+                } finally {
+                    session.setJdbcBatchSize(previousBatchSize);
+                }
+                TransactionRunner.afterCommit(this::invalidateQueryCache);
+            });
+            logger.info("{} {} entities saved in {} ms", saved.size(), entityClass.getSimpleName(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return saved;
+        } catch (Exception e) {
+            logger.error("Error saving entities", e);
+            throw new RuntimeException("Error saving entities", e);
+        }
+    }
+
     /**
      * Updates an existing entity in the database.
+     * Inside a {@link TransactionRunner} transaction, prefer modifying the entity
+     * returned by {@link #findManaged(Object)}, which needs no merge.
+     * A versioned entity is only written if nobody changed it since it was loaded.
      *
      * @param entity the entity to update
-     * @return the updated entity
+     * @return the updated entity, with its new version
+     * @throws ConflictException if the entity was updated or deleted in the meantime
      */
     public T update(T entity) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            T merged = session.merge(entity);
-            transaction.commit();
+        try {
+            T merged = TransactionRunner.inTransaction(session -> {
+                T result = session.merge(entity);
+                TransactionRunner.afterCommit(this::invalidateQueryCache);
+                return result;
+            });
             logger.info("Entity updated: {}", merged);
             return merged;
+        } catch (OptimisticLockException | StaleStateException e) {
+            Object id = HibernateUtil.getSessionFactory().getPersistenceUnitUtil().getIdentifier(entity);
+            logger.warn("Conflict updating {} #{}", entityClass.getSimpleName(), id);
+            throw new ConflictException(entityClass, id, e);
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
             logger.error("Error updating entity", e);
             throw new RuntimeException("Error updating entity", e);
         }
@@ -81,72 +190,443 @@ public abstract class GenericDAO<T, ID> {
 
     /**
      * Deletes an entity from the database.
+     * Joins the current {@link TransactionRunner} transaction if one is running.
      *
      * @param entity the entity to delete
      */
     public void delete(T entity) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.remove(entity);
-            transaction.commit();
+        try {
+            TransactionRunner.runInTransaction(session -> {
+                session.remove(entity);
+                TransactionRunner.afterCommit(this::invalidateQueryCache);
+            });
             logger.info("Entity deleted: {}", entity);
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
             logger.error("Error deleting entity", e);
             throw new RuntimeException("Error deleting entity", e);
         }
     }
 
     /**
-     * Finds an entity by its ID.
+     * Finds an entity by its ID, with the associations of {@link #defaultGraph()}.
+     * Inside a {@link TransactionRunner} transaction the entity is read through its
+     * session and stays managed.
      *
      * @param id the entity ID
      * @return Optional containing the entity if found
      */
     public Optional<T> findById(ID id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            T entity = session.get(entityClass, id);
-            return Optional.ofNullable(entity);
+        return findById(id, defaultGraph());
+    }
+
+    /**
+     * Finds an entity by its ID in the background, like {@link #findById(Object)}.
+     *
+     * @param id the entity ID
+     * @return the future entity, if found
+     */
+    public CompletableFuture<Optional<T>> findByIdAsync(ID id) {
+        return DatabaseExecutor.supplyAsync(() -> findById(id));
+    }
+
+    /**
+     * Finds an entity by its ID, fetching the associations of a named entity graph.
+     *
+     * @param id the entity ID
+     * @param graphName the entity graph, or null to load only the entity's own columns
+     * @return Optional containing the entity if found
+     */
+    public Optional<T> findById(ID id, String graphName) {
+        try {
+            return TransactionRunner.withSession(session -> Optional.ofNullable(graphName == null
+                    ? session.get(entityClass, id)
+                    : session.find(entityClass, id, Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH,
+                            session.getEntityGraph(graphName)))));
         } catch (Exception e) {
             logger.error("Error finding entity by ID: {}", id, e);
             throw new RuntimeException("Error finding entity by ID", e);
         }
     }
 
+    /**
+     * Loads an entity in the current transaction so it can be modified in place.
+     * Changes are written when the transaction commits, without a merge, and the
+     * cached queries built from this entity type are invalidated afterwards.
+     *
+     * @param id the entity ID
+     * @return Optional containing the managed entity if found
+     * @throws IllegalStateException if no {@link TransactionRunner} transaction is running
+     */
+    public Optional<T> findManaged(ID id) {
+        if (!TransactionRunner.isActive()) {
+            throw new IllegalStateException("findManaged must be called inside TransactionRunner.inTransaction");
+        }
+        Optional<T> entity = findById(id);
+        entity.ifPresent(e -> TransactionRunner.afterCommit(this::invalidateQueryCache));
+        return entity;
+    }
+
+    /**
+     * Changes some attributes of an entity with a single UPDATE statement.
+     * Only the given columns are written, nothing is loaded beforehand, and no
+     * association is cascaded. Entities already loaded in the current session are
+     * not refreshed. The version of a versioned entity is incremented, so forms holding
+     * the previous state get a {@link ConflictException} when saved. The entity's search
+     * document is rebuilt after commit, and the change is published on the
+     * {@link EntityEventBus} with the attributes written.
+     *
+     * @param id the entity ID
+     * @param changes the new value of each attribute, by attribute name
+     * @return the number of rows updated, 0 if no entity has this ID
+     * @throws IllegalArgumentException if an attribute is unknown, the ID, the version or a collection
+     */
+    public int patch(ID id, Map<String, ?> changes) {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("Aucune modification à appliquer");
+        }
+        EntityType<T> type = HibernateUtil.getSessionFactory().getMetamodel().entity(entityClass);
+        String idName = getIdProperty();
+        StringBuilder hql = new StringBuilder(type.hasVersionAttribute() ? "UPDATE VERSIONED " : "UPDATE ")
+                .append(entityClass.getSimpleName()).append(" e SET ");
+        List<Object> values = new ArrayList<>(changes.size());
+        for (Map.Entry<String, ?> change : changes.entrySet()) {
+            String attribute = change.getKey();
+            Attribute<? super T, ?> mapped = type.getAttribute(attribute);
+            if (attribute.equals(idName) || mapped.isCollection()
+                    || mapped instanceof SingularAttribute<?, ?> singular && singular.isVersion()) {
+                throw new IllegalArgumentException("Attribut non modifiable : " + attribute);
+            }
+            hql.append(values.isEmpty() ? "" : ", ")
+                    .append("e.").append(attribute).append(" = :v").append(values.size());
+            values.add(change.getValue());
+        }
+        hql.append(" WHERE e.").append(idName).append(" = :id");
+
+        try {
+            int updated = TransactionRunner.inTransaction(session -> {
+                MutationQuery query = session.createMutationQuery(hql.toString());
+                for (int i = 0; i < values.size(); i++) {
+                    query.setParameter("v" + i, values.get(i));
+                }
+                int rows = query.setParameter("id", id).executeUpdate();
+                if (rows > 0) {
+                    TransactionRunner.afterCommit(this::invalidateQueryCache);
+                    TransactionRunner.afterCommit(() -> reindex(List.of(id)));
+                    publishAfterCommit(List.of(EntityChange.updated(entityClass, id, changes.keySet())));
+                }
+                return rows;
+            });
+            logger.info("{} {} patched: {}", entityClass.getSimpleName(), id, changes.keySet());
+            return updated;
+        } catch (Exception e) {
+            logger.error("Error patching entity: {}", id, e);
+            throw new RuntimeException("Error patching entity", e);
+        }
+    }
+
     /**
      * Retrieves all entities of this type.
      *
      * @return list of all entities
      */
     public List<T> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<T> query = session.createQuery("FROM " + entityClass.getSimpleName(), entityClass);
-            return query.getResultList();
+        try {
+            return TransactionRunner.withSession(session -> {
+                Query<T> query = createListQuery(session, "FROM " + entityClass.getSimpleName());
+                return query.getResultList();
+            });
         } catch (Exception e) {
             logger.error("Error finding all entities", e);
             throw new RuntimeException("Error finding all entities", e);
         }
     }
 
+    /**
+     * Retrieves all entities of this type in the background, like {@link #findAll()}.
+     *
+     * @return the future list of all entities
+     */
+    public CompletableFuture<List<T>> findAllAsync() {
+        return DatabaseExecutor.supplyAsync(this::findAll);
+    }
+
+    /**
+     * Loads entities by ID with the associations of {@link #defaultGraph()}, in the
+     * order of the IDs. IDs with no entity are skipped.
+     *
+     * @param ids the entity IDs
+     * @return the entities
+     */
+    public List<T> findAllById(List<ID> ids) {
+        try {
+            return TransactionRunner.withSession(session -> loadInOrder(session, new ArrayList<>(ids)));
+        } catch (Exception e) {
+            logger.error("Error finding {} by IDs", entityClass.getSimpleName(), e);
+            throw new RuntimeException("Error finding entities by IDs", e);
+        }
+    }
+
+    /**
+     * Gets one page of entities in the default order of this DAO.
+     *
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of entities
+     * @return the page
+     */
+    public Page<T> findPage(Page.Cursor after, int limit) {
+        return findPage(Sort.unsorted(), after, limit);
+    }
+
+    /**
+     * Gets one page of entities using keyset pagination.
+     * The ID is appended to the sort as a tiebreaker, and the page starts strictly after
+     * the cursor, so the cost of a page does not depend on how deep it is.
+     * The page's IDs are found first; the entities are then loaded by ID with the
+     * associations of {@link #defaultGraph()}.
+     *
+     * @param sort the sort order, or an empty sort for the default order of this DAO
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of entities
+     * @return the page
+     * @throws IllegalArgumentException if the limit is not positive or the cursor
+     *                                  was produced by another sort
+     */
+    public Page<T> findPage(Sort sort, Page.Cursor after, int limit) {
+        return seekPage(sort, after, limit, this::loadInOrder);
+    }
+
+    /**
+     * Gets one page of read-only rows using keyset pagination.
+     * The page's IDs are found as in {@link #findPage(Sort, Page.Cursor, int)}; the rows
+     * are then read by a projection query, so no entity is loaded, managed or dirty-checked.
+     *
+     * @param sort the sort order, or an empty sort for the default order of this DAO
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @param rowQuery the projection query, restricted to {@code :ids}
+     * @param rowType the row type
+     * @param rowId gets the entity ID of a row
+     * @param <R> the row type
+     * @return the page
+     * @throws IllegalArgumentException if the limit is not positive or the cursor
+     *                                  was produced by another sort
+     */
+    protected <R> Page<R> findRowPage(Sort sort, Page.Cursor after, int limit,
+                                      String rowQuery, Class<R> rowType, Function<R, ?> rowId) {
+        return seekPage(sort, after, limit, (session, ids) -> loadRows(session, ids, rowQuery, rowType, rowId));
+    }
+
+    /**
+     * Reads the rows of a list of entity IDs, in the order of the IDs.
+     * Long lists are read in chunks of {@link #BULK_ID_CHUNK} IDs.
+     *
+     * @param ids the entity IDs
+     * @param rowQuery the projection query, restricted to {@code :ids}
+     * @param rowType the row type
+     * @param rowId gets the entity ID of a row
+     * @param <R> the row type
+     * @return the rows
+     * @throws CancellationException if the queries were cancelled by a {@link QueryCanceller}
+     */
+    protected <R> List<R> findRowsById(List<?> ids, String rowQuery, Class<R> rowType, Function<R, ?> rowId) {
+        try {
+            return TransactionRunner.withSession(session -> {
+                List<R> rows = new ArrayList<>(ids.size());
+                for (List<?> chunk : chunks(ids)) {
+                    rows.addAll(loadRows(session, new ArrayList<>(chunk), rowQuery, rowType, rowId));
+                }
+                return rows;
+            });
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            QueryCanceller.rethrowIfCancelled(e);
+            logger.error("Error finding {} rows by IDs", rowType.getSimpleName(), e);
+            throw new RuntimeException("Error finding rows by IDs", e);
+        }
+    }
+
+    private static <R> List<R> loadRows(Session session, List<Object> ids, String rowQuery,
+                                        Class<R> rowType, Function<R, ?> rowId) {
+        return inOrder(ids, ids.isEmpty() ? List.of() : session.createQuery(rowQuery, rowType)
+                        .setParameter("ids", ids)
+                        .getResultList(),
+                rowId);
+    }
+
+    /**
+     * Runs a projection query returning read-only rows.
+     *
+     * @param hql the HQL query, with a {@code SELECT new} constructor expression
+     * @param rowType the row type
+     * @param parameters the named query parameters
+     * @param <R> the row type
+     * @return the rows
+     * @throws CancellationException if the queries were cancelled by a {@link QueryCanceller}
+     */
+    protected <R> List<R> findRows(String hql, Class<R> rowType, Map<String, ?> parameters) {
+        try {
+            return TransactionRunner.withSession(session -> {
+                Query<R> query = session.createQuery(hql, rowType);
+                parameters.forEach(query::setParameter);
+                return query.getResultList();
+            });
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            QueryCanceller.rethrowIfCancelled(e);
+            logger.error("Error finding {} rows", rowType.getSimpleName(), e);
+            throw new RuntimeException("Error finding rows", e);
+        }
+    }
+
+    /**
+     * Finds the IDs of one page with a keyset query, then loads the page's items by ID.
+     */
+    private <R> Page<R> seekPage(Sort sort, Page.Cursor after, int limit,
+                                 BiFunction<Session, List<Object>, List<R>> loader) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+        Sort base = sort.getOrders().isEmpty() ? defaultSort() : sort;
+        Sort keys = base.then(getIdProperty(), true);
+        if (after != null && !after.sort().equals(keys)) {
+            throw new IllegalArgumentException("Le curseur ne correspond pas au tri demandé");
+        }
+        KeysetQuery keyset = new KeysetQuery(entityClass.getSimpleName(), keys,
+                after != null ? after.values() : null);
+        try {
+            return TransactionRunner.readOnly(session -> {
+                Query<Object[]> query = session.createQuery(keyset.getHql(), Object[].class);
+                keyset.getParameters().forEach(query::setParameter);
+                query.setMaxResults(limit + 1);
+                List<Object[]> rows = query.getResultList();
+
+                int size = Math.min(rows.size(), limit);
+                List<Object> ids = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    ids.add(rows.get(i)[keys.getOrders().size() - 1]);
+                }
+                Page.Cursor next = null;
+                if (rows.size() > limit) {
+                    next = new Page.Cursor(keys, Arrays.asList(rows.get(size - 1)));
+                }
+                return new Page<>(loader.apply(session, ids), next);
+            });
+        } catch (Exception e) {
+            logger.error("Error finding page of {} sorted by {}", entityClass.getSimpleName(), sort, e);
+            throw new RuntimeException("Error finding page", e);
+        }
+    }
+
+    /**
+     * Loads entities with the default graph and returns them in the order of their IDs.
+     */
+    private List<T> loadInOrder(Session session, List<Object> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query<T> query = createListQuery(session,
+                "FROM " + entityClass.getSimpleName() + " e WHERE e." + getIdProperty() + " IN :ids");
+        return inOrder(ids, query.setParameter("ids", ids).getResultList(), session::getIdentifier);
+    }
+
+    /**
+     * Sorts loaded items in the order of their IDs, skipping IDs deleted in between.
+     */
+    private static <X> List<X> inOrder(List<Object> ids, List<X> loaded, Function<? super X, ?> idOf) {
+        Map<Object, X> byId = new HashMap<>();
+        for (X item : loaded) {
+            byId.put(idOf.apply(item), item);
+        }
+        List<X> items = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            X item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Gets the order of pages requested without a sort.
+     * DAOs override it to match their ordered queries.
+     *
+     * @return the default sort
+     */
+    protected Sort defaultSort() {
+        return Sort.unsorted();
+    }
+
+    /**
+     * Gets the entity graph fetched by the list finders and {@link #findById(Object)}.
+     * DAOs override it with the graph of their table screen; by default only the
+     * entity's own columns are loaded and every association stays lazy.
+     *
+     * @return the entity graph name, or null
+     */
+    protected String defaultGraph() {
+        return null;
+    }
+
+    /**
+     * Creates a query returning this DAO's entities with the associations of
+     * {@link #defaultGraph()} fetched in the same statement.
+     *
+     * @param session the session
+     * @param hql the HQL query
+     * @return the query
+     */
+    protected Query<T> createListQuery(Session session, String hql) {
+        Query<T> query = session.createQuery(hql, entityClass);
+        String graphName = defaultGraph();
+        if (graphName != null) {
+            query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(graphName));
+        }
+        return query;
+    }
+
+    /**
+     * Gets the name of the ID property, read from the Hibernate metamodel.
+     *
+     * @return the ID property name
+     */
+    protected String getIdProperty() {
+        String property = idProperty;
+        if (property == null) {
+            EntityType<T> type = HibernateUtil.getSessionFactory().getMetamodel().entity(entityClass);
+            property = type.getId(type.getIdType().getJavaType()).getName();
+            idProperty = property;
+        }
+        return property;
+    }
+
     /**
      * Counts the total number of entities.
      *
      * @return the count
      */
     public long count() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Long> query = session.createQuery(
-                    "SELECT COUNT(e) FROM " + entityClass.getSimpleName() + " e", Long.class);
-            return query.getSingleResult();
+        try {
+            return TransactionRunner.withSession(session -> session.createQuery(
+                    "SELECT COUNT(e) FROM " + entityClass.getSimpleName() + " e", Long.class)
+                    .getSingleResult());
         } catch (Exception e) {
             logger.error("Error counting entities", e);
             throw new RuntimeException("Error counting entities", e);
         }
     }
 
+    /**
+     * Counts the total number of entities in the background.
+     *
+     * @return the future count
+     */
+    public CompletableFuture<Long> countAsync() {
+        return DatabaseExecutor.supplyAsync(this::count);
+    }
+
     /**
      * Checks if an entity with the given ID exists.
      *
@@ -157,6 +637,283 @@ public abstract class GenericDAO<T, ID> {
         return findById(id).isPresent();
     }
 
+    /**
+     * Runs a query through the {@link QueryResultCache}.
+     * The result is invalidated by any write on this DAO's entity or on one of the
+     * other entity types it is built from. It is loaded in a read-only session of its
+     * own, since the cached list is shared by every caller.
+     * <p>
+     * Each caller gets its own list, but the entities in it are the same detached
+     * instances for everyone: they must be treated as read-only (combo box items,
+     * references to set on another entity), and never modified in place.
+     * Inside a transaction the cache is bypassed and the query runs in the transaction's
+     * session, so that it sees the uncommitted writes and uses no second connection.
+     *
+     * @param hql the HQL query
+     * @param parameters the named query parameters
+     * @param dependsOn other entity types whose changes affect the result
+     * @return the query result
+     */
+    protected List<T> findCached(String hql, Map<String, Object> parameters, Class<?>... dependsOn) {
+        Function<Session, List<T>> work = session -> {
+            Query<T> query = createListQuery(session, hql);
+            parameters.forEach(query::setParameter);
+            return query.getResultList();
+        };
+        if (TransactionRunner.isActive()) {
+            return TransactionRunner.withSession(work);
+        }
+        Set<Class<?>> dependencies = new HashSet<>(Arrays.asList(dependsOn));
+        dependencies.add(entityClass);
+        List<Object> key = new ArrayList<>();
+        new TreeMap<>(parameters).forEach((name, value) -> {
+            key.add(name);
+            key.add(value);
+        });
+        return QueryResultCache.getInstance().get(hql, key, dependencies, () -> TransactionRunner.readOnly(work));
+    }
+
+    /**
+     * Runs a query without parameters through the {@link QueryResultCache}.
+     *
+     * @param hql the HQL query
+     * @param dependsOn other entity types whose changes affect the result
+     * @return the query result
+     */
+    protected List<T> findCached(String hql, Class<?>... dependsOn) {
+        return findCached(hql, Map.of(), dependsOn);
+    }
+
+    /**
+     * Runs a set-based HQL UPDATE or DELETE on this DAO's entity.
+     * Hibernate evicts the entity's second-level cache region, and the cached query
+     * results built from it are invalidated after commit. Entities already loaded in
+     * the current session are not refreshed. The rows changed are not known, so a
+     * {@link EntityChange.Kind#BULK} change is published on the {@link EntityEventBus}
+     * when at least one row was affected.
+     * An UPDATE of a versioned entity should be written {@code UPDATE VERSIONED}, so
+     * that forms holding the previous state get a {@link ConflictException} when saved.
+     *
+     * @param hql the HQL statement
+     * @param parameters the named parameters
+     * @return the number of rows affected
+     */
+    protected int executeBulk(String hql, Map<String, ?> parameters) {
+        int rows = runBulk(hql, parameters);
+        if (rows > 0) {
+            publishAfterCommit(List.of(EntityChange.bulk(entityClass)));
+        }
+        return rows;
+    }
+
+    private int runBulk(String hql, Map<String, ?> parameters) {
+        try {
+            long start = System.nanoTime();
+            int rows = TransactionRunner.inTransaction(session -> {
+                MutationQuery query = session.createMutationQuery(hql);
+                parameters.forEach(query::setParameter);
+                int affected = query.executeUpdate();
+                TransactionRunner.afterCommit(this::invalidateQueryCache);
+                return affected;
+            });
+            logger.info("Bulk statement on {} affected {} rows in {} ms", entityClass.getSimpleName(), rows,
+                    (System.nanoTime() - start) / 1_000_000);
+            return rows;
+        } catch (Exception e) {
+            logger.error("Error executing bulk statement: {}", hql, e);
+            throw new RuntimeException("Error executing bulk statement", e);
+        }
+    }
+
+    /**
+     * Runs a set-based HQL statement restricted to a list of IDs bound to {@code :ids}.
+     * Long lists are split into chunks of {@link #BULK_ID_CHUNK} IDs, all run in one transaction.
+     *
+     * @param hql the HQL statement, with an {@code IN :ids} restriction
+     * @param ids the IDs
+     * @param parameters the other named parameters
+     * @return the number of rows affected
+     */
+    protected int executeBulk(String hql, Collection<?> ids, Map<String, ?> parameters) {
+        int rows = runBulk(hql, ids, parameters);
+        if (rows > 0) {
+            publishAfterCommit(List.of(EntityChange.bulk(entityClass)));
+        }
+        return rows;
+    }
+
+    private int runBulk(String hql, Collection<?> ids, Map<String, ?> parameters) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return TransactionRunner.inTransaction(session -> {
+            int rows = 0;
+            for (List<?> chunk : chunks(ids)) {
+                Map<String, Object> chunkParameters = new HashMap<>(parameters);
+                chunkParameters.put("ids", chunk);
+                rows += runBulk(hql, chunkParameters);
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Runs a set-based SQL statement restricted to a list of IDs bound to {@code :ids},
+     * for tables that have no entity such as association tables.
+     * Only the second-level cache regions of the given table are evicted.
+     *
+     * @param sql the SQL statement, with an {@code IN (:ids)} restriction
+     * @param table the table written by the statement
+     * @param ids the IDs
+     * @return the number of rows affected
+     */
+    protected int executeNativeBulk(String sql, String table, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return TransactionRunner.inTransaction(session -> {
+                int rows = 0;
+                for (List<?> chunk : chunks(ids)) {
+                    rows += session.createNativeQuery(sql, Object.class)
+                            .addSynchronizedQuerySpace(table)
+                            .setParameter("ids", chunk)
+                            .executeUpdate();
+                }
+                TransactionRunner.afterCommit(this::invalidateQueryCache);
+                return rows;
+            });
+        } catch (Exception e) {
+            logger.error("Error executing bulk statement: {}", sql, e);
+            throw new RuntimeException("Error executing bulk statement", e);
+        }
+    }
+
+    /**
+     * Selects the IDs of rows related to a list of IDs bound to {@code :ids}, in chunks.
+     * Used to find dependents to delete without loading them as entities.
+     *
+     * @param hql the HQL query selecting a single ID column, with an {@code IN :ids} restriction
+     * @param ids the IDs
+     * @return the selected IDs
+     */
+    protected List<Integer> selectIds(String hql, Collection<?> ids) {
+        List<Integer> selected = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return selected;
+        }
+        TransactionRunner.withSession(session -> {
+            for (List<?> chunk : chunks(ids)) {
+                selected.addAll(session.createSelectionQuery(hql, Integer.class)
+                        .setParameter("ids", chunk)
+                        .getResultList());
+            }
+            return selected;
+        });
+        return selected;
+    }
+
+    /**
+     * Deletes an entity and everything that depends on it with set-based statements,
+     * in dependency order and without loading any entity.
+     *
+     * @param id the entity ID
+     * @return true if the entity existed and was deleted
+     */
+    public boolean deleteById(ID id) {
+        return deleteAllById(List.of(id)) > 0;
+    }
+
+    /**
+     * Deletes entities and everything that depends on them with set-based statements,
+     * in one transaction. The IDs that match no row are left out first, so that only
+     * the entities actually deleted have their search documents removed after commit
+     * and their deletion published on the {@link EntityEventBus}.
+     *
+     * @param ids the entity IDs
+     * @return the number of entities deleted
+     */
+    public int deleteAllById(Collection<ID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String entityName = entityClass.getSimpleName();
+        String idName = getIdProperty();
+        return TransactionRunner.inTransaction(session -> {
+            Set<Object> found = new HashSet<>();
+            for (List<ID> chunk : chunks(ids)) {
+                found.addAll(session.createSelectionQuery("SELECT e." + idName + " FROM " + entityName
+                                + " e WHERE e." + idName + " IN :ids", Object.class)
+                        .setParameter("ids", chunk)
+                        .getResultList());
+            }
+            List<ID> existing = new LinkedHashSet<>(ids).stream().filter(found::contains).toList();
+            if (existing.isEmpty()) {
+                return 0;
+            }
+            deleteDependents(existing);
+            int deleted = runBulk("DELETE FROM " + entityName + " e WHERE e." + idName + " IN :ids", existing, Map.of());
+            TransactionRunner.afterCommit(() -> SearchIndex.getInstance().remove(entityClass, existing));
+            publishAfterCommit(EntityChange.of(entityClass, EntityChange.Kind.DELETED, existing, Set.of()));
+            logger.info("{} {} deleted by ID", deleted, entityName);
+            return deleted;
+        });
+    }
+
+    /**
+     * Deletes the rows that reference the given entities, before the entities themselves.
+     * DAOs whose entity owns cascading associations override it; by default nothing
+     * depends on the entity.
+     *
+     * @param ids the IDs of the entities about to be deleted
+     */
+    protected void deleteDependents(Collection<ID> ids) {
+    }
+
+    private static <X> List<List<X>> chunks(Collection<X> values) {
+        List<X> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        List<List<X>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += BULK_ID_CHUNK) {
+            chunks.add(distinct.subList(from, Math.min(from + BULK_ID_CHUNK, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Publishes changes made by set-based statements once the current transaction has
+     * committed, or right away outside a transaction. Session writes are published by
+     * the {@link com.immosync.gesttravaux.events.EntityEventListener}.
+     */
+    private static void publishAfterCommit(List<EntityChange> changes) {
+        TransactionRunner.afterCommit(() -> EntityEventBus.getInstance().publishAll(changes));
+    }
+
+    /**
+     * Rebuilds the search documents of entities changed by a set-based statement,
+     * if this DAO's entity is indexed. The write is already committed, so a failure is only logged.
+     */
+    private void reindex(Collection<ID> ids) {
+        if (SearchType.of(entityClass).isEmpty()) {
+            return;
+        }
+        try {
+            SearchIndex.getInstance().indexAll(TransactionRunner.readOnly(session ->
+                    session.byMultipleIds(entityClass).multiLoad(new ArrayList<>(ids)).stream()
+                            .filter(Objects::nonNull)
+                            .toList()));
+        } catch (Exception e) {
+            logger.error("Error reindexing {} {}", entityClass.getSimpleName(), ids, e);
+        }
+    }
+
+    /**
+     * Drops the cached query results built from this DAO's entity.
+     * Called after every committed write.
+     */
+    protected void invalidateQueryCache() {
+        QueryResultCache.getInstance().invalidate(entityClass);
+    }
+
     /**
      * Gets the entity class.
      *
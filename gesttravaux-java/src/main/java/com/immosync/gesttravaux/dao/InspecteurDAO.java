@@ -1,8 +1,6 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
 import com.immosync.gesttravaux.models.Inspecteur;
-import org.hibernate.Session;
 import org.hibernate.query.Query;
 
 import java.util.List;
@@ -23,6 +21,16 @@ public class InspecteurDAO extends GenericDAO<Inspecteur, Integer> {
         super(Inspecteur.class);
     }
 
+    /**
+     * Pages are ordered by name, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("nomInspecteur", "prenomInspecteur");
+    }
+
     /**
      * Finds inspectors by sector.
      *
@@ -30,12 +38,12 @@ public class InspecteurDAO extends GenericDAO<Inspecteur, Integer> {
      * @return list of inspectors in the specified sector
      */
     public List<Inspecteur> findBySecteur(String secteur) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Inspecteur> query = session.createQuery(
                     "FROM Inspecteur i WHERE i.secteurInspecteur = :secteur", Inspecteur.class);
             query.setParameter("secteur", secteur);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -45,12 +53,12 @@ public class InspecteurDAO extends GenericDAO<Inspecteur, Integer> {
      * @return inspector with the specified email or null
      */
     public Inspecteur findByEmail(String email) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Inspecteur> query = session.createQuery(
                     "FROM Inspecteur i WHERE i.emailInspecteur = :email", Inspecteur.class);
             query.setParameter("email", email);
             return query.uniqueResult();
-        }
+        });
     }
 
     /**
@@ -60,25 +68,22 @@ public class InspecteurDAO extends GenericDAO<Inspecteur, Integer> {
      * @return list of matching inspectors
      */
     public List<Inspecteur> searchByName(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Inspecteur> query = session.createQuery(
                     "FROM Inspecteur i WHERE LOWER(i.nomInspecteur) LIKE LOWER(:term) " +
                     "OR LOWER(i.prenomInspecteur) LIKE LOWER(:term)", Inspecteur.class);
             query.setParameter("term", "%" + searchTerm + "%");
             return query.getResultList();
-        }
+        });
     }
 
     /**
      * Gets all inspectors ordered by name.
+     * The entities are shared through the query cache and must not be modified.
      *
      * @return list of inspectors ordered by last name
      */
     public List<Inspecteur> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Inspecteur> query = session.createQuery(
-                    "FROM Inspecteur i ORDER BY i.nomInspecteur, i.prenomInspecteur", Inspecteur.class);
-            return query.getResultList();
-        }
+        return findCached("FROM Inspecteur i ORDER BY i.nomInspecteur, i.prenomInspecteur");
     }
 }
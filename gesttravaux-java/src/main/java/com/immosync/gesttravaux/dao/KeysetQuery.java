@@ -0,0 +1,139 @@
+package com.immosync.gesttravaux.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the HQL of a keyset (seek) page query.
+ * The query selects only the sort key values, ending with the ID: the cursor of the
+ * next page is read from the last row, and the entities are loaded afterwards by ID. Instead of an OFFSET, rows are filtered on
+ * being strictly after the cursor in sort order, which lets MySQL start from the index
+ * position whatever the page number.
+ * Null keys follow MySQL ordering: first in ascending order, last in descending order.
+ * Associations in property paths are LEFT JOINed so rows with a null association are kept.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class KeysetQuery {
+
+    private static final String ROOT = "e";
+
+    private final Map<String, String> joins = new LinkedHashMap<>();
+    private final List<String> expressions = new ArrayList<>();
+    private final Map<String, Object> parameters = new HashMap<>();
+    private final String hql;
+
+    /**
+     * Builds the query.
+     *
+     * @param entityName the entity name
+     * @param sort the sort, ending with a unique non-null key
+     * @param after the values of the last row read, or null for the first page
+     */
+    public KeysetQuery(String entityName, Sort sort, List<Object> after) {
+        List<Sort.Order> orders = sort.getOrders();
+        for (Sort.Order order : orders) {
+            expressions.add(resolve(order.property()));
+        }
+
+        StringBuilder query = new StringBuilder("SELECT ").append(String.join(", ", expressions));
+        query.append(" FROM ").append(entityName).append(' ').append(ROOT);
+        joins.forEach((path, alias) -> query.append(" LEFT JOIN ").append(path).append(' ').append(alias));
+
+        if (after != null) {
+            query.append(" WHERE ").append(seekPredicate(orders, after));
+        }
+
+        query.append(" ORDER BY ");
+        for (int i = 0; i < orders.size(); i++) {
+            query.append(i > 0 ? ", " : "").append(expressions.get(i))
+                    .append(orders.get(i).ascending() ? " ASC" : " DESC");
+        }
+        this.hql = query.toString();
+    }
+
+    /**
+     * Turns a property path into an HQL expression, adding the joins it needs.
+     */
+    private String resolve(String property) {
+        String[] segments = property.split("\\.");
+        String owner = ROOT;
+        for (int i = 0; i < segments.length - 1; i++) {
+            String path = owner + "." + segments[i];
+            String alias = joins.get(path);
+            if (alias == null) {
+                alias = "j" + joins.size();
+                joins.put(path, alias);
+            }
+            owner = alias;
+        }
+        return owner + "." + segments[segments.length - 1];
+    }
+
+    /**
+     * Builds (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ..., with the comparison reversed
+     * for descending keys and null values handled explicitly.
+     */
+    private String seekPredicate(List<Sort.Order> orders, List<Object> after) {
+        List<String> disjuncts = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            String strictlyAfter = strictlyAfter(i, orders.get(i).ascending(), after.get(i));
+            if (strictlyAfter == null) {
+                continue;
+            }
+            StringBuilder conjunct = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                conjunct.append(equalTo(j, after.get(j))).append(" AND ");
+            }
+            disjuncts.add(conjunct.append(strictlyAfter).append(')').toString());
+        }
+        return disjuncts.isEmpty() ? "1 = 0" : "(" + String.join(" OR ", disjuncts) + ")";
+    }
+
+    private String equalTo(int key, Object value) {
+        String expression = expressions.get(key);
+        if (value == null) {
+            return expression + " IS NULL";
+        }
+        return expression + " = " + bind(key, value);
+    }
+
+    /**
+     * Gets the condition for a key to sort strictly after a value, or null if nothing can.
+     */
+    private String strictlyAfter(int key, boolean ascending, Object value) {
+        String expression = expressions.get(key);
+        if (ascending) {
+            return value == null ? expression + " IS NOT NULL" : expression + " > " + bind(key, value);
+        }
+        return value == null ? null : "(" + expression + " < " + bind(key, value) + " OR " + expression + " IS NULL)";
+    }
+
+    private String bind(int key, Object value) {
+        String name = "k" + key;
+        parameters.put(name, value);
+        return ":" + name;
+    }
+
+    /**
+     * Gets the HQL query.
+     *
+     * @return the query
+     */
+    public String getHql() {
+        return hql;
+    }
+
+    /**
+     * Gets the named parameters of the seek predicate.
+     *
+     * @return the parameters
+     */
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+}
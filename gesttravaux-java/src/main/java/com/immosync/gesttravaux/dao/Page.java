@@ -0,0 +1,34 @@
+package com.immosync.gesttravaux.dao;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query.
+ *
+ * @param items the entities of the page
+ * @param next the position after the last item, or null if this is the last page
+ * @param <T> the entity type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record Page<T>(List<T> items, Cursor next) {
+
+    /**
+     * Checks if more rows follow this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Position in a sorted result: the sort key values of the last row read.
+     * Only valid with the sort it was produced by.
+     *
+     * @param sort the sort, including the ID tiebreaker
+     * @param values the key values, in sort order
+     */
+    public record Cursor(Sort sort, List<Object> values) {
+    }
+}
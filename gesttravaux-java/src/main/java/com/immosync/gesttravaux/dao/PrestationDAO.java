@@ -1,11 +1,13 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dto.PrestationRow;
+import com.immosync.gesttravaux.models.Categorie;
 import com.immosync.gesttravaux.models.Prestation;
-import org.hibernate.Session;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Prestation entity.
@@ -16,11 +18,50 @@ import java.util.List;
  */
 public class PrestationDAO extends GenericDAO<Prestation, Integer> {
 
+    /**
+     * Projection of the prestation table, without the WHERE clause.
+     */
+    private static final String ROWS = "SELECT new " + PrestationRow.class.getName()
+            + "(p.idPrestation, p.libelle, c.type) FROM Prestation p LEFT JOIN p.categorie c";
+
+    /**
+     * Projection of the prestation table restricted to some IDs.
+     */
+    private static final String ROWS_BY_ID = ROWS + " WHERE p.idPrestation IN :ids";
+
+    /**
+     * Criteria shared by the entity and row searches.
+     */
+    private static final String SEARCH = "LOWER(p.libelle) LIKE LOWER(:term)";
+
+    private final DevisDAO devisDAO;
+
     /**
      * Constructor.
      */
     public PrestationDAO() {
         super(Prestation.class);
+        this.devisDAO = new DevisDAO();
+    }
+
+    /**
+     * Pages are ordered by category and libelle, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("categorie.type", "libelle");
+    }
+
+    /**
+     * Lists fetch the associations shown in the prestation table.
+     *
+     * @return the list graph
+     */
+    @Override
+    protected String defaultGraph() {
+        return Prestation.GRAPH_LIST;
     }
 
     /**
@@ -30,12 +71,12 @@ public class PrestationDAO extends GenericDAO<Prestation, Integer> {
      * @return list of prestations in the specified category
      */
     public List<Prestation> findByCategorie(Integer categorieId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Prestation> query = session.createQuery(
-                    "FROM Prestation p WHERE p.categorie.idCategorie = :categorieId", Prestation.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Prestation> query = createListQuery(session,
+                    "FROM Prestation p WHERE p.categorie.idCategorie = :categorieId");
             query.setParameter("categorieId", categorieId);
             return query.getResultList();
-        }
+        });
     }
 
     /**
@@ -45,24 +86,64 @@ public class PrestationDAO extends GenericDAO<Prestation, Integer> {
      * @return list of matching prestations
      */
     public List<Prestation> searchByLibelle(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Prestation> query = session.createQuery(
-                    "FROM Prestation p WHERE LOWER(p.libelle) LIKE LOWER(:term)", Prestation.class);
+        return TransactionRunner.withSession(session -> {
+            Query<Prestation> query = createListQuery(session,
+                    "FROM Prestation p WHERE " + SEARCH);
             query.setParameter("term", "%" + searchTerm + "%");
             return query.getResultList();
-        }
+        });
+    }
+
+    /**
+     * Gets one page of the prestation table.
+     *
+     * @param sort the sort order, or an empty sort for the default order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<PrestationRow> findRowPage(Sort sort, Page.Cursor after, int limit) {
+        return findRowPage(sort, after, limit, ROWS_BY_ID,
+                PrestationRow.class, PrestationRow::idPrestation);
+    }
+
+    /**
+     * Gets the prestation table rows of some services, e.g. to refresh rows changed elsewhere.
+     *
+     * @param ids the service IDs
+     * @return the rows of the services that still exist, in the order of the IDs
+     */
+    public List<PrestationRow> findRowsById(List<Integer> ids) {
+        return findRowsById(ids, ROWS_BY_ID, PrestationRow.class, PrestationRow::idPrestation);
+    }
+
+    /**
+     * Searches prestations by libelle, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<PrestationRow> searchRowsByLibelle(String searchTerm) {
+        return findRows(ROWS + " WHERE " + SEARCH, PrestationRow.class, Map.of("term", "%" + searchTerm + "%"));
     }
 
     /**
      * Gets all prestations ordered by category and libelle.
+     * The entities are shared through the query cache and must not be modified.
      *
      * @return list of prestations ordered
      */
     public List<Prestation> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Prestation> query = session.createQuery(
-                    "FROM Prestation p ORDER BY p.categorie.type, p.libelle", Prestation.class);
-            return query.getResultList();
-        }
+        return findCached("FROM Prestation p ORDER BY p.categorie.type, p.libelle", Categorie.class);
+    }
+
+    /**
+     * Deletes the devis of the prestations before the prestations.
+     *
+     * @param ids the prestation IDs
+     */
+    @Override
+    protected void deleteDependents(Collection<Integer> ids) {
+        devisDAO.deleteByPrestations(ids);
     }
 }
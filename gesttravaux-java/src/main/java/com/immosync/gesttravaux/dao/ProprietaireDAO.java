@@ -1,11 +1,14 @@
 package com.immosync.gesttravaux.dao;
 
-import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dto.ProprietaireRow;
 import com.immosync.gesttravaux.models.Proprietaire;
-import org.hibernate.Session;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchType;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Proprietaire entity.
@@ -16,11 +19,42 @@ import java.util.List;
  */
 public class ProprietaireDAO extends GenericDAO<Proprietaire, Integer> {
 
+    /**
+     * Projection of the proprietaire table, without the WHERE clause.
+     */
+    private static final String ROWS = "SELECT new " + ProprietaireRow.class.getName()
+            + "(p.idProprietaire, p.nomProprietaire, p.prenomProprietaire, p.emailProprietaire, "
+            + "p.telProprietaire) FROM Proprietaire p";
+
+    /**
+     * Projection of the table rows of a list of IDs.
+     */
+    private static final String ROWS_BY_ID = ROWS + " WHERE p.idProprietaire IN :ids";
+
+    /**
+     * LIKE criteria of the entity and row searches, used until the search index is built.
+     */
+    private static final String SEARCH = "LOWER(p.nomProprietaire) LIKE LOWER(:term) "
+            + "OR LOWER(p.prenomProprietaire) LIKE LOWER(:term)";
+
+    private final BienDAO bienDAO;
+
     /**
      * Constructor.
      */
     public ProprietaireDAO() {
         super(Proprietaire.class);
+        this.bienDAO = new BienDAO();
+    }
+
+    /**
+     * Pages are ordered by name, like {@code findAllOrdered}.
+     *
+     * @return the default sort
+     */
+    @Override
+    protected Sort defaultSort() {
+        return Sort.by("nomProprietaire", "prenomProprietaire");
     }
 
     /**
@@ -30,28 +64,67 @@ public class ProprietaireDAO extends GenericDAO<Proprietaire, Integer> {
      * @return proprietaire with the specified email or null
      */
     public Proprietaire findByEmail(String email) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Proprietaire> query = session.createQuery(
                     "FROM Proprietaire p WHERE p.emailProprietaire = :email", Proprietaire.class);
             query.setParameter("email", email);
             return query.uniqueResult();
-        }
+        });
     }
 
     /**
      * Searches proprietaires by name.
+     * Hits are ranked by relevance through the {@link SearchIndex}, which folds accents,
+     * stems French words and tolerates typos.
      *
      * @param searchTerm the search term
      * @return list of matching proprietaires
      */
     public List<Proprietaire> searchByName(String searchTerm) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Proprietaire> query = session.createQuery(
-                    "FROM Proprietaire p WHERE LOWER(p.nomProprietaire) LIKE LOWER(:term) " +
-                    "OR LOWER(p.prenomProprietaire) LIKE LOWER(:term)", Proprietaire.class);
-            query.setParameter("term", "%" + searchTerm + "%");
-            return query.getResultList();
-        }
+        return SearchIndex.getInstance().findIds(SearchType.PROPRIETAIRE, searchTerm)
+                .map(this::findAllById)
+                .orElseGet(() -> TransactionRunner.withSession(session -> {
+                    Query<Proprietaire> query = session.createQuery(
+                            "FROM Proprietaire p WHERE " + SEARCH, Proprietaire.class);
+                    query.setParameter("term", "%" + searchTerm + "%");
+                    return query.getResultList();
+                }));
+    }
+
+    /**
+     * Gets one page of the proprietaire table.
+     *
+     * @param sort the sort order, or an empty sort for the default order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<ProprietaireRow> findRowPage(Sort sort, Page.Cursor after, int limit) {
+        return findRowPage(sort, after, limit, ROWS_BY_ID,
+                ProprietaireRow.class, ProprietaireRow::idProprietaire);
+    }
+
+    /**
+     * Gets the proprietaire table rows of some owners, e.g. to refresh rows changed elsewhere.
+     *
+     * @param ids the owner IDs
+     * @return the rows of the owners that still exist, in the order of the IDs
+     */
+    public List<ProprietaireRow> findRowsById(List<Integer> ids) {
+        return findRowsById(ids, ROWS_BY_ID, ProprietaireRow.class, ProprietaireRow::idProprietaire);
+    }
+
+    /**
+     * Searches proprietaires by name, returning table rows ranked by relevance.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<ProprietaireRow> searchRowsByName(String searchTerm) {
+        return SearchIndex.getInstance().findIds(SearchType.PROPRIETAIRE, searchTerm)
+                .map(ids -> findRowsById(ids, ROWS_BY_ID, ProprietaireRow.class, ProprietaireRow::idProprietaire))
+                .orElseGet(() -> findRows(ROWS + " WHERE " + SEARCH, ProprietaireRow.class,
+                        Map.of("term", "%" + searchTerm + "%")));
     }
 
     /**
@@ -60,10 +133,21 @@ public class ProprietaireDAO extends GenericDAO<Proprietaire, Integer> {
      * @return list of proprietaires ordered by last name
      */
     public List<Proprietaire> findAllOrdered() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return TransactionRunner.withSession(session -> {
             Query<Proprietaire> query = session.createQuery(
                     "FROM Proprietaire p ORDER BY p.nomProprietaire, p.prenomProprietaire", Proprietaire.class);
             return query.getResultList();
-        }
+        });
+    }
+
+    /**
+     * Deletes the biens of the proprietaires, with their own dependents, before the proprietaires.
+     *
+     * @param ids the proprietaire IDs
+     */
+    @Override
+    protected void deleteDependents(Collection<Integer> ids) {
+        bienDAO.deleteAllById(selectIds(
+                "SELECT b.idBien FROM Bien b WHERE b.proprietaire.idProprietaire IN :ids", ids));
     }
 }
@@ -0,0 +1,121 @@
+package com.immosync.gesttravaux.dao;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets another thread cancel the queries of a unit of read-only work.
+ * While {@link #run(Supplier)} runs, every session opened by
+ * {@link TransactionRunner#readOnly(java.util.function.Function)} on its thread is
+ * registered here, and {@link #cancel()} cancels the statement each one is executing
+ * ({@code Statement.cancel} on the JDBC side). Used to abandon a search overtaken
+ * by a newer one.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class QueryCanceller {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCanceller.class);
+
+    private static final ThreadLocal<QueryCanceller> CURRENT = new ThreadLocal<>();
+
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * Runs work whose queries can be cancelled from another thread.
+     *
+     * @param work the work
+     * @param <R> the result type
+     * @return the result of the work
+     * @throws CancellationException if the work was cancelled before a query started
+     */
+    public <R> R run(Supplier<R> work) {
+        checkNotCancelled();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Cancels the running queries. Queries not started yet fail immediately.
+     * Safe to call from any thread, any number of times.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Session session : sessions) {
+            try {
+                session.cancelQuery();
+            } catch (RuntimeException e) {
+                logger.debug("Query could not be cancelled", e);
+            }
+        }
+    }
+
+    /**
+     * Checks if {@link #cancel()} was called.
+     *
+     * @return true once cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a session opened on this thread with the running canceller, if any.
+     */
+    static void register(Session session) {
+        QueryCanceller canceller = CURRENT.get();
+        if (canceller != null) {
+            // Added before the check, so a concurrent cancel() either sees the session or is seen here
+            canceller.sessions.add(session);
+            if (canceller.cancelled) {
+                canceller.sessions.remove(session);
+                canceller.checkNotCancelled();
+            }
+        }
+    }
+
+    /**
+     * Unregisters a session before it is closed.
+     */
+    static void unregister(Session session) {
+        QueryCanceller canceller = CURRENT.get();
+        if (canceller != null) {
+            canceller.sessions.remove(session);
+        }
+    }
+
+    /**
+     * Turns the failure of a query into a {@link CancellationException} if the running
+     * canceller of this thread was cancelled: the driver then reports the cancelled
+     * statement as an error of its own.
+     *
+     * @param failure the failure of the query
+     * @throws CancellationException if the running canceller was cancelled
+     */
+    static void rethrowIfCancelled(Exception failure) {
+        QueryCanceller canceller = CURRENT.get();
+        if (canceller != null && canceller.cancelled) {
+            CancellationException cancellation = new CancellationException("Requête annulée");
+            cancellation.initCause(failure);
+            throw cancellation;
+        }
+    }
+
+    private void checkNotCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Requête annulée");
+        }
+    }
+}
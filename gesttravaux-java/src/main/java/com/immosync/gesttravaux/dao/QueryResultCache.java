@@ -0,0 +1,145 @@
+package com.immosync.gesttravaux.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of query results, keyed by query string and parameters.
+ * Each entry records the entity types it was built from; a write on one of these
+ * types (see {@link GenericDAO}) invalidates the entry.
+ * A load that overlaps a write is returned to its caller but not stored, so
+ * an invalidation can never be undone by a slow reader.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class QueryResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+    private static final QueryResultCache INSTANCE = new QueryResultCache();
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Gets the cache shared by all DAOs.
+     *
+     * @return the shared cache
+     */
+    public static QueryResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached result of a query, loading and storing it on a miss.
+     * Every call gets its own copy of the list.
+     *
+     * @param query the query string
+     * @param parameters the query parameters, in a stable order
+     * @param dependsOn the entity types the result is built from
+     * @param loader runs the query
+     * @param <T> the result element type
+     * @return the query result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String query, List<?> parameters, Set<Class<?>> dependsOn,
+                           Supplier<List<T>> loader) {
+        Key key = new Key(query, new ArrayList<>(parameters));
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            return new ArrayList<>((List<T>) entry.result());
+        }
+        misses.increment();
+
+        long[] before = generationsOf(dependsOn);
+        List<T> result = loader.get();
+        if (Arrays.equals(before, generationsOf(dependsOn))) {
+            Entry loaded = new Entry(List.copyOf(result), Set.copyOf(dependsOn));
+            entries.put(key, loaded);
+            // A write may have landed between the check and the put
+            if (!Arrays.equals(before, generationsOf(dependsOn))) {
+                entries.remove(key, loaded);
+            }
+        } else {
+            logger.debug("Result of {} not cached, its data changed while loading", query);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Drops every entry built from the given entity type.
+     *
+     * @param type the entity type that was written
+     */
+    public void invalidate(Class<?> type) {
+        generations.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.dependsOn().contains(type));
+        invalidations.increment();
+        logger.debug("Query cache invalidated for {} ({} entries dropped)",
+                type.getSimpleName(), before - entries.size());
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public void clear() {
+        generations.keySet().forEach(this::invalidate);
+        entries.clear();
+    }
+
+    private long[] generationsOf(Set<Class<?>> types) {
+        long[] values = new long[types.size()];
+        int i = 0;
+        for (Class<?> type : types) {
+            values[i++] = generations.computeIfAbsent(type, t -> new AtomicLong()).get();
+        }
+        return values;
+    }
+
+    /**
+     * Gets the cache counters.
+     *
+     * @return the current statistics
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), invalidations.sum(), entries.size());
+    }
+
+    private record Key(String query, List<?> parameters) {
+    }
+
+    private record Entry(List<?> result, Set<Class<?>> dependsOn) {
+    }
+
+    /**
+     * Query cache counters.
+     *
+     * @param hits results served from memory
+     * @param misses results loaded from the database
+     * @param invalidations writes that dropped entries
+     * @param size entries currently held
+     */
+    public record Stats(long hits, long misses, long invalidations, int size) {
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, invalidations=%d, size=%d",
+                    hits, misses, invalidations, size);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.immosync.gesttravaux.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable sort specification for paged queries.
+ * Each key is an entity property path, possibly through a to-one association
+ * (e.g. "inspecteur.nomInspecteur").
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public final class Sort {
+
+    private static final Pattern PROPERTY_PATH =
+            Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+    private static final Sort UNSORTED = new Sort(List.of());
+
+    private final List<Order> orders;
+
+    private Sort(List<Order> orders) {
+        this.orders = Collections.unmodifiableList(orders);
+    }
+
+    /**
+     * Gets an empty sort: pages are then ordered by ID only.
+     *
+     * @return the empty sort
+     */
+    public static Sort unsorted() {
+        return UNSORTED;
+    }
+
+    /**
+     * Creates an ascending sort on the given properties.
+     *
+     * @param properties the property paths, most significant first
+     * @return the sort
+     */
+    public static Sort by(String... properties) {
+        Sort sort = UNSORTED;
+        for (String property : properties) {
+            sort = sort.then(property, true);
+        }
+        return sort;
+    }
+
+    /**
+     * Returns this sort with one more, less significant, key.
+     * A property already in the sort is ignored.
+     *
+     * @param property the property path
+     * @param ascending true for ascending order
+     * @return the new sort
+     * @throws IllegalArgumentException if the property path is not valid
+     */
+    public Sort then(String property, boolean ascending) {
+        if (property == null || !PROPERTY_PATH.matcher(property).matches()) {
+            throw new IllegalArgumentException("Propriété de tri invalide : " + property);
+        }
+        if (contains(property)) {
+            return this;
+        }
+        List<Order> extended = new ArrayList<>(orders);
+        extended.add(new Order(property, ascending));
+        return new Sort(extended);
+    }
+
+    /**
+     * Checks if the sort has a key on the given property.
+     *
+     * @param property the property path
+     * @return true if the property is a sort key
+     */
+    public boolean contains(String property) {
+        return orders.stream().anyMatch(order -> order.property().equals(property));
+    }
+
+    /**
+     * Gets the sort keys.
+     *
+     * @return the keys, most significant first
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Sort other && orders.equals(other.orders));
+    }
+
+    @Override
+    public int hashCode() {
+        return orders.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return orders.toString();
+    }
+
+    /**
+     * One sort key.
+     *
+     * @param property the property path
+     * @param ascending true for ascending order
+     */
+    public record Order(String property, boolean ascending) {
+
+        @Override
+        public String toString() {
+            return property + (ascending ? " ASC" : " DESC");
+        }
+    }
+}
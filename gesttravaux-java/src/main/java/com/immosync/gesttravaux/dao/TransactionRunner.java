@@ -0,0 +1,212 @@
+package com.immosync.gesttravaux.dao;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a unit of work in one session and one transaction.
+ * The session is bound to the current thread while the work runs, so DAO calls made
+ * inside it join the same transaction instead of opening their own: entities they
+ * return stay managed, and changes made to them are written at commit without a merge.
+ * A nested call simply joins the outer transaction; only the outermost call commits
+ * or rolls back. A nested call that fails marks the transaction rollback-only: Hibernate
+ * considers the session unusable after an exception, so the outermost call rolls back
+ * even if the outer work caught the exception.
+ *
+ * <pre>
+ * TransactionRunner.inTransaction(session -&gt; {
+ *     Chantier chantier = chantierDAO.findManaged(id).orElseThrow();
+ *     chantier.setStatutChantier(2);
+ *     return chantier;
+ * });
+ * </pre>
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public final class TransactionRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRunner.class);
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TransactionRunner() {
+    }
+
+    /**
+     * Runs work in a transaction, joining the one already running on this thread if any.
+     * Any exception rolls the whole transaction back and is rethrown unchanged.
+     * The after-commit actions run once the transaction has committed; one that fails
+     * is logged, and the others still run.
+     *
+     * @param work the work, given the transaction's session
+     * @param <R> the result type
+     * @return the result of the work
+     * @throws IllegalStateException if a nested call failed and the outer work went on
+     */
+    public static <R> R inTransaction(Function<Session, R> work) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return current.join(work);
+        }
+
+        UnitOfWork unit;
+        R result;
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            unit = new UnitOfWork(session);
+            CURRENT.set(unit);
+            transaction = session.beginTransaction();
+            result = work.apply(session);
+            if (unit.failure != null) {
+                throw new IllegalStateException("Transaction annulée après l'échec d'une opération", unit.failure);
+            }
+            transaction.commit();
+        } catch (RuntimeException e) {
+            rollback(transaction, e);
+            throw e;
+        } finally {
+            CURRENT.remove();
+        }
+        for (Runnable action : unit.afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("Error running an after-commit action", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs work without a result in a transaction.
+     *
+     * @param work the work, given the transaction's session
+     * @see #inTransaction(Function)
+     */
+    public static void runInTransaction(Consumer<Session> work) {
+        inTransaction(session -> {
+            work.accept(session);
+            return null;
+        });
+    }
+
+    /**
+     * Runs read-only work in the current transaction's session, or in a short-lived
+     * read-only session of its own when no transaction is running.
+     * Inside a transaction the entities read stay managed and can be modified.
+     *
+     * @param work the work, given a session
+     * @param <R> the result type
+     * @return the result of the work
+     * @see #readOnly(Function)
+     */
+    public static <R> R withSession(Function<Session, R> work) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return current.join(work);
+        }
+        return readOnly(work);
+    }
+
+    /**
+     * Runs work in a new read-only session, even if a transaction is running.
+     * Entities are loaded read-only: the session keeps no snapshot of their state,
+     * never dirty-checks them and never flushes. Lazy associations can still be
+     * loaded while the work runs. Inside {@link QueryCanceller#run(java.util.function.Supplier)}
+     * the session's queries can be cancelled from another thread.
+     *
+     * @param work the work, given the read-only session
+     * @param <R> the result type
+     * @return the result of the work
+     */
+    public static <R> R readOnly(Function<Session, R> work) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            QueryCanceller.register(session);
+            try {
+                return work.apply(session);
+            } finally {
+                QueryCanceller.unregister(session);
+            }
+        }
+    }
+
+    /**
+     * Checks if a transaction is running on this thread.
+     *
+     * @return true inside {@link #inTransaction(Function)}
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Registers an action to run once the current transaction has committed,
+     * such as invalidating cached data. The action is dropped if the transaction
+     * rolls back, and runs immediately when no transaction is running.
+     *
+     * @param action the action
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            current.afterCommit.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    private static void rollback(Transaction transaction, RuntimeException cause) {
+        if (transaction == null || !transaction.isActive()) {
+            return;
+        }
+        try {
+            transaction.rollback();
+        } catch (RuntimeException e) {
+            logger.error("Error rolling back transaction", e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * The session and pending after-commit actions of the running transaction.
+     */
+    private static final class UnitOfWork {
+
+        private final Session session;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private RuntimeException failure;
+
+        private UnitOfWork(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Runs nested work in the session, marking the transaction rollback-only if it fails.
+         */
+        private <R> R join(Function<Session, R> work) {
+            try {
+                return work.apply(session);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.immosync.gesttravaux.dto;
+
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Proprietaire;
+
+/**
+ * Read-only row of the bien table.
+ * Filled by a projection query instead of loading the bien and its proprietaire.
+ *
+ * @param idBien the property ID
+ * @param adresseBien the address
+ * @param villeBien the city
+ * @param proprietaire the full name of the owner, or null
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record BienRow(Integer idBien, String adresseBien, String villeBien, String proprietaire) {
+
+    /**
+     * Builds the row of a bien in memory, as the projection query would.
+     *
+     * @param bien the bien, with its proprietaire loaded
+     * @return the row
+     */
+    public static BienRow of(Bien bien) {
+        Proprietaire proprietaire = bien.getProprietaire();
+        return new BienRow(bien.getIdBien(), bien.getAdresseBien(), bien.getVilleBien(),
+                proprietaire == null ? null
+                        : RowText.concat(proprietaire.getPrenomProprietaire(), " ", proprietaire.getNomProprietaire()));
+    }
+
+    /**
+     * Gets the full address.
+     *
+     * @return address and city
+     */
+    public String getFullAddress() {
+        return adresseBien + ", " + villeBien;
+    }
+}
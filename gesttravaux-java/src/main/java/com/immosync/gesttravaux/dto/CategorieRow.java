@@ -0,0 +1,25 @@
+package com.immosync.gesttravaux.dto;
+
+import com.immosync.gesttravaux.models.Categorie;
+
+/**
+ * Read-only row of the categorie table.
+ * Filled by a projection query, without the collections of the entity.
+ *
+ * @param idCategorie the category ID
+ * @param type the category type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record CategorieRow(Integer idCategorie, String type) {
+
+    /**
+     * Builds the row of a categorie in memory, as the projection query would.
+     *
+     * @param categorie the categorie
+     * @return the row
+     */
+    public static CategorieRow of(Categorie categorie) {
+        return new CategorieRow(categorie.getIdCategorie(), categorie.getType());
+    }
+}
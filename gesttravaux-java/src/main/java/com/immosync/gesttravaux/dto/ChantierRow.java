@@ -0,0 +1,49 @@
+package com.immosync.gesttravaux.dto;
+
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Inspecteur;
+
+/**
+ * Read-only row of the chantier table.
+ * Filled by a projection query instead of loading the chantier, its bien and its inspecteur.
+ *
+ * @param idChantier the chantier ID
+ * @param adresseChantier the address
+ * @param villeChantier the city
+ * @param infoChantier the additional information, or null
+ * @param bien the full address of the property, or null
+ * @param inspecteur the full name of the inspector, or null
+ * @param statutChantier the status code
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record ChantierRow(Integer idChantier, String adresseChantier, String villeChantier, String infoChantier,
+                          String bien, String inspecteur, Integer statutChantier) {
+
+    /**
+     * Builds the row of a chantier in memory, as the projection query would.
+     *
+     * @param chantier the chantier, with its bien and inspecteur loaded
+     * @return the row
+     */
+    public static ChantierRow of(Chantier chantier) {
+        Bien bien = chantier.getBien();
+        Inspecteur inspecteur = chantier.getInspecteur();
+        return new ChantierRow(chantier.getIdChantier(), chantier.getAdresseChantier(), chantier.getVilleChantier(),
+                chantier.getInfoChantier(),
+                bien == null ? null : RowText.concat(bien.getAdresseBien(), ", ", bien.getVilleBien()),
+                inspecteur == null ? null
+                        : RowText.concat(inspecteur.getPrenomInspecteur(), " ", inspecteur.getNomInspecteur()),
+                chantier.getStatutChantier());
+    }
+
+    /**
+     * Gets the status as a readable string.
+     *
+     * @return status string
+     */
+    public String getStatutString() {
+        return Chantier.statutLibelle(statutChantier);
+    }
+}
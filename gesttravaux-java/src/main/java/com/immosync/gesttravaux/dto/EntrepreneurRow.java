@@ -0,0 +1,41 @@
+package com.immosync.gesttravaux.dto;
+
+import com.immosync.gesttravaux.models.Entrepreneur;
+
+/**
+ * Read-only row of the entrepreneur table.
+ * Filled by a projection query, without the categories collection of the entity.
+ *
+ * @param idEntrepreneur the contractor ID
+ * @param nomEntrepreneur the last name
+ * @param prenomEntrepreneur the first name
+ * @param emailEntrepreneur the email
+ * @param telEntrepreneur the phone number
+ * @param villeDeploiement the deployment city
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record EntrepreneurRow(Integer idEntrepreneur, String nomEntrepreneur, String prenomEntrepreneur,
+                              String emailEntrepreneur, String telEntrepreneur, String villeDeploiement) {
+
+    /**
+     * Builds the row of an entrepreneur in memory, as the projection query would.
+     *
+     * @param entrepreneur the entrepreneur
+     * @return the row
+     */
+    public static EntrepreneurRow of(Entrepreneur entrepreneur) {
+        return new EntrepreneurRow(entrepreneur.getIdEntrepreneur(), entrepreneur.getNomEntrepreneur(),
+                entrepreneur.getPrenomEntrepreneur(), entrepreneur.getEmailEntrepreneur(),
+                entrepreneur.getTelEntrepreneur(), entrepreneur.getVilleDeploiement());
+    }
+
+    /**
+     * Gets the full name.
+     *
+     * @return first name and last name
+     */
+    public String getFullName() {
+        return prenomEntrepreneur + " " + nomEntrepreneur;
+    }
+}
@@ -0,0 +1,27 @@
+package com.immosync.gesttravaux.dto;
+
+import com.immosync.gesttravaux.models.Prestation;
+
+/**
+ * Read-only row of the prestation table.
+ * Filled by a projection query instead of loading the prestation and its categorie.
+ *
+ * @param idPrestation the service ID
+ * @param libelle the label
+ * @param categorie the category type, or null
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record PrestationRow(Integer idPrestation, String libelle, String categorie) {
+
+    /**
+     * Builds the row of a prestation in memory, as the projection query would.
+     *
+     * @param prestation the prestation, with its categorie loaded
+     * @return the row
+     */
+    public static PrestationRow of(Prestation prestation) {
+        return new PrestationRow(prestation.getIdPrestation(), prestation.getLibelle(),
+                prestation.getCategorie() == null ? null : prestation.getCategorie().getType());
+    }
+}
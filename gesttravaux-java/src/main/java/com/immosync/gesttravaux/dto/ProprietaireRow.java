@@ -0,0 +1,40 @@
+package com.immosync.gesttravaux.dto;
+
+import com.immosync.gesttravaux.models.Proprietaire;
+
+/**
+ * Read-only row of the proprietaire table.
+ * Filled by a projection query, without the biens collection of the entity.
+ *
+ * @param idProprietaire the owner ID
+ * @param nomProprietaire the last name
+ * @param prenomProprietaire the first name
+ * @param emailProprietaire the email
+ * @param telProprietaire the phone number
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record ProprietaireRow(Integer idProprietaire, String nomProprietaire, String prenomProprietaire,
+                              String emailProprietaire, String telProprietaire) {
+
+    /**
+     * Builds the row of a proprietaire in memory, as the projection query would.
+     *
+     * @param proprietaire the proprietaire
+     * @return the row
+     */
+    public static ProprietaireRow of(Proprietaire proprietaire) {
+        return new ProprietaireRow(proprietaire.getIdProprietaire(), proprietaire.getNomProprietaire(),
+                proprietaire.getPrenomProprietaire(), proprietaire.getEmailProprietaire(),
+                proprietaire.getTelProprietaire());
+    }
+
+    /**
+     * Gets the full name.
+     *
+     * @return first name and last name
+     */
+    public String getFullName() {
+        return prenomProprietaire + " " + nomProprietaire;
+    }
+}
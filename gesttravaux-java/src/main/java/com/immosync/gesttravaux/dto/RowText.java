@@ -0,0 +1,33 @@
+package com.immosync.gesttravaux.dto;
+
+/**
+ * Text helpers shared by the rows built in memory.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+final class RowText {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RowText() {
+    }
+
+    /**
+     * Concatenates like SQL CONCAT in the projection queries: null if any part is null.
+     *
+     * @param parts the parts
+     * @return the text, or null
+     */
+    static String concat(String... parts) {
+        StringBuilder text = new StringBuilder();
+        for (String part : parts) {
+            if (part == null) {
+                return null;
+            }
+            text.append(part);
+        }
+        return text.toString();
+    }
+}
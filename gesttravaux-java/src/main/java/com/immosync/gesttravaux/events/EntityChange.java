@@ -0,0 +1,137 @@
+package com.immosync.gesttravaux.events;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A committed change of one entity, or of unknown rows of an entity type.
+ *
+ * @param entityType the entity class
+ * @param kind what happened
+ * @param id the entity ID, null for a {@link Kind#BULK} change
+ * @param attributes the attributes changed by an update; empty when unknown or not relevant
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record EntityChange(Class<?> entityType, Kind kind, Object id, Set<String> attributes) {
+
+    /**
+     * The kind of change.
+     */
+    public enum Kind {
+        /** The entity was inserted. */
+        CREATED,
+        /** Some attributes of the entity were updated. */
+        UPDATED,
+        /** The entity was deleted. */
+        DELETED,
+        /** A set-based statement changed rows of the type that are not known individually. */
+        BULK
+    }
+
+    /**
+     * Constructor.
+     */
+    public EntityChange {
+        attributes = Set.copyOf(attributes);
+    }
+
+    /**
+     * Creates the change of one inserted entity.
+     *
+     * @param entityType the entity class
+     * @param id the entity ID
+     * @return the change
+     */
+    public static EntityChange created(Class<?> entityType, Object id) {
+        return new EntityChange(entityType, Kind.CREATED, id, Set.of());
+    }
+
+    /**
+     * Creates the change of one updated entity.
+     *
+     * @param entityType the entity class
+     * @param id the entity ID
+     * @param attributes the attributes changed, or an empty set if unknown
+     * @return the change
+     */
+    public static EntityChange updated(Class<?> entityType, Object id, Collection<String> attributes) {
+        return new EntityChange(entityType, Kind.UPDATED, id, new HashSet<>(attributes));
+    }
+
+    /**
+     * Creates the change of one deleted entity.
+     *
+     * @param entityType the entity class
+     * @param id the entity ID
+     * @return the change
+     */
+    public static EntityChange deleted(Class<?> entityType, Object id) {
+        return new EntityChange(entityType, Kind.DELETED, id, Set.of());
+    }
+
+    /**
+     * Creates the change of unknown rows of a type, e.g. after a set-based UPDATE.
+     *
+     * @param entityType the entity class
+     * @return the change
+     */
+    public static EntityChange bulk(Class<?> entityType) {
+        return new EntityChange(entityType, Kind.BULK, null, Set.of());
+    }
+
+    /**
+     * Creates one change per ID.
+     *
+     * @param entityType the entity class
+     * @param kind what happened to each entity
+     * @param ids the entity IDs
+     * @param attributes the attributes changed by an update, or an empty set
+     * @return the changes
+     */
+    public static List<EntityChange> of(Class<?> entityType, Kind kind, Collection<?> ids, Set<String> attributes) {
+        return ids.stream().map(id -> new EntityChange(entityType, kind, id, attributes)).toList();
+    }
+
+    /**
+     * Checks if the change may affect an attribute, e.g. one shown in a table column.
+     * Creations, deletions, bulk changes and updates with unknown attributes affect all.
+     *
+     * @param names the attribute names
+     * @return true if one of the attributes may have changed
+     */
+    public boolean affects(String... names) {
+        if (kind != Kind.UPDATED || attributes.isEmpty()) {
+            return true;
+        }
+        for (String name : names) {
+            if (attributes.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Combines this change with a later change of the same entity.
+     *
+     * @param later the later change
+     * @return the combined change, or null if the entity was created then deleted
+     */
+    EntityChange then(EntityChange later) {
+        if (kind == Kind.CREATED) {
+            return later.kind == Kind.DELETED ? null : this;
+        }
+        if (kind == Kind.UPDATED && later.kind == Kind.UPDATED) {
+            if (attributes.isEmpty() || later.attributes.isEmpty()) {
+                return updated(entityType, id, Set.of());
+            }
+            Set<String> union = new HashSet<>(attributes);
+            union.addAll(later.attributes);
+            return updated(entityType, id, union);
+        }
+        return later;
+    }
+}
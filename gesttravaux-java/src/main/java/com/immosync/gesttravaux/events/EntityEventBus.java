@@ -0,0 +1,205 @@
+package com.immosync.gesttravaux.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus of committed entity changes, so every open view can patch the rows
+ * it shows instead of reloading.
+ * Changes are published after commit by the Hibernate listener {@link EntityEventListener}
+ * for session writes and by the DAOs for set-based statements. They are held for
+ * {@link #COALESCE_MILLIS} ms, and each burst is delivered as one list per subscriber:
+ * successive changes of an entity are merged (created then updated is one creation,
+ * created then deleted is nothing), and more than {@link #MAX_CHANGES_PER_TYPE} changes
+ * of a type collapse into a single {@link EntityChange.Kind#BULK} change.
+ *
+ * <pre>
+ * EntityEventBus.getInstance().subscribe(Bien.class, Platform::runLater, changes -&gt; ...);
+ * </pre>
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class EntityEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityEventBus.class);
+
+    /**
+     * Delay during which changes are collected before delivery.
+     */
+    public static final long COALESCE_MILLIS = 100;
+
+    /**
+     * Number of changes of a type above which a burst is delivered as one bulk change.
+     */
+    public static final int MAX_CHANGES_PER_TYPE = 200;
+
+    private static final EntityEventBus INSTANCE = new EntityEventBus(COALESCE_MILLIS);
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "entity-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long coalesceMillis;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private Map<Class<?>, Burst> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    /**
+     * Constructor.
+     *
+     * @param coalesceMillis the delay during which changes are collected, 0 to deliver
+     *                       only on {@link #flush()}
+     */
+    public EntityEventBus(long coalesceMillis) {
+        this.coalesceMillis = coalesceMillis;
+    }
+
+    /**
+     * Gets the application bus.
+     *
+     * @return the bus
+     */
+    public static EntityEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Subscribes to the changes of an entity type.
+     *
+     * @param entityType the entity class
+     * @param executor runs the listener, e.g. {@code Platform::runLater}
+     * @param listener receives each burst of changes, never empty
+     * @return the subscription, to close when the subscriber goes away
+     */
+    public Subscription subscribe(Class<?> entityType, Executor executor, Consumer<List<EntityChange>> listener) {
+        Subscription subscription = new Subscription(entityType, executor, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publishes a committed change.
+     *
+     * @param change the change
+     */
+    public void publish(EntityChange change) {
+        publishAll(List.of(change));
+    }
+
+    /**
+     * Publishes committed changes.
+     *
+     * @param changes the changes
+     */
+    public void publishAll(Collection<EntityChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            for (EntityChange change : changes) {
+                pending.computeIfAbsent(change.entityType(), type -> new Burst()).add(change);
+            }
+            if (!scheduled && coalesceMillis > 0) {
+                scheduled = true;
+                SCHEDULER.schedule(this::flush, coalesceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Delivers the changes collected so far.
+     */
+    public void flush() {
+        Map<Class<?>, Burst> bursts;
+        synchronized (lock) {
+            bursts = pending;
+            pending = new LinkedHashMap<>();
+            scheduled = false;
+        }
+        bursts.forEach((type, burst) -> {
+            List<EntityChange> changes = burst.changes(type);
+            if (changes.isEmpty()) {
+                return;
+            }
+            logger.debug("{} change(s) of {}", changes.size(), type.getSimpleName());
+            for (Subscription subscription : subscriptions) {
+                if (subscription.entityType.equals(type)) {
+                    subscription.deliver(changes);
+                }
+            }
+        });
+    }
+
+    /**
+     * The changes of one type collected during a burst.
+     */
+    private static final class Burst {
+
+        private final Map<Object, EntityChange> byId = new LinkedHashMap<>();
+        private boolean bulk;
+
+        private void add(EntityChange change) {
+            if (change.kind() == EntityChange.Kind.BULK) {
+                bulk = true;
+            } else if (!bulk) {
+                byId.compute(change.id(), (id, earlier) -> earlier == null ? change : earlier.then(change));
+            }
+        }
+
+        private List<EntityChange> changes(Class<?> type) {
+            if (bulk || byId.size() > MAX_CHANGES_PER_TYPE) {
+                return List.of(EntityChange.bulk(type));
+            }
+            return new ArrayList<>(byId.values());
+        }
+    }
+
+    /**
+     * A subscription to the changes of an entity type.
+     */
+    public final class Subscription {
+
+        private final Class<?> entityType;
+        private final Executor executor;
+        private final Consumer<List<EntityChange>> listener;
+
+        private Subscription(Class<?> entityType, Executor executor, Consumer<List<EntityChange>> listener) {
+            this.entityType = entityType;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        /**
+         * Stops the delivery of changes. Safe to call more than once.
+         */
+        public void close() {
+            subscriptions.remove(this);
+        }
+
+        private void deliver(List<EntityChange> changes) {
+            executor.execute(() -> {
+                try {
+                    listener.accept(changes);
+                } catch (RuntimeException e) {
+                    logger.error("Error handling changes of {}", entityType.getSimpleName(), e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.immosync.gesttravaux.events;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes the entities written through a session on the {@link EntityEventBus},
+ * once the transaction has committed. An update carries the names of the attributes
+ * Hibernate found dirty. Set-based statements bypass these events; the DAOs publish
+ * their changes themselves.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class EntityEventListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityEventBus.getInstance().publish(EntityChange.created(event.getPersister().getMappedClass(), event.getId()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        List<String> attributes = new ArrayList<>();
+        if (event.getDirtyProperties() != null) {
+            String[] names = persister.getPropertyNames();
+            for (int index : event.getDirtyProperties()) {
+                attributes.add(names[index]);
+            }
+        }
+        EntityEventBus.getInstance().publish(EntityChange.updated(persister.getMappedClass(), event.getId(), attributes));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityEventBus.getInstance().publish(EntityChange.deleted(event.getPersister().getMappedClass(), event.getId()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    /**
+     * Registers the listener with the session factory.
+     */
+    public static class Registration implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            EntityEventListener listener = new EntityEventListener();
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+            registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+            registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
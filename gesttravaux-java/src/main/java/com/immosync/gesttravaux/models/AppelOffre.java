@@ -1,6 +1,7 @@
 package com.immosync.gesttravaux.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 /**
@@ -19,6 +20,11 @@ public class AppelOffre {
     @Column(name = "idAPPEL_OFFRE")
     private Integer idAppelOffre;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "Prix", length = 45)
     private String prix;
 
@@ -75,6 +81,24 @@ public class AppelOffre {
         this.idAppelOffre = idAppelOffre;
     }
 
+    /**
+     * Gets the version, incremented by each update and checked by the next one.
+     *
+     * @return the version, null until the entity is saved
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version.
+     *
+     * @param version the version
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     /**
      * Gets the price range.
      *
@@ -1,6 +1,7 @@
 package com.immosync.gesttravaux.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -13,20 +14,33 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "BIENS")
+@NamedEntityGraph(name = Bien.GRAPH_LIST, attributeNodes = @NamedAttributeNode("proprietaire"))
 public class Bien {
 
+    /**
+     * Entity graph of the bien table: the proprietaire.
+     */
+    public static final String GRAPH_LIST = "Bien.list";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bien_id")
+    @TableGenerator(name = "bien_id", table = "ID_GENERATORS", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "BIENS", allocationSize = 50)
     @Column(name = "idBien")
     private Integer idBien;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "adresseBien", length = 45, nullable = false)
     private String adresseBien;
 
     @Column(name = "villeBien", length = 45, nullable = false)
     private String villeBien;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PROPRIETAIRES_idProprietaire", nullable = false)
     private Proprietaire proprietaire;
 
@@ -72,6 +86,24 @@ public class Bien {
         this.idBien = idBien;
     }
 
+    /**
+     * Gets the version, incremented by each update and checked by the next one.
+     *
+     * @return the version, null until the entity is saved
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version.
+     *
+     * @param version the version
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     /**
      * Gets the property address.
      *
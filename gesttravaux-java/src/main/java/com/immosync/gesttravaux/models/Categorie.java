@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.models;
 
+import com.immosync.gesttravaux.config.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,6 +15,8 @@ import java.util.Set;
  * @version 1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CATEGORIE)
 @Table(name = "CATEGORIES")
 public class Categorie {
 
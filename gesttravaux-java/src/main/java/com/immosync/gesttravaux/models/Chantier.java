@@ -1,6 +1,8 @@
 package com.immosync.gesttravaux.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -13,13 +15,40 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "CHANTIERS")
+@NamedEntityGraph(name = Chantier.GRAPH_LIST, attributeNodes = {
+        @NamedAttributeNode("bien"),
+        @NamedAttributeNode("inspecteur")
+})
+@NamedEntityGraph(name = Chantier.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("bien"),
+        @NamedAttributeNode("inspecteur"),
+        @NamedAttributeNode("documents")
+})
+@DynamicUpdate
 public class Chantier {
 
+    /**
+     * Entity graph of the chantier table: the bien and the inspecteur.
+     */
+    public static final String GRAPH_LIST = "Chantier.list";
+
+    /**
+     * Entity graph of the chantier form: the list graph plus the documents.
+     */
+    public static final String GRAPH_DETAIL = "Chantier.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "chantier_id")
+    @TableGenerator(name = "chantier_id", table = "ID_GENERATORS", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "CHANTIERS", allocationSize = 50)
     @Column(name = "idChantier")
     private Integer idChantier;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "villeChantier", length = 45, nullable = false)
     private String villeChantier;
 
@@ -32,11 +61,11 @@ public class Chantier {
     @Column(name = "statutChantier")
     private Integer statutChantier;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "INSPECTEURS_idInspecteur")
     private Inspecteur inspecteur;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "BIENS_idBien", nullable = false)
     private Bien bien;
 
@@ -92,6 +121,24 @@ public class Chantier {
         this.idChantier = idChantier;
     }
 
+    /**
+     * Gets the version, incremented by each update and checked by the next one.
+     *
+     * @return the version, null until the entity is saved
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version.
+     *
+     * @param version the version
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     /**
      * Gets the chantier city.
      *
@@ -281,6 +328,16 @@ public class Chantier {
      * @return status string
      */
     public String getStatutString() {
+        return statutLibelle(statutChantier);
+    }
+
+    /**
+     * Converts a status code to a readable string.
+     *
+     * @param statutChantier the status code
+     * @return status string
+     */
+    public static String statutLibelle(Integer statutChantier) {
         if (statutChantier == null) return "Non défini";
         switch (statutChantier) {
             case 0: return "Non démarré";
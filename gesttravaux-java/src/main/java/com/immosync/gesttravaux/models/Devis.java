@@ -1,6 +1,8 @@
 package com.immosync.gesttravaux.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 /**
@@ -12,13 +14,47 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "DEVIS")
+@NamedEntityGraph(name = Devis.GRAPH_LIST, attributeNodes = {
+        @NamedAttributeNode(value = "prestation", subgraph = "prestation"),
+        @NamedAttributeNode("entrepreneur"),
+        @NamedAttributeNode("chantier")
+}, subgraphs = @NamedSubgraph(name = "prestation", attributeNodes = @NamedAttributeNode("categorie")))
+@DynamicUpdate
 public class Devis {
 
+    /**
+     * Entity graph of devis lists: the prestation with its categorie, the entrepreneur
+     * and the chantier.
+     */
+    public static final String GRAPH_LIST = "Devis.list";
+
+    /**
+     * Status of a devis awaiting a decision.
+     */
+    public static final String STATUT_EN_ATTENTE = "En attente";
+
+    /**
+     * Status of an accepted devis.
+     */
+    public static final String STATUT_ACCEPTE = "Accepté";
+
+    /**
+     * Status of a rejected devis.
+     */
+    public static final String STATUT_REFUSE = "Refusé";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "devis_id")
+    @TableGenerator(name = "devis_id", table = "ID_GENERATORS", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "DEVIS", allocationSize = 50)
     @Column(name = "idDevis")
     private Integer idDevis;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "prix")
     private Integer prix;
 
@@ -31,15 +67,15 @@ public class Devis {
     @Column(name = "statut", length = 20)
     private String statut;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PRESTATIONS_idPrestation", nullable = false)
     private Prestation prestation;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ENTREPRENEURS_idEntrepreneur", nullable = false)
     private Entrepreneur entrepreneur;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CHANTIERS_idChantier", nullable = false)
     private Chantier chantier;
 
@@ -48,7 +84,7 @@ public class Devis {
      */
     public Devis() {
         this.dateCreation = LocalDateTime.now();
-        this.statut = "En attente";
+        this.statut = STATUT_EN_ATTENTE;
     }
 
     /**
@@ -67,7 +103,7 @@ public class Devis {
         this.entrepreneur = entrepreneur;
         this.chantier = chantier;
         this.dateCreation = LocalDateTime.now();
-        this.statut = "En attente";
+        this.statut = STATUT_EN_ATTENTE;
     }
 
     // Getters and Setters
@@ -90,6 +126,24 @@ public class Devis {
         this.idDevis = idDevis;
     }
 
+    /**
+     * Gets the version, incremented by each update and checked by the next one.
+     *
+     * @return the version, null until the entity is saved
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version.
+     *
+     * @param version the version
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     /**
      * Gets the devis price.
      *
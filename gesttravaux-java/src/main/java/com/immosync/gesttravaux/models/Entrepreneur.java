@@ -1,6 +1,13 @@
 package com.immosync.gesttravaux.models;
 
+import com.immosync.gesttravaux.config.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -13,13 +20,27 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "ENTREPRENEURS")
+@NamedEntityGraph(name = Entrepreneur.GRAPH_DETAIL, attributeNodes = @NamedAttributeNode("categories"))
+@DynamicUpdate
 public class Entrepreneur {
 
+    /**
+     * Entity graph of the entrepreneur form: the categories.
+     */
+    public static final String GRAPH_DETAIL = "Entrepreneur.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "entrepreneur_id")
+    @TableGenerator(name = "entrepreneur_id", table = "ID_GENERATORS", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "ENTREPRENEURS", allocationSize = 50)
     @Column(name = "idEntrepreneur")
     private Integer idEntrepreneur;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "nomEntrepreneur", length = 100, nullable = false)
     private String nomEntrepreneur;
 
@@ -35,12 +56,14 @@ public class Entrepreneur {
     @Column(name = "villeDeploiement", length = 255)
     private String villeDeploiement;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
         name = "ENTREPRENEURS_has_CATEGORIES",
         joinColumns = @JoinColumn(name = "ENTREPRENEURS_idEntrepreneur"),
         inverseJoinColumns = @JoinColumn(name = "CATEGORIES_idCategorie")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ENTREPRENEUR_CATEGORIES)
+    @Fetch(FetchMode.SUBSELECT)
     private Set<Categorie> categories = new HashSet<>();
 
     @OneToMany(mappedBy = "entrepreneur", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -85,6 +108,24 @@ public class Entrepreneur {
         this.idEntrepreneur = idEntrepreneur;
     }
 
+    /**
+     * Gets the version, incremented by each update and checked by the next one.
+     *
+     * @return the version, null until the entity is saved
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version.
+     *
+     * @param version the version
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     /**
      * Gets the entrepreneur last name.
      *
@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.models;
 
+import com.immosync.gesttravaux.config.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,9 +15,17 @@ import java.util.Set;
  * @version 1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRESTATION)
 @Table(name = "PRESTATIONS")
+@NamedEntityGraph(name = Prestation.GRAPH_LIST, attributeNodes = @NamedAttributeNode("categorie"))
 public class Prestation {
 
+    /**
+     * Entity graph of the prestation table: the categorie.
+     */
+    public static final String GRAPH_LIST = "Prestation.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "idPrestation")
@@ -23,7 +34,7 @@ public class Prestation {
     @Column(name = "libelle", length = 45, nullable = false)
     private String libelle;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CATEGORIES_idCategorie", nullable = false)
     private Categorie categorie;
 
@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.models;
 
+import com.immosync.gesttravaux.config.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,11 +15,15 @@ import java.util.Set;
  * @version 1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROPRIETAIRE)
 @Table(name = "PROPRIETAIRES")
 public class Proprietaire {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "proprietaire_id")
+    @TableGenerator(name = "proprietaire_id", table = "ID_GENERATORS", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "PROPRIETAIRES", allocationSize = 50)
     @Column(name = "idProprietaire")
     private Integer idProprietaire;
 
@@ -0,0 +1,54 @@
+package com.immosync.gesttravaux.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.util.ElisionFilter;
+
+/**
+ * French text analysis of the search index.
+ * Words are split, stripped of elided articles (l', d'...), lower-cased, filtered of
+ * French stop words and folded to ASCII, so "École" and "ecole" give the same term.
+ * The stemming analyzer then reduces each word to its stem ("peintures" and "peinture");
+ * the other one keeps whole words, for prefix matching.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+final class FrenchSearchAnalyzer extends Analyzer {
+
+    private final boolean stemming;
+
+    /**
+     * Constructor.
+     *
+     * @param stemming true to reduce words to their stem
+     */
+    FrenchSearchAnalyzer(boolean stemming) {
+        this.stemming = stemming;
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer source = new StandardTokenizer();
+        TokenStream result = new ElisionFilter(source, FrenchAnalyzer.DEFAULT_ARTICLES);
+        result = new LowerCaseFilter(result);
+        result = new StopFilter(result, FrenchAnalyzer.getDefaultStopSet());
+        result = new ASCIIFoldingFilter(result);
+        if (stemming) {
+            result = new FrenchLightStemFilter(result);
+        }
+        return new TokenStreamComponents(source, result);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
@@ -0,0 +1,14 @@
+package com.immosync.gesttravaux.search;
+
+/**
+ * One result of a {@link SearchIndex} search.
+ *
+ * @param type the entity type
+ * @param id the entity ID
+ * @param label the text shown for the entity
+ * @param score the relevance score, higher is better
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public record SearchHit(SearchType type, Integer id, String label, float score) {
+}
@@ -0,0 +1,412 @@
+package com.immosync.gesttravaux.search;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory full-text index of chantiers, biens, entrepreneurs and proprietaires.
+ * Text is analysed for French ({@link FrenchSearchAnalyzer}): accents are folded and
+ * words stemmed. A search ranks its hits by relevance over all the fields of a type,
+ * a name or an address weighing more than a city or an email, and tolerates typos
+ * (fuzzy matching) and unfinished words (prefix matching).
+ * <p>
+ * The index is built from the database once at startup ({@link #rebuild(SessionFactory)}),
+ * then kept up to date after each commit by the {@link SearchIndexListener} and by the
+ * set-based writes of the DAOs. Until it is built, {@link #findIds(SearchType, String)}
+ * returns nothing and the DAOs fall back to their LIKE queries.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class SearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+    private static final SearchIndex INSTANCE = new SearchIndex();
+
+    /**
+     * Maximum number of hits returned to the search fields.
+     */
+    public static final int DEFAULT_LIMIT = 200;
+
+    static final String NOM = "nom";
+    static final String PRENOM = "prenom";
+    static final String ADRESSE = "adresse";
+    static final String VILLE = "ville";
+    static final String EMAIL = "email";
+    static final String INFO = "info";
+
+    /**
+     * Weight of each indexed field in the relevance score.
+     */
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            NOM, 4f, ADRESSE, 3f, PRENOM, 2f, VILLE, 2f, EMAIL, 1f, INFO, 1f);
+
+    private static final String KEY = "_key";
+    private static final String TYPE = "_type";
+    private static final String ID = "_id";
+    private static final String LABEL = "_label";
+    private static final String WORDS = "_words";
+
+    /**
+     * Words shorter than this must match exactly; typos are tolerated in longer ones.
+     */
+    private static final int FUZZY_MIN_LENGTH = 4;
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final float PREFIX_WEIGHT = 0.3f;
+
+    private final Analyzer stemmingAnalyzer = new FrenchSearchAnalyzer(true);
+    private final Analyzer wordAnalyzer = new FrenchSearchAnalyzer(false);
+    private final IndexWriter writer;
+    private final SearcherManager searchers;
+    private final Object writeLock = new Object();
+    private volatile boolean ready;
+    private volatile Set<String> writtenDuringRebuild;
+
+    /**
+     * Creates an empty index.
+     */
+    public SearchIndex() {
+        try {
+            Analyzer analyzer = new PerFieldAnalyzerWrapper(stemmingAnalyzer, Map.of(WORDS, wordAnalyzer));
+            writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            searchers = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating search index", e);
+        }
+    }
+
+    /**
+     * Gets the index shared by the whole application.
+     *
+     * @return the shared index
+     */
+    public static SearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks if the index has been built from the database.
+     *
+     * @return true once {@link #rebuild(SessionFactory)} has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces the document of an entity.
+     * Entities of a type that is not indexed, or without an ID, are ignored.
+     *
+     * @param entity the entity
+     */
+    public void index(Object entity) {
+        if (entity == null) {
+            return;
+        }
+        SearchType.of(entity.getClass()).ifPresent(type -> {
+            Integer id = type.idOf(entity);
+            if (id != null) {
+                write(type, id, entity, false);
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * Adds or replaces the documents of several entities.
+     *
+     * @param entities the entities
+     */
+    public void indexAll(Collection<?> entities) {
+        for (Object entity : entities) {
+            SearchType.of(entity.getClass()).ifPresent(type -> {
+                Integer id = type.idOf(entity);
+                if (id != null) {
+                    write(type, id, entity, false);
+                }
+            });
+        }
+        refresh();
+    }
+
+    /**
+     * Removes the documents of entities.
+     *
+     * @param entityClass the entity class
+     * @param ids the entity IDs
+     */
+    public void remove(Class<?> entityClass, Collection<?> ids) {
+        SearchType.of(entityClass).ifPresent(type -> {
+            for (Object id : ids) {
+                write(type, id, null, false);
+            }
+            refresh();
+        });
+    }
+
+    /**
+     * Searches the entities of some types, best hits first.
+     * Every word of the text must match a field of the entity, exactly, after
+     * stemming, with a typo, or as the start of a word.
+     *
+     * @param text the text typed by the user
+     * @param types the entity types to search
+     * @param limit the maximum number of hits
+     * @return the hits, by decreasing relevance
+     */
+    public List<SearchHit> search(String text, Set<SearchType> types, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        Query query = buildQuery(text == null ? "" : text, types);
+        if (query == null || types.isEmpty()) {
+            return hits;
+        }
+        try {
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                for (ScoreDoc scoreDoc : searcher.search(query, limit).scoreDocs) {
+                    Document document = searcher.storedFields().document(scoreDoc.doc);
+                    hits.add(new SearchHit(SearchType.valueOf(document.get(TYPE)),
+                            document.getField(ID).numericValue().intValue(),
+                            document.get(LABEL), scoreDoc.score));
+                }
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            logger.error("Error searching index for: {}", text, e);
+            throw new RuntimeException("Error searching index", e);
+        }
+        return hits;
+    }
+
+    /**
+     * Searches every indexed type.
+     *
+     * @param text the text typed by the user
+     * @param limit the maximum number of hits
+     * @return the hits, by decreasing relevance
+     */
+    public List<SearchHit> search(String text, int limit) {
+        return search(text, EnumSet.allOf(SearchType.class), limit);
+    }
+
+    /**
+     * Finds the IDs of the entities of one type matching a text, best first.
+     * Used by the DAO searches, which load the entities or rows of these IDs.
+     *
+     * @param type the entity type
+     * @param text the text typed by the user
+     * @return the IDs, or empty while the index is not built
+     */
+    public Optional<List<Integer>> findIds(SearchType type, String text) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(search(text, EnumSet.of(type), DEFAULT_LIMIT).stream()
+                .map(SearchHit::id)
+                .toList());
+    }
+
+    /**
+     * Rebuilds the whole index from the database, streaming each table through a
+     * StatelessSession. Entities written by a commit while the rebuild runs keep
+     * the document of that commit.
+     *
+     * @param sessionFactory the session factory
+     */
+    public void rebuild(SessionFactory sessionFactory) {
+        long start = System.nanoTime();
+        int count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            synchronized (writeLock) {
+                writer.deleteAll();
+                writtenDuringRebuild = ConcurrentHashMap.newKeySet();
+            }
+            for (SearchType type : SearchType.values()) {
+                try (ScrollableResults<?> results = session.createSelectionQuery(
+                                "FROM " + type.getEntityClass().getSimpleName(), type.getEntityClass())
+                        .setFetchSize(HibernateUtil.getStreamingFetchSize(sessionFactory))
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        Object entity = results.get();
+                        write(type, type.idOf(entity), entity, true);
+                        count++;
+                    }
+                }
+            }
+            refresh();
+            ready = true;
+            logger.info("Search index built with {} documents in {} ms", count,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Error building search index", e);
+            throw new RuntimeException("Error building search index", e);
+        } finally {
+            writtenDuringRebuild = null;
+        }
+    }
+
+    /**
+     * Rebuilds the index on a background thread.
+     *
+     * @param sessionFactory the session factory
+     */
+    public void rebuildInBackground(SessionFactory sessionFactory) {
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild(sessionFactory);
+            } catch (RuntimeException e) {
+                logger.warn("Search index unavailable, searches use LIKE queries", e);
+            }
+        }, "search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Writes or deletes the document of one entity.
+     * A rebuild skips the entities already written by a commit since it started,
+     * as the row it read may be older.
+     *
+     * @param entity the entity, or null to delete its document
+     */
+    private void write(SearchType type, Object id, Object entity, boolean fromRebuild) {
+        String key = type.name() + ":" + id;
+        try {
+            synchronized (writeLock) {
+                Set<String> written = writtenDuringRebuild;
+                if (written != null) {
+                    if (fromRebuild && written.contains(key)) {
+                        return;
+                    }
+                    if (!fromRebuild) {
+                        written.add(key);
+                    }
+                }
+                if (entity == null) {
+                    writer.deleteDocuments(new Term(KEY, key));
+                } else {
+                    writer.updateDocument(new Term(KEY, key), document(type, key, entity));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Error indexing {}", key, e);
+            throw new RuntimeException("Error indexing " + key, e);
+        }
+    }
+
+    private static Document document(SearchType type, String key, Object entity) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key, Field.Store.NO));
+        document.add(new StringField(TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(ID, type.idOf(entity)));
+        document.add(new StoredField(LABEL, type.labelOf(entity)));
+        type.fieldsOf(entity).forEach((name, text) -> {
+            document.add(new TextField(name, text, Field.Store.NO));
+            document.add(new TextField(WORDS, text, Field.Store.NO));
+        });
+        return document;
+    }
+
+    /**
+     * Makes the latest writes visible to searches.
+     */
+    private void refresh() {
+        try {
+            searchers.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new RuntimeException("Error refreshing search index", e);
+        }
+    }
+
+    /**
+     * Builds the query of a text: every word must match one of the fields, the
+     * exact stem scoring more than a typo or a prefix.
+     *
+     * @return the query, or null if the text has no searchable word
+     */
+    private Query buildQuery(String text, Set<SearchType> types) {
+        List<String> words = analyze(wordAnalyzer, text);
+        if (words.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words) {
+            List<String> stems = analyze(stemmingAnalyzer, word);
+            String stem = stems.isEmpty() ? word : stems.get(0);
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                Term term = new Term(field, stem);
+                anyField.add(new BoostQuery(new TermQuery(term), boost), BooleanClause.Occur.SHOULD);
+                if (stem.length() >= FUZZY_MIN_LENGTH) {
+                    int maxEdits = stem.length() >= 2 * FUZZY_MIN_LENGTH ? 2 : 1;
+                    anyField.add(new BoostQuery(new FuzzyQuery(term, maxEdits, 1), boost * FUZZY_WEIGHT),
+                            BooleanClause.Occur.SHOULD);
+                }
+            });
+            anyField.add(new BoostQuery(new PrefixQuery(new Term(WORDS, word)), PREFIX_WEIGHT),
+                    BooleanClause.Occur.SHOULD);
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder typeFilter = new BooleanQuery.Builder();
+        for (SearchType type : types) {
+            typeFilter.add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.SHOULD);
+        }
+        query.add(typeFilter.build(), BooleanClause.Occur.FILTER);
+        return query.build();
+    }
+
+    private static List<String> analyze(Analyzer analyzer, String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(WORDS, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Error analysing search text", e);
+        }
+        return tokens;
+    }
+}
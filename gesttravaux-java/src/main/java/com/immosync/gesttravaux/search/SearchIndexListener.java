@@ -0,0 +1,101 @@
+package com.immosync.gesttravaux.search;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link SearchIndex} up to date with the entities written through a session.
+ * The index is only changed once the transaction has committed, so a rollback never
+ * reaches it. A failure to index is logged and does not fail the write.
+ * Set-based statements bypass these events; the DAOs update the index for them.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class SearchIndexListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexListener.class);
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        update(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        update(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        try {
+            SearchIndex.getInstance().remove(event.getPersister().getMappedClass(), List.of(event.getId()));
+        } catch (RuntimeException e) {
+            logger.error("Error removing {} from search index", event.getEntity(), e);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return SearchType.of(persister.getMappedClass()).isPresent();
+    }
+
+    private static void update(Object entity) {
+        try {
+            SearchIndex.getInstance().index(entity);
+        } catch (RuntimeException e) {
+            logger.error("Error indexing {}", entity, e);
+        }
+    }
+
+    /**
+     * Registers the listener with the session factory.
+     */
+    public static class Registration implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            SearchIndexListener listener = new SearchIndexListener();
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+            registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+            registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.immosync.gesttravaux.search;
+
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.models.Proprietaire;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The entity types held in the {@link SearchIndex}, with the text of each indexed field.
+ * Only the entity's own columns are indexed, so no association is ever loaded to index it.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public enum SearchType {
+
+    CHANTIER(Chantier.class) {
+        @Override
+        Integer idOf(Object entity) {
+            return ((Chantier) entity).getIdChantier();
+        }
+
+        @Override
+        String labelOf(Object entity) {
+            Chantier chantier = (Chantier) entity;
+            return chantier.getAdresseChantier() + ", " + chantier.getVilleChantier();
+        }
+
+        @Override
+        Map<String, String> fieldsOf(Object entity) {
+            Chantier chantier = (Chantier) entity;
+            return fields(SearchIndex.ADRESSE, chantier.getAdresseChantier(),
+                    SearchIndex.VILLE, chantier.getVilleChantier(),
+                    SearchIndex.INFO, chantier.getInfoChantier());
+        }
+    },
+
+    BIEN(Bien.class) {
+        @Override
+        Integer idOf(Object entity) {
+            return ((Bien) entity).getIdBien();
+        }
+
+        @Override
+        String labelOf(Object entity) {
+            return ((Bien) entity).getFullAddress();
+        }
+
+        @Override
+        Map<String, String> fieldsOf(Object entity) {
+            Bien bien = (Bien) entity;
+            return fields(SearchIndex.ADRESSE, bien.getAdresseBien(),
+                    SearchIndex.VILLE, bien.getVilleBien());
+        }
+    },
+
+    ENTREPRENEUR(Entrepreneur.class) {
+        @Override
+        Integer idOf(Object entity) {
+            return ((Entrepreneur) entity).getIdEntrepreneur();
+        }
+
+        @Override
+        String labelOf(Object entity) {
+            return ((Entrepreneur) entity).getFullName();
+        }
+
+        @Override
+        Map<String, String> fieldsOf(Object entity) {
+            Entrepreneur entrepreneur = (Entrepreneur) entity;
+            return fields(SearchIndex.NOM, entrepreneur.getNomEntrepreneur(),
+                    SearchIndex.PRENOM, entrepreneur.getPrenomEntrepreneur(),
+                    SearchIndex.VILLE, entrepreneur.getVilleDeploiement(),
+                    SearchIndex.EMAIL, entrepreneur.getEmailEntrepreneur());
+        }
+    },
+
+    PROPRIETAIRE(Proprietaire.class) {
+        @Override
+        Integer idOf(Object entity) {
+            return ((Proprietaire) entity).getIdProprietaire();
+        }
+
+        @Override
+        String labelOf(Object entity) {
+            return ((Proprietaire) entity).getFullName();
+        }
+
+        @Override
+        Map<String, String> fieldsOf(Object entity) {
+            Proprietaire proprietaire = (Proprietaire) entity;
+            return fields(SearchIndex.NOM, proprietaire.getNomProprietaire(),
+                    SearchIndex.PRENOM, proprietaire.getPrenomProprietaire(),
+                    SearchIndex.EMAIL, proprietaire.getEmailProprietaire());
+        }
+    };
+
+    private final Class<?> entityClass;
+
+    SearchType(Class<?> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Gets the indexed entity class.
+     *
+     * @return the entity class
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Gets the search type of an entity class.
+     *
+     * @param type the entity class
+     * @return the search type, or empty if the entity is not indexed
+     */
+    public static Optional<SearchType> of(Class<?> type) {
+        for (SearchType searchType : values()) {
+            if (searchType.entityClass.isAssignableFrom(type)) {
+                return Optional.of(searchType);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the ID of an entity of this type.
+     */
+    abstract Integer idOf(Object entity);
+
+    /**
+     * Gets the label shown for an entity of this type in search results.
+     */
+    abstract String labelOf(Object entity);
+
+    /**
+     * Gets the text of each indexed field of an entity of this type, by field name.
+     */
+    abstract Map<String, String> fieldsOf(Object entity);
+
+    /**
+     * Builds a field map from (name, text) pairs, skipping empty texts.
+     */
+    private static Map<String, String> fields(String... namesAndTexts) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndTexts.length; i += 2) {
+            String text = namesAndTexts[i + 1];
+            if (text != null && !text.isBlank()) {
+                fields.put(namesAndTexts[i], text);
+            }
+        }
+        return fields;
+    }
+}
@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.services;
 
 import com.immosync.gesttravaux.dao.BienDAO;
+import com.immosync.gesttravaux.dao.Page;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dto.BienRow;
 import com.immosync.gesttravaux.models.Bien;
 
 import java.util.List;
@@ -59,10 +62,7 @@ public class BienService {
      * @param bienId the property ID
      */
     public void deleteBien(Integer bienId) {
-        Optional<Bien> bien = bienDAO.findById(bienId);
-        if (bien.isPresent()) {
-            bienDAO.delete(bien.get());
-        } else {
+        if (!bienDAO.deleteById(bienId)) {
             throw new IllegalArgumentException("Bien non trouvé");
         }
     }
@@ -86,6 +86,28 @@ public class BienService {
         return bienDAO.findAllOrdered();
     }
 
+    /**
+     * Gets one page of the bien table.
+     *
+     * @param sort the sort order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<BienRow> getBienRows(Sort sort, Page.Cursor after, int limit) {
+        return bienDAO.findRowPage(sort, after, limit);
+    }
+
+    /**
+     * Gets the bien table rows of some properties.
+     *
+     * @param ids the property IDs
+     * @return the rows of the properties that still exist
+     */
+    public List<BienRow> getBienRows(List<Integer> ids) {
+        return bienDAO.findRowsById(ids);
+    }
+
     /**
      * Searches properties by address.
      *
@@ -96,6 +118,16 @@ public class BienService {
         return bienDAO.searchByAddress(searchTerm);
     }
 
+    /**
+     * Searches properties like {@link #searchByAddress(String)}, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<BienRow> searchRowsByAddress(String searchTerm) {
+        return bienDAO.searchRowsByAddress(searchTerm);
+    }
+
     /**
      * Finds properties by city.
      *
@@ -122,7 +154,7 @@ public class BienService {
      * @param bien the property to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateBien(Bien bien) {
+    static void validateBien(Bien bien) {
         if (bien == null) {
             throw new IllegalArgumentException("Le bien ne peut pas être null");
         }
@@ -0,0 +1,447 @@
+package com.immosync.gesttravaux.services;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dao.QueryResultCache;
+import com.immosync.gesttravaux.events.EntityChange;
+import com.immosync.gesttravaux.events.EntityEventBus;
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.models.Inspecteur;
+import com.immosync.gesttravaux.models.Proprietaire;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.utils.CsvReader;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for importing large CSV files of entrepreneurs, proprietaires, biens and chantiers.
+ * Files are read one row at a time; each row is checked with the same rules as the
+ * corresponding service, and its references (emails, category types, addresses) are
+ * resolved through lookup maps loaded once per import instead of one query per row.
+ * Valid rows are written through a {@link StatelessSession}, one transaction per batch.
+ * If a batch fails, its rows are retried one by one so only the faulty rows are rejected.
+ *
+ * <p>Expected columns (header line required, ';' or ',' separated, UTF-8):
+ * <ul>
+ *   <li>Entrepreneurs: nom, prenom, email, telephone, ville, categories (types separated by '|')</li>
+ *   <li>Propriétaires: nom, prenom, email, telephone</li>
+ *   <li>Biens: adresse, ville, email_proprietaire</li>
+ *   <li>Chantiers: adresse, ville, info, statut, adresse_bien, ville_bien, email_inspecteur</li>
+ * </ul>
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    /**
+     * Number of rows written per transaction by default.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String INSERT_ENTREPRENEUR_CATEGORIE =
+            "INSERT INTO ENTREPRENEURS_has_CATEGORIES (ENTREPRENEURS_idEntrepreneur, CATEGORIES_idCategorie) "
+                    + "VALUES (?, ?)";
+
+    private final int batchSize;
+
+    /**
+     * Constructor.
+     */
+    public BulkImportService() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor with batch size.
+     *
+     * @param batchSize number of rows written per transaction
+     */
+    public BulkImportService(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("La taille de lot doit être positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports entrepreneurs. Emails already in the database or earlier in the file are rejected,
+     * and every category must exist.
+     *
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importEntrepreneurs(Path file) throws IOException {
+        Set<String> emails;
+        Map<String, Integer> categories;
+        try (StatelessSession session = openSession()) {
+            emails = new HashSet<>(session.createQuery(
+                    "SELECT LOWER(e.emailEntrepreneur) FROM Entrepreneur e", String.class).getResultList());
+            categories = lookup(session, "SELECT LOWER(c.type), c.idCategorie FROM Categorie c");
+        }
+
+        ImportReport report = run("Entrepreneurs", file,
+                new String[]{"nom", "prenom", "email"},
+                row -> {
+                    Entrepreneur entrepreneur = new Entrepreneur(
+                            row.get("nom"), row.get("prenom"), row.get("email"));
+                    entrepreneur.setTelEntrepreneur(row.get("telephone"));
+                    entrepreneur.setVilleDeploiement(row.get("ville"));
+                    EntrepreneurService.validateEntrepreneur(entrepreneur);
+
+                    List<Integer> categorieIds = new ArrayList<>();
+                    String types = row.get("categories");
+                    if (types != null) {
+                        for (String type : types.split("\\|")) {
+                            if (!type.isBlank()) {
+                                categorieIds.add(resolve(categories, type, "Catégorie inconnue : " + type.trim()));
+                            }
+                        }
+                    }
+                    claimUnique(emails, entrepreneur.getEmailEntrepreneur(),
+                            "Un entrepreneur avec cet email existe déjà");
+                    return new Pending<>(row.getLine(), entrepreneur, categorieIds);
+                },
+                (session, batch) -> {
+                    for (Pending<Entrepreneur> pending : batch) {
+                        session.insert(pending.entity());
+                    }
+                    session.doWork(connection -> {
+                        try (PreparedStatement statement = connection.prepareStatement(INSERT_ENTREPRENEUR_CATEGORIE)) {
+                            for (Pending<Entrepreneur> pending : batch) {
+                                for (Integer categorieId : pending.links()) {
+                                    statement.setInt(1, pending.entity().getIdEntrepreneur());
+                                    statement.setInt(2, categorieId);
+                                    statement.addBatch();
+                                }
+                            }
+                            statement.executeBatch();
+                        }
+                    });
+                });
+        QueryResultCache.getInstance().invalidate(Entrepreneur.class);
+        return report;
+    }
+
+    /**
+     * Imports proprietaires. Emails already in the database or earlier in the file are rejected.
+     *
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importProprietaires(Path file) throws IOException {
+        Set<String> emails;
+        try (StatelessSession session = openSession()) {
+            emails = new HashSet<>(session.createQuery(
+                    "SELECT LOWER(p.emailProprietaire) FROM Proprietaire p", String.class).getResultList());
+        }
+
+        ImportReport report = run("Propriétaires", file,
+                new String[]{"nom", "prenom", "email"},
+                row -> {
+                    Proprietaire proprietaire = new Proprietaire(
+                            row.get("nom"), row.get("prenom"), row.get("email"));
+                    proprietaire.setTelProprietaire(row.get("telephone"));
+                    ProprietaireService.validateProprietaire(proprietaire);
+                    claimUnique(emails, proprietaire.getEmailProprietaire(),
+                            "Un propriétaire avec cet email existe déjà");
+                    return new Pending<>(row.getLine(), proprietaire, List.of());
+                },
+                BulkImportService::insertAll);
+        QueryResultCache.getInstance().invalidate(Proprietaire.class);
+        return report;
+    }
+
+    /**
+     * Imports biens. The owner is given by its email and must exist.
+     *
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importBiens(Path file) throws IOException {
+        Map<String, Integer> proprietaires;
+        try (StatelessSession session = openSession()) {
+            proprietaires = lookup(session,
+                    "SELECT LOWER(p.emailProprietaire), p.idProprietaire FROM Proprietaire p");
+        }
+
+        ImportReport report = run("Biens", file,
+                new String[]{"adresse", "ville", "email_proprietaire"},
+                row -> {
+                    Bien bien = new Bien(row.get("adresse"), row.get("ville"), null);
+                    String email = row.get("email_proprietaire");
+                    if (email != null) {
+                        Proprietaire proprietaire = new Proprietaire();
+                        proprietaire.setIdProprietaire(
+                                resolve(proprietaires, email, "Propriétaire inconnu : " + email));
+                        bien.setProprietaire(proprietaire);
+                    }
+                    BienService.validateBien(bien);
+                    return new Pending<>(row.getLine(), bien, List.of());
+                },
+                BulkImportService::insertAll);
+        QueryResultCache.getInstance().invalidate(Bien.class);
+        return report;
+    }
+
+    /**
+     * Imports chantiers. The bien is given by its address and city and must exist;
+     * the inspecteur, optional, is given by its email.
+     *
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importChantiers(Path file) throws IOException {
+        Map<String, Integer> biens = new HashMap<>();
+        Map<String, Integer> inspecteurs;
+        try (StatelessSession session = openSession()) {
+            for (Object[] bien : session.createQuery(
+                    "SELECT b.adresseBien, b.villeBien, b.idBien FROM Bien b ORDER BY b.idBien",
+                    Object[].class).getResultList()) {
+                biens.putIfAbsent(bienKey((String) bien[0], (String) bien[1]), (Integer) bien[2]);
+            }
+            inspecteurs = lookup(session,
+                    "SELECT LOWER(i.emailInspecteur), i.idInspecteur FROM Inspecteur i");
+        }
+
+        ImportReport report = run("Chantiers", file,
+                new String[]{"adresse", "ville", "adresse_bien", "ville_bien"},
+                row -> {
+                    Chantier chantier = new Chantier(row.get("ville"), row.get("adresse"), null);
+                    chantier.setInfoChantier(row.get("info"));
+                    String statut = row.get("statut");
+                    if (statut != null) {
+                        try {
+                            chantier.setStatutChantier(Integer.valueOf(statut));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Statut invalide : " + statut);
+                        }
+                    }
+                    String adresseBien = row.get("adresse_bien");
+                    String villeBien = row.get("ville_bien");
+                    if (adresseBien != null && villeBien != null) {
+                        Integer idBien = biens.get(bienKey(adresseBien, villeBien));
+                        if (idBien == null) {
+                            throw new IllegalArgumentException("Bien inconnu : " + adresseBien + ", " + villeBien);
+                        }
+                        Bien bien = new Bien();
+                        bien.setIdBien(idBien);
+                        chantier.setBien(bien);
+                    }
+                    String emailInspecteur = row.get("email_inspecteur");
+                    if (emailInspecteur != null) {
+                        Inspecteur inspecteur = new Inspecteur();
+                        inspecteur.setIdInspecteur(
+                                resolve(inspecteurs, emailInspecteur, "Inspecteur inconnu : " + emailInspecteur));
+                        chantier.setInspecteur(inspecteur);
+                    }
+                    ChantierService.validateChantier(chantier);
+                    return new Pending<>(row.getLine(), chantier, List.of());
+                },
+                BulkImportService::insertAll);
+        QueryResultCache.getInstance().invalidate(Chantier.class);
+        return report;
+    }
+
+    /**
+     * Reads, validates and writes the rows of a file.
+     *
+     * @param type the import type, for the report
+     * @param file the CSV file
+     * @param required the required columns
+     * @param mapper turns a row into an entity, or throws IllegalArgumentException
+     * @param writer writes a batch of entities in the current transaction
+     * @param <T> the entity type
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    private <T> ImportReport run(String type, Path file, String[] required,
+                                 RowMapper<T> mapper, BatchWriter<T> writer) throws IOException {
+        ImportReport report = new ImportReport(type);
+        long start = System.nanoTime();
+        logger.info("Importing {} from {}", type, file);
+
+        try (CsvReader reader = new CsvReader(file);
+             StatelessSession session = openSession()) {
+            reader.requireColumns(required);
+            session.setJdbcBatchSize(batchSize);
+
+            List<Pending<T>> batch = new ArrayList<>(batchSize);
+            CsvReader.Row row;
+            while ((row = reader.next()) != null) {
+                report.rowRead();
+                try {
+                    batch.add(mapper.map(row));
+                } catch (IllegalArgumentException e) {
+                    report.error(row.getLine(), e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    write(session, batch, writer, report);
+                    batch.clear();
+                }
+            }
+            write(session, batch, writer, report);
+        }
+
+        report.finish(System.nanoTime() - start);
+        logger.info("Import finished: {}", report.getSummary());
+        return report;
+    }
+
+    /**
+     * Writes a batch in one transaction, falling back to one transaction per row if it fails.
+     */
+    private <T> void write(StatelessSession session, List<Pending<T>> batch,
+                           BatchWriter<T> writer, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (tryWrite(session, batch, writer)) {
+            report.rowsImported(batch.size());
+            return;
+        }
+        logger.warn("Batch of {} rows failed, retrying row by row", batch.size());
+        for (Pending<T> pending : batch) {
+            try {
+                writeOrThrow(session, List.of(pending), writer);
+                report.rowsImported(1);
+            } catch (Exception e) {
+                report.error(pending.line(), "Erreur base de données : " + rootMessage(e));
+            }
+        }
+    }
+
+    private <T> boolean tryWrite(StatelessSession session, List<Pending<T>> batch, BatchWriter<T> writer) {
+        try {
+            writeOrThrow(session, batch, writer);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Batch write failed", e);
+            return false;
+        }
+    }
+
+    private <T> void writeOrThrow(StatelessSession session, List<Pending<T>> batch, BatchWriter<T> writer) {
+        Transaction transaction = session.beginTransaction();
+        try {
+            writer.write(session, batch);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+        afterCommit(batch);
+    }
+
+    /**
+     * Feeds the search index and the open views with a committed batch, as a StatelessSession
+     * fires no event. The rows are already committed, so a failure is only logged.
+     */
+    private static <T> void afterCommit(List<Pending<T>> batch) {
+        List<T> entities = batch.stream().map(Pending::entity).toList();
+        try {
+            SearchIndex.getInstance().indexAll(entities);
+        } catch (Exception e) {
+            logger.error("Error indexing {} imported rows", entities.size(), e);
+        }
+        try {
+            PersistenceUnitUtil units = HibernateUtil.getSessionFactory().getPersistenceUnitUtil();
+            EntityEventBus.getInstance().publishAll(entities.stream()
+                    .map(entity -> EntityChange.created(entity.getClass(), units.getIdentifier(entity)))
+                    .toList());
+        } catch (Exception e) {
+            logger.error("Error publishing {} imported rows", entities.size(), e);
+        }
+    }
+
+    private static <T> void insertAll(StatelessSession session, List<Pending<T>> batch) {
+        for (Pending<T> pending : batch) {
+            session.insert(pending.entity());
+        }
+    }
+
+    private static StatelessSession openSession() {
+        return HibernateUtil.getSessionFactory().openStatelessSession();
+    }
+
+    /**
+     * Loads a (lower-case key, id) lookup map.
+     */
+    private static Map<String, Integer> lookup(StatelessSession session, String hql) {
+        Map<String, Integer> map = new HashMap<>();
+        for (Object[] pair : session.createQuery(hql, Object[].class).getResultList()) {
+            map.putIfAbsent((String) pair[0], (Integer) pair[1]);
+        }
+        return map;
+    }
+
+    private static Integer resolve(Map<String, Integer> lookup, String key, String error) {
+        Integer id = lookup.get(key.trim().toLowerCase(Locale.ROOT));
+        if (id == null) {
+            throw new IllegalArgumentException(error);
+        }
+        return id;
+    }
+
+    private static void claimUnique(Set<String> seen, String value, String error) {
+        if (!seen.add(value.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    private static String bienKey(String adresse, String ville) {
+        return adresse.trim().toLowerCase(Locale.ROOT) + "|" + ville.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /**
+     * A validated row waiting to be written.
+     *
+     * @param line the line of the file
+     * @param entity the entity to insert
+     * @param links ids of the related rows to link (categories of an entrepreneur)
+     * @param <T> the entity type
+     */
+    private record Pending<T>(int line, T entity, List<Integer> links) {
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        Pending<T> map(CsvReader.Row row);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        void write(StatelessSession session, List<Pending<T>> batch);
+    }
+}
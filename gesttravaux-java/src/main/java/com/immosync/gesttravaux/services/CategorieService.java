@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.services;
 
 import com.immosync.gesttravaux.dao.CategorieDAO;
+import com.immosync.gesttravaux.dao.Page;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dto.CategorieRow;
 import com.immosync.gesttravaux.models.Categorie;
 
 import java.util.List;
@@ -72,10 +75,7 @@ public class CategorieService {
      * @param categorieId the category ID
      */
     public void deleteCategorie(Integer categorieId) {
-        Optional<Categorie> categorie = categorieDAO.findById(categorieId);
-        if (categorie.isPresent()) {
-            categorieDAO.delete(categorie.get());
-        } else {
+        if (!categorieDAO.deleteById(categorieId)) {
             throw new IllegalArgumentException("Catégorie non trouvée");
         }
     }
@@ -99,6 +99,28 @@ public class CategorieService {
         return categorieDAO.findAllOrdered();
     }
 
+    /**
+     * Gets one page of the categorie table.
+     *
+     * @param sort the sort order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<CategorieRow> getCategorieRows(Sort sort, Page.Cursor after, int limit) {
+        return categorieDAO.findRowPage(sort, after, limit);
+    }
+
+    /**
+     * Gets the categorie table rows of some categories.
+     *
+     * @param ids the category IDs
+     * @return the rows of the categories that still exist
+     */
+    public List<CategorieRow> getCategorieRows(List<Integer> ids) {
+        return categorieDAO.findRowsById(ids);
+    }
+
     /**
      * Searches categories by type.
      *
@@ -109,6 +131,16 @@ public class CategorieService {
         return categorieDAO.searchByType(searchTerm);
     }
 
+    /**
+     * Searches categories like {@link #searchByType(String)}, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<CategorieRow> searchRowsByType(String searchTerm) {
+        return categorieDAO.searchRowsByType(searchTerm);
+    }
+
     /**
      * Validates a category.
      *
@@ -1,11 +1,19 @@
 package com.immosync.gesttravaux.services;
 
 import com.immosync.gesttravaux.dao.ChantierDAO;
+import com.immosync.gesttravaux.dao.DevisDAO;
+import com.immosync.gesttravaux.dao.Page;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dao.TransactionRunner;
+import com.immosync.gesttravaux.dto.ChantierRow;
 import com.immosync.gesttravaux.models.Chantier;
 import com.immosync.gesttravaux.models.Devis;
 import com.immosync.gesttravaux.models.Document;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,12 +26,14 @@ import java.util.Optional;
 public class ChantierService {
 
     private final ChantierDAO chantierDAO;
+    private final DevisDAO devisDAO;
 
     /**
      * Constructor.
      */
     public ChantierService() {
         this.chantierDAO = new ChantierDAO();
+        this.devisDAO = new DevisDAO();
     }
 
     /**
@@ -61,10 +71,7 @@ public class ChantierService {
      * @param chantierId the chantier ID
      */
     public void deleteChantier(Integer chantierId) {
-        Optional<Chantier> chantier = chantierDAO.findById(chantierId);
-        if (chantier.isPresent()) {
-            chantierDAO.delete(chantier.get());
-        } else {
+        if (!chantierDAO.deleteById(chantierId)) {
             throw new IllegalArgumentException("Chantier non trouvé");
         }
     }
@@ -79,6 +86,16 @@ public class ChantierService {
         return chantierDAO.findById(id);
     }
 
+    /**
+     * Finds a chantier by ID with its bien, inspecteur and documents, for the chantier form.
+     *
+     * @param id the chantier ID
+     * @return the chantier if found
+     */
+    public Optional<Chantier> findDetail(Integer id) {
+        return chantierDAO.findById(id, Chantier.GRAPH_DETAIL);
+    }
+
     /**
      * Gets all chantiers.
      *
@@ -88,6 +105,28 @@ public class ChantierService {
         return chantierDAO.findAllOrdered();
     }
 
+    /**
+     * Gets one page of the chantier table.
+     *
+     * @param sort the sort order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<ChantierRow> getChantierRows(Sort sort, Page.Cursor after, int limit) {
+        return chantierDAO.findRowPage(sort, after, limit);
+    }
+
+    /**
+     * Gets the chantier table rows of some worksites.
+     *
+     * @param ids the worksite IDs
+     * @return the rows of the worksites that still exist
+     */
+    public List<ChantierRow> getChantierRows(List<Integer> ids) {
+        return chantierDAO.findRowsById(ids);
+    }
+
     /**
      * Searches chantiers.
      *
@@ -98,6 +137,16 @@ public class ChantierService {
         return chantierDAO.search(searchTerm);
     }
 
+    /**
+     * Searches chantiers like {@link #search(String)}, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<ChantierRow> searchRows(String searchTerm) {
+        return chantierDAO.searchRows(searchTerm);
+    }
+
     /**
      * Finds chantiers by status.
      *
@@ -133,16 +182,12 @@ public class ChantierService {
      *
      * @param chantierId the chantier ID
      * @param inspecteur the inspector to assign
-     * @return the updated chantier
+     * @throws IllegalArgumentException if the chantier does not exist
      */
-    public Chantier assignInspecteur(Integer chantierId, com.immosync.gesttravaux.models.Inspecteur inspecteur) {
-        Optional<Chantier> optChantier = chantierDAO.findById(chantierId);
-        if (optChantier.isPresent()) {
-            Chantier chantier = optChantier.get();
-            chantier.setInspecteur(inspecteur);
-            return chantierDAO.update(chantier);
-        }
-        throw new IllegalArgumentException("Chantier non trouvé");
+    public void assignInspecteur(Integer chantierId, com.immosync.gesttravaux.models.Inspecteur inspecteur) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("inspecteur", inspecteur);
+        patchChantier(chantierId, changes);
     }
 
     /**
@@ -153,13 +198,12 @@ public class ChantierService {
      * @return the updated chantier
      */
     public Chantier addDocument(Integer chantierId, Document document) {
-        Optional<Chantier> optChantier = chantierDAO.findById(chantierId);
-        if (optChantier.isPresent()) {
-            Chantier chantier = optChantier.get();
+        return TransactionRunner.inTransaction(session -> {
+            Chantier chantier = chantierDAO.findManaged(chantierId)
+                    .orElseThrow(() -> new IllegalArgumentException("Chantier non trouvé"));
             chantier.addDocument(document);
-            return chantierDAO.update(chantier);
-        }
-        throw new IllegalArgumentException("Chantier non trouvé");
+            return chantier;
+        });
     }
 
     /**
@@ -170,13 +214,12 @@ public class ChantierService {
      * @return the updated chantier
      */
     public Chantier addDevis(Integer chantierId, Devis devis) {
-        Optional<Chantier> optChantier = chantierDAO.findById(chantierId);
-        if (optChantier.isPresent()) {
-            Chantier chantier = optChantier.get();
+        return TransactionRunner.inTransaction(session -> {
+            Chantier chantier = chantierDAO.findManaged(chantierId)
+                    .orElseThrow(() -> new IllegalArgumentException("Chantier non trouvé"));
             chantier.addDevis(devis);
-            return chantierDAO.update(chantier);
-        }
-        throw new IllegalArgumentException("Chantier non trouvé");
+            return chantier;
+        });
     }
 
     /**
@@ -184,20 +227,84 @@ public class ChantierService {
      *
      * @param chantierId the chantier ID
      * @param statut the new status
-     * @return the updated chantier
+     * @throws IllegalArgumentException if the status is invalid or the chantier does not exist
+     */
+    public void updateStatut(Integer chantierId, Integer statut) {
+        validateStatut(statut);
+
+        patchChantier(chantierId, Map.of("statutChantier", statut));
+    }
+
+    /**
+     * Sets the status of several chantiers at once, e.g. to close a season.
+     *
+     * @param chantierIds the chantier IDs
+     * @param statut the new status
+     * @return the number of chantiers updated
+     */
+    public int updateStatut(Collection<Integer> chantierIds, Integer statut) {
+        validateStatut(statut);
+        return chantierDAO.updateStatut(chantierIds, statut);
+    }
+
+    /**
+     * Sets the status of every chantier matching a filter. A null criterion matches any value.
+     *
+     * @param ville the city, or null
+     * @param inspecteurId the inspector ID, or null
+     * @param statutActuel the current status, or null
+     * @param statut the new status
+     * @return the number of chantiers updated
+     */
+    public int updateStatutWhere(String ville, Integer inspecteurId, Integer statutActuel, Integer statut) {
+        validateStatut(statut);
+        return chantierDAO.updateStatutWhere(ville, inspecteurId, statutActuel, statut);
+    }
+
+    /**
+     * Sets the status of several devis at once.
+     *
+     * @param devisIds the devis IDs
+     * @param statut the new status
+     * @return the number of devis updated
      */
-    public Chantier updateStatut(Integer chantierId, Integer statut) {
-        if (statut < 0 || statut > 2) {
+    public int updateDevisStatut(Collection<Integer> devisIds, String statut) {
+        validateDevisStatut(statut);
+        return devisDAO.updateStatut(devisIds, statut);
+    }
+
+    /**
+     * Rejects every devis of a chantier still awaiting a decision.
+     *
+     * @param chantierId the chantier ID
+     * @return the number of devis rejected
+     */
+    public int rejectPendingDevis(Integer chantierId) {
+        return devisDAO.updateStatutByChantier(chantierId, Devis.STATUT_EN_ATTENTE, Devis.STATUT_REFUSE);
+    }
+
+    /**
+     * Writes the given columns of a chantier with one UPDATE. The chantier is not read
+     * back: a caller that needs it re-reads it, as the open tables do on the change event.
+     */
+    private void patchChantier(Integer chantierId, Map<String, Object> changes) {
+        if (chantierDAO.patch(chantierId, changes) == 0) {
+            throw new IllegalArgumentException("Chantier non trouvé");
+        }
+    }
+
+    private static void validateStatut(Integer statut) {
+        if (statut == null || statut < 0 || statut > 2) {
             throw new IllegalArgumentException("Le statut doit être 0 (non démarré), 1 (en cours) ou 2 (terminé)");
         }
+    }
 
-        Optional<Chantier> optChantier = chantierDAO.findById(chantierId);
-        if (optChantier.isPresent()) {
-            Chantier chantier = optChantier.get();
-            chantier.setStatutChantier(statut);
-            return chantierDAO.update(chantier);
+    private static void validateDevisStatut(String statut) {
+        if (!Devis.STATUT_EN_ATTENTE.equals(statut) && !Devis.STATUT_ACCEPTE.equals(statut)
+                && !Devis.STATUT_REFUSE.equals(statut)) {
+            throw new IllegalArgumentException("Le statut du devis doit être \"" + Devis.STATUT_EN_ATTENTE
+                    + "\", \"" + Devis.STATUT_ACCEPTE + "\" ou \"" + Devis.STATUT_REFUSE + "\"");
         }
-        throw new IllegalArgumentException("Chantier non trouvé");
     }
 
     /**
@@ -206,7 +313,7 @@ public class ChantierService {
      * @param chantier the chantier to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateChantier(Chantier chantier) {
+    static void validateChantier(Chantier chantier) {
         if (chantier == null) {
             throw new IllegalArgumentException("Le chantier ne peut pas être null");
         }
@@ -1,8 +1,13 @@
 package com.immosync.gesttravaux.services;
 
 import com.immosync.gesttravaux.dao.EntrepreneurDAO;
+import com.immosync.gesttravaux.dao.Page;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dao.TransactionRunner;
+import com.immosync.gesttravaux.dto.EntrepreneurRow;
 import com.immosync.gesttravaux.models.Categorie;
 import com.immosync.gesttravaux.models.Entrepreneur;
+import org.hibernate.Session;
 
 import java.util.List;
 import java.util.Optional;
@@ -73,10 +78,7 @@ public class EntrepreneurService {
      * @param entrepreneurId the entrepreneur ID
      */
     public void deleteEntrepreneur(Integer entrepreneurId) {
-        Optional<Entrepreneur> entrepreneur = entrepreneurDAO.findById(entrepreneurId);
-        if (entrepreneur.isPresent()) {
-            entrepreneurDAO.delete(entrepreneur.get());
-        } else {
+        if (!entrepreneurDAO.deleteById(entrepreneurId)) {
             throw new IllegalArgumentException("Entrepreneur non trouvé");
         }
     }
@@ -91,6 +93,16 @@ public class EntrepreneurService {
         return entrepreneurDAO.findById(id);
     }
 
+    /**
+     * Finds a entrepreneur by ID with its categories, for the entrepreneur form.
+     *
+     * @param id the entrepreneur ID
+     * @return the entrepreneur if found
+     */
+    public Optional<Entrepreneur> findDetail(Integer id) {
+        return entrepreneurDAO.findById(id, Entrepreneur.GRAPH_DETAIL);
+    }
+
     /**
      * Gets all entrepreneurs.
      *
@@ -100,6 +112,28 @@ public class EntrepreneurService {
         return entrepreneurDAO.findAll();
     }
 
+    /**
+     * Gets one page of the entrepreneur table.
+     *
+     * @param sort the sort order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<EntrepreneurRow> getEntrepreneurRows(Sort sort, Page.Cursor after, int limit) {
+        return entrepreneurDAO.findRowPage(sort, after, limit);
+    }
+
+    /**
+     * Gets the entrepreneur table rows of some contractors.
+     *
+     * @param ids the contractor IDs
+     * @return the rows of the contractors that still exist
+     */
+    public List<EntrepreneurRow> getEntrepreneurRows(List<Integer> ids) {
+        return entrepreneurDAO.findRowsById(ids);
+    }
+
     /**
      * Searches entrepreneurs by name.
      *
@@ -110,6 +144,16 @@ public class EntrepreneurService {
         return entrepreneurDAO.searchByName(searchTerm);
     }
 
+    /**
+     * Searches entrepreneurs like {@link #searchByName(String)}, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<EntrepreneurRow> searchRowsByName(String searchTerm) {
+        return entrepreneurDAO.searchRowsByName(searchTerm);
+    }
+
     /**
      * Finds entrepreneurs by city.
      *
@@ -138,13 +182,12 @@ public class EntrepreneurService {
      * @return the updated entrepreneur
      */
     public Entrepreneur addCategorie(Integer entrepreneurId, Categorie categorie) {
-        Optional<Entrepreneur> optEntrepreneur = entrepreneurDAO.findById(entrepreneurId);
-        if (optEntrepreneur.isPresent()) {
-            Entrepreneur entrepreneur = optEntrepreneur.get();
-            entrepreneur.addCategorie(categorie);
-            return entrepreneurDAO.update(entrepreneur);
-        }
-        throw new IllegalArgumentException("Entrepreneur non trouvé");
+        return TransactionRunner.inTransaction(session -> {
+            Entrepreneur entrepreneur = entrepreneurDAO.findManaged(entrepreneurId)
+                    .orElseThrow(() -> new IllegalArgumentException("Entrepreneur non trouvé"));
+            entrepreneur.addCategorie(managedCategorie(session, categorie));
+            return entrepreneur;
+        });
     }
 
     /**
@@ -155,13 +198,25 @@ public class EntrepreneurService {
      * @return the updated entrepreneur
      */
     public Entrepreneur removeCategorie(Integer entrepreneurId, Categorie categorie) {
-        Optional<Entrepreneur> optEntrepreneur = entrepreneurDAO.findById(entrepreneurId);
-        if (optEntrepreneur.isPresent()) {
-            Entrepreneur entrepreneur = optEntrepreneur.get();
-            entrepreneur.removeCategorie(categorie);
-            return entrepreneurDAO.update(entrepreneur);
+        return TransactionRunner.inTransaction(session -> {
+            Entrepreneur entrepreneur = entrepreneurDAO.findManaged(entrepreneurId)
+                    .orElseThrow(() -> new IllegalArgumentException("Entrepreneur non trouvé"));
+            entrepreneur.removeCategorie(managedCategorie(session, categorie));
+            return entrepreneur;
+        });
+    }
+
+    /**
+     * Gets the managed instance of a category in the given session.
+     * Categories come from the second-level cache, so this rarely hits the database.
+     */
+    private static Categorie managedCategorie(Session session, Categorie categorie) {
+        Categorie managed = categorie.getIdCategorie() != null
+                ? session.get(Categorie.class, categorie.getIdCategorie()) : null;
+        if (managed == null) {
+            throw new IllegalArgumentException("Catégorie non trouvée");
         }
-        throw new IllegalArgumentException("Entrepreneur non trouvé");
+        return managed;
     }
 
     /**
@@ -170,7 +225,7 @@ public class EntrepreneurService {
      * @param entrepreneur the entrepreneur to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateEntrepreneur(Entrepreneur entrepreneur) {
+    static void validateEntrepreneur(Entrepreneur entrepreneur) {
         if (entrepreneur == null) {
             throw new IllegalArgumentException("L'entrepreneur ne peut pas être null");
         }
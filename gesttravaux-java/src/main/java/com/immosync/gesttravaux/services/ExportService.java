@@ -0,0 +1,121 @@
+package com.immosync.gesttravaux.services;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.utils.TableWriter;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service for exporting chantiers and devis to CSV or XLSX files.
+ * Rows are read through a forward-only cursor over a projection of the needed columns
+ * and written to the file one at a time, so memory use stays flat whatever the table size.
+ * No entity is loaded: the export runs in a {@link StatelessSession}, so the rows are
+ * neither kept in a persistence context nor checked at flush, and the joined columns are
+ * read in the same query.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final String CHANTIERS_QUERY =
+            "SELECT c.idChantier, c.adresseChantier, c.villeChantier, c.statutChantier, c.infoChantier, "
+                    + "b.adresseBien, b.villeBien, p.prenomProprietaire, p.nomProprietaire, "
+                    + "i.prenomInspecteur, i.nomInspecteur "
+                    + "FROM Chantier c JOIN c.bien b JOIN b.proprietaire p LEFT JOIN c.inspecteur i "
+                    + "ORDER BY c.idChantier";
+
+    private static final List<String> CHANTIERS_HEADER = List.of(
+            "ID", "Adresse", "Ville", "Statut", "Informations",
+            "Adresse du bien", "Ville du bien", "Propriétaire", "Inspecteur");
+
+    private static final String DEVIS_QUERY =
+            "SELECT d.idDevis, d.dateCreation, d.statut, d.prix, d.duree, "
+                    + "c.idChantier, c.adresseChantier, c.villeChantier, "
+                    + "cat.type, pr.libelle, e.prenomEntrepreneur, e.nomEntrepreneur "
+                    + "FROM Devis d JOIN d.chantier c JOIN d.prestation pr JOIN pr.categorie cat "
+                    + "JOIN d.entrepreneur e "
+                    + "ORDER BY d.idDevis";
+
+    private static final List<String> DEVIS_HEADER = List.of(
+            "ID", "Date de création", "Statut", "Prix", "Durée",
+            "ID chantier", "Adresse du chantier", "Ville du chantier",
+            "Catégorie", "Prestation", "Entrepreneur");
+
+    /**
+     * Exports all chantiers with their bien, owner and inspecteur.
+     *
+     * @param file the output file (.csv or .xlsx)
+     * @return the number of chantiers exported
+     * @throws IOException if the file cannot be written
+     */
+    public long exportChantiers(Path file) throws IOException {
+        return export(file, CHANTIERS_QUERY, CHANTIERS_HEADER, row -> Arrays.asList(
+                row[0], row[1], row[2], Chantier.statutLibelle((Integer) row[3]), row[4],
+                row[5], row[6], fullName(row[7], row[8]), fullName(row[9], row[10])));
+    }
+
+    /**
+     * Exports all devis with their chantier, prestation and entrepreneur.
+     *
+     * @param file the output file (.csv or .xlsx)
+     * @return the number of devis exported
+     * @throws IOException if the file cannot be written
+     */
+    public long exportDevis(Path file) throws IOException {
+        return export(file, DEVIS_QUERY, DEVIS_HEADER, row -> Arrays.asList(
+                row[0], row[1], row[2], row[3], row[4],
+                row[5], row[6], row[7],
+                row[8], row[9], fullName(row[10], row[11])));
+    }
+
+    /**
+     * Streams the rows of a projection query to a file.
+     *
+     * @param file the output file
+     * @param hql the projection query
+     * @param header the column titles
+     * @param mapper turns a result row into the exported cells
+     * @return the number of rows exported
+     * @throws IOException if the file cannot be written
+     */
+    private long export(Path file, String hql, List<String> header,
+                        Function<Object[], List<?>> mapper) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             TableWriter writer = TableWriter.open(file);
+             ScrollableResults<Object[]> results = session.createSelectionQuery(hql, Object[].class)
+                     .setFetchSize(HibernateUtil.getStreamingFetchSize(sessionFactory))
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            writer.writeRow(header);
+            while (results.next()) {
+                writer.writeRow(mapper.apply(results.get()));
+                count++;
+            }
+        }
+        logger.info("Exported {} rows to {} in {} ms", count, file, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private static String fullName(Object prenom, Object nom) {
+        if (prenom == null && nom == null) {
+            return null;
+        }
+        return ((prenom != null ? prenom + " " : "") + (nom != null ? nom : "")).trim();
+    }
+}
@@ -0,0 +1,146 @@
+package com.immosync.gesttravaux.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk CSV import: rows read, rows imported, per-row errors and throughput.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class ImportReport {
+
+    /**
+     * Maximum number of row errors kept in the report; further errors are only counted.
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    private final String type;
+    private final List<RowError> errors = new ArrayList<>();
+    private int rowsRead;
+    private int rowsImported;
+    private int errorCount;
+    private long elapsedNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param type the kind of rows imported (e.g. "Entrepreneurs")
+     */
+    public ImportReport(String type) {
+        this.type = type;
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void rowsImported(int count) {
+        rowsImported += count;
+    }
+
+    void error(int line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the kind of rows imported.
+     *
+     * @return the import type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of data rows read from the file.
+     *
+     * @return the rows read
+     */
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Gets the number of rows written to the database.
+     *
+     * @return the rows imported
+     */
+    public int getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * Gets the number of rejected rows.
+     *
+     * @return the error count
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Gets the rejected rows, at most {@link #MAX_ERRORS}.
+     *
+     * @return the row errors in file order
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Gets the import duration.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Gets the import throughput.
+     *
+     * @return rows read per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gets a short summary for display.
+     *
+     * @return the summary
+     */
+    public String getSummary() {
+        return String.format("%s : %d lignes lues, %d importées, %d rejetées en %.1f s (%.0f lignes/s)",
+                type, rowsRead, rowsImported, errorCount, elapsedNanos / 1e9, getRowsPerSecond());
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+
+    /**
+     * A rejected row.
+     *
+     * @param line the line of the file
+     * @param message why the row was rejected
+     */
+    public record RowError(int line, String message) {
+
+        @Override
+        public String toString() {
+            return "Ligne " + line + " : " + message;
+        }
+    }
+}
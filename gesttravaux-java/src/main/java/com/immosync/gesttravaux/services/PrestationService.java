@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.services;
 
+import com.immosync.gesttravaux.dao.Page;
 import com.immosync.gesttravaux.dao.PrestationDAO;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dto.PrestationRow;
 import com.immosync.gesttravaux.models.Prestation;
 
 import java.util.List;
@@ -59,10 +62,7 @@ public class PrestationService {
      * @param prestationId the prestation ID
      */
     public void deletePrestation(Integer prestationId) {
-        Optional<Prestation> prestation = prestationDAO.findById(prestationId);
-        if (prestation.isPresent()) {
-            prestationDAO.delete(prestation.get());
-        } else {
+        if (!prestationDAO.deleteById(prestationId)) {
             throw new IllegalArgumentException("Prestation non trouvée");
         }
     }
@@ -86,6 +86,28 @@ public class PrestationService {
         return prestationDAO.findAllOrdered();
     }
 
+    /**
+     * Gets one page of the prestation table.
+     *
+     * @param sort the sort order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<PrestationRow> getPrestationRows(Sort sort, Page.Cursor after, int limit) {
+        return prestationDAO.findRowPage(sort, after, limit);
+    }
+
+    /**
+     * Gets the prestation table rows of some services.
+     *
+     * @param ids the service IDs
+     * @return the rows of the services that still exist
+     */
+    public List<PrestationRow> getPrestationRows(List<Integer> ids) {
+        return prestationDAO.findRowsById(ids);
+    }
+
     /**
      * Searches prestations by libelle.
      *
@@ -96,6 +118,16 @@ public class PrestationService {
         return prestationDAO.searchByLibelle(searchTerm);
     }
 
+    /**
+     * Searches prestations like {@link #searchByLibelle(String)}, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<PrestationRow> searchRowsByLibelle(String searchTerm) {
+        return prestationDAO.searchRowsByLibelle(searchTerm);
+    }
+
     /**
      * Finds prestations by category.
      *
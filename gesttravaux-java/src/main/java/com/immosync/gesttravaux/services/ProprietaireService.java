@@ -1,6 +1,9 @@
 package com.immosync.gesttravaux.services;
 
+import com.immosync.gesttravaux.dao.Page;
 import com.immosync.gesttravaux.dao.ProprietaireDAO;
+import com.immosync.gesttravaux.dao.Sort;
+import com.immosync.gesttravaux.dto.ProprietaireRow;
 import com.immosync.gesttravaux.models.Proprietaire;
 
 import java.util.List;
@@ -72,10 +75,7 @@ public class ProprietaireService {
      * @param proprietaireId the proprietaire ID
      */
     public void deleteProprietaire(Integer proprietaireId) {
-        Optional<Proprietaire> proprietaire = proprietaireDAO.findById(proprietaireId);
-        if (proprietaire.isPresent()) {
-            proprietaireDAO.delete(proprietaire.get());
-        } else {
+        if (!proprietaireDAO.deleteById(proprietaireId)) {
             throw new IllegalArgumentException("Propriétaire non trouvé");
         }
     }
@@ -99,6 +99,28 @@ public class ProprietaireService {
         return proprietaireDAO.findAllOrdered();
     }
 
+    /**
+     * Gets one page of the proprietaire table.
+     *
+     * @param sort the sort order
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of rows
+     * @return the page
+     */
+    public Page<ProprietaireRow> getProprietaireRows(Sort sort, Page.Cursor after, int limit) {
+        return proprietaireDAO.findRowPage(sort, after, limit);
+    }
+
+    /**
+     * Gets the proprietaire table rows of some owners.
+     *
+     * @param ids the owner IDs
+     * @return the rows of the owners that still exist
+     */
+    public List<ProprietaireRow> getProprietaireRows(List<Integer> ids) {
+        return proprietaireDAO.findRowsById(ids);
+    }
+
     /**
      * Searches proprietaires by name.
      *
@@ -109,13 +131,23 @@ public class ProprietaireService {
         return proprietaireDAO.searchByName(searchTerm);
     }
 
+    /**
+     * Searches proprietaires like {@link #searchByName(String)}, returning table rows.
+     *
+     * @param searchTerm the search term
+     * @return the matching rows
+     */
+    public List<ProprietaireRow> searchRowsByName(String searchTerm) {
+        return proprietaireDAO.searchRowsByName(searchTerm);
+    }
+
     /**
      * Validates a proprietaire.
      *
      * @param proprietaire the proprietaire to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateProprietaire(Proprietaire proprietaire) {
+    static void validateProprietaire(Proprietaire proprietaire) {
         if (proprietaire == null) {
             throw new IllegalArgumentException("Le propriétaire ne peut pas être null");
         }
@@ -0,0 +1,244 @@
+package com.immosync.gesttravaux.utils;
+
+import com.immosync.gesttravaux.dao.ConflictException;
+import com.immosync.gesttravaux.dao.DatabaseExecutor;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Task} running a blocking service call off the JavaFX thread.
+ * The call runs on the {@link DatabaseExecutor}; the success and error handlers run
+ * on the JavaFX thread. Nodes given to {@link #disabling(Node...)} are disabled while
+ * the task runs, and the number of running tasks and the status of the latest one are
+ * published for the status bar.
+ *
+ * <pre>
+ * BackgroundTask.run(() -&gt; bienService.deleteBien(id))
+ *         .status("Suppression du bien...")
+ *         .disabling(root)
+ *         .onSuccess(done -&gt; loadBiens())
+ *         .onError("Erreur de suppression")
+ *         .start();
+ * </pre>
+ *
+ * By default a failure shows an alert: a validation error for an
+ * {@link IllegalArgumentException}, a warning for a {@link ConflictException} (see
+ * {@link #onConflict(Consumer)}), an error otherwise. A {@link CancellationException}
+ * (see {@link com.immosync.gesttravaux.dao.QueryCanceller}) is ignored.
+ * Tasks must be created and started on the JavaFX thread.
+ *
+ * @param <R> the result type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class BackgroundTask<R> extends Task<R> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundTask.class);
+
+    private static final ReadOnlyIntegerWrapper RUNNING = new ReadOnlyIntegerWrapper(0);
+    private static final ReadOnlyStringWrapper STATUS = new ReadOnlyStringWrapper("");
+
+    /**
+     * A blocking call without result.
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    private final Callable<R> work;
+    private final List<Node> disabled = new ArrayList<>();
+    private String status;
+    private Consumer<R> onSuccess = result -> { };
+    private String errorTitle = "Erreur";
+    private Consumer<Throwable> onError;
+    private Consumer<ConflictException> onConflict;
+
+    private BackgroundTask(Callable<R> work) {
+        this.work = work;
+    }
+
+    /**
+     * Creates a task returning the result of a call.
+     *
+     * @param work the call, e.g. a service method
+     * @param <R> the result type
+     * @return the task, not started
+     */
+    public static <R> BackgroundTask<R> call(Callable<R> work) {
+        return new BackgroundTask<>(work);
+    }
+
+    /**
+     * Creates a task for a call without result.
+     *
+     * @param work the call, e.g. a service method
+     * @return the task, not started
+     */
+    public static BackgroundTask<Void> run(Work work) {
+        return new BackgroundTask<>(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Sets the text shown in the status bar while the task runs.
+     *
+     * @param text the status text
+     * @return this task
+     */
+    public BackgroundTask<R> status(String text) {
+        this.status = text;
+        return this;
+    }
+
+    /**
+     * Disables nodes while the task runs, e.g. a form being saved.
+     *
+     * @param nodes the nodes
+     * @return this task
+     */
+    public BackgroundTask<R> disabling(Node... nodes) {
+        disabled.addAll(List.of(nodes));
+        return this;
+    }
+
+    /**
+     * Sets the handler of the result, run on the JavaFX thread.
+     *
+     * @param handler the handler
+     * @return this task
+     */
+    public BackgroundTask<R> onSuccess(Consumer<R> handler) {
+        this.onSuccess = handler;
+        return this;
+    }
+
+    /**
+     * Sets the title of the alert shown on failure.
+     *
+     * @param title the alert title
+     * @return this task
+     */
+    public BackgroundTask<R> onError(String title) {
+        this.errorTitle = title;
+        return this;
+    }
+
+    /**
+     * Replaces the alert shown on failure by a handler, run on the JavaFX thread.
+     *
+     * @param handler the handler, given the cause of the failure
+     * @return this task
+     */
+    public BackgroundTask<R> onError(Consumer<Throwable> handler) {
+        this.onError = handler;
+        return this;
+    }
+
+    /**
+     * Sets the handler of a {@link ConflictException}, e.g. to merge a form with the
+     * entity saved meanwhile by another user. Run on the JavaFX thread.
+     *
+     * @param handler the handler
+     * @return this task
+     */
+    public BackgroundTask<R> onConflict(Consumer<ConflictException> handler) {
+        this.onConflict = handler;
+        return this;
+    }
+
+    /**
+     * Starts the task on the {@link DatabaseExecutor}.
+     *
+     * @return this task
+     */
+    public BackgroundTask<R> start() {
+        disabled.forEach(node -> node.setDisable(true));
+        RUNNING.set(RUNNING.get() + 1);
+        if (status != null) {
+            STATUS.set(status);
+            updateMessage(status);
+        }
+        DatabaseExecutor.runAsync(this);
+        return this;
+    }
+
+    /**
+     * Gets the number of tasks running, for a progress indicator.
+     *
+     * @return the running task count, read on the JavaFX thread
+     */
+    public static ReadOnlyIntegerProperty runningCountProperty() {
+        return RUNNING.getReadOnlyProperty();
+    }
+
+    /**
+     * Gets the status text of the latest task started, empty once no task runs.
+     *
+     * @return the status text, read on the JavaFX thread
+     */
+    public static ReadOnlyStringProperty statusTextProperty() {
+        return STATUS.getReadOnlyProperty();
+    }
+
+    @Override
+    protected R call() throws Exception {
+        return work.call();
+    }
+
+    @Override
+    protected void succeeded() {
+        finish();
+        onSuccess.accept(getValue());
+    }
+
+    @Override
+    protected void failed() {
+        finish();
+        Throwable cause = getException();
+        if (cause instanceof CancellationException) {
+            logger.debug("Task cancelled: {}", status);
+            return;
+        }
+        if (cause instanceof ConflictException conflict && onConflict != null) {
+            onConflict.accept(conflict);
+        } else if (onError != null) {
+            onError.accept(cause);
+        } else if (cause instanceof IllegalArgumentException) {
+            AlertUtil.showValidationError(cause.getMessage());
+        } else if (cause instanceof ConflictException) {
+            AlertUtil.showWarning("Conflit de modification", "Modifié par un autre utilisateur",
+                    "Cet élément a été modifié ou supprimé entre-temps. Sélectionnez-le à nouveau avant de le modifier.");
+        } else {
+            logger.error("{}{}", errorTitle, status != null ? " (" + status + ")" : "", cause);
+            AlertUtil.showError(errorTitle, "Une erreur est survenue", cause.getMessage());
+        }
+    }
+
+    @Override
+    protected void cancelled() {
+        finish();
+    }
+
+    private void finish() {
+        disabled.forEach(node -> node.setDisable(false));
+        RUNNING.set(RUNNING.get() - 1);
+        if (RUNNING.get() == 0) {
+            STATUS.set("");
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.immosync.gesttravaux.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Incremental CSV reader.
+ * Reads one record at a time, so files of any size are parsed with constant memory.
+ * Supports quoted fields (with doubled quotes and line breaks inside quotes), and
+ * detects the separator (';' as written by a French Excel, or ',') from the header line.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final char separator;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int lineNumber;
+    private int recordLine;
+
+    /**
+     * Opens a UTF-8 CSV file and reads its header line.
+     *
+     * @param file the CSV file
+     * @throws IOException if the file cannot be read or is empty
+     */
+    public CsvReader(Path file) throws IOException {
+        this(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads CSV records from a reader, starting with the header line.
+     *
+     * @param source the CSV source
+     * @throws IOException if the source cannot be read or is empty
+     */
+    public CsvReader(Reader source) throws IOException {
+        this.reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        reader.mark(8192);
+        String firstLine = reader.readLine();
+        if (firstLine == null) {
+            throw new IOException("Le fichier CSV est vide");
+        }
+        reader.reset();
+        this.separator = firstLine.indexOf(';') >= 0 ? ';' : ',';
+
+        List<String> header = readRecord();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+    }
+
+    /**
+     * Checks that the header declares the given columns.
+     *
+     * @param names the required column names
+     * @throws IllegalArgumentException if a column is missing
+     */
+    public void requireColumns(String... names) {
+        for (String name : names) {
+            if (!columns.containsKey(name.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Colonne manquante dans le fichier CSV : " + name);
+            }
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the next record, or null at the end of the file
+     * @throws IOException if the source cannot be read
+     */
+    public Row next() throws IOException {
+        List<String> values = readRecord();
+        while (values != null && values.size() == 1 && values.get(0).isBlank()) {
+            values = readRecord();
+        }
+        return values == null ? null : new Row(recordLine, values);
+    }
+
+    /**
+     * Parses one record, which may span several lines when a quoted field contains a line break.
+     *
+     * @return the field values, or null at the end of the file
+     * @throws IOException if the source cannot be read
+     */
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        recordLine = lineNumber;
+
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i >= line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Line break inside a quoted field
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Guillemet non fermé à la ligne " + recordLine);
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == separator) {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * One CSV record, with access to its fields by column name.
+     */
+    public class Row {
+
+        private final int line;
+        private final List<String> values;
+
+        private Row(int line, List<String> values) {
+            this.line = line;
+            this.values = values;
+        }
+
+        /**
+         * Gets the line of the file the record starts on.
+         *
+         * @return the line number (the header is line 1)
+         */
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * Gets a field by column name.
+         *
+         * @param column the column name (case-insensitive)
+         * @return the trimmed value, or null if the column is absent or the field is empty
+         */
+        public String get(String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.immosync.gesttravaux.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Streaming CSV writer.
+ * Writes UTF-8 with a byte order mark and ';' separators so the file opens directly
+ * in a French Excel; fields containing a separator, a quote or a line break are quoted.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class CsvWriter implements TableWriter {
+
+    private static final char SEPARATOR = ';';
+
+    private final Writer writer;
+
+    /**
+     * Creates the file, replacing it if it exists.
+     *
+     * @param file the output file
+     * @throws IOException if the file cannot be created
+     */
+    public CsvWriter(Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+    }
+
+    /**
+     * Writes CSV to a writer, without a byte order mark.
+     *
+     * @param writer the destination
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writeField(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String field) throws IOException {
+        boolean quote = field.indexOf(SEPARATOR) >= 0 || field.indexOf('"') >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
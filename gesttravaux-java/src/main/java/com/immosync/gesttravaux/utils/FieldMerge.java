@@ -0,0 +1,184 @@
+package com.immosync.gesttravaux.utils;
+
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.GridPane;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Field-level merge of a form with the version of its entity saved meanwhile by
+ * another user, after a {@link com.immosync.gesttravaux.dao.ConflictException}.
+ * The values of the entity are captured when the form is filled ({@link #load(Object)}),
+ * so each field can be compared three ways:
+ * <ul>
+ *   <li>changed in the form only: the form value is applied to the stored entity;</li>
+ *   <li>changed by the other user only, or the same on both sides: the stored value is kept;</li>
+ *   <li>changed differently on both sides: the user picks one in a dialog.</li>
+ * </ul>
+ * The merged entity carries the stored version, so saving it succeeds unless the
+ * entity changed again in the meantime.
+ *
+ * <pre>
+ * private final FieldMerge&lt;Bien&gt; merge = new FieldMerge&lt;Bien&gt;()
+ *         .field("Adresse", Bien::getAdresseBien, Bien::setAdresseBien)
+ *         .field("Ville", Bien::getVilleBien, Bien::setVilleBien);
+ * </pre>
+ *
+ * @param <E> the entity type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class FieldMerge<E> {
+
+    /**
+     * A field changed differently in the form and in the stored entity.
+     *
+     * @param label the field label
+     * @param mine the value in the form
+     * @param theirs the stored value
+     */
+    public record Conflict(String label, Object mine, Object theirs) {
+    }
+
+    private record Field<E>(String label, Function<E, ?> getter, BiConsumer<E, Object> setter) {
+    }
+
+    private final List<Field<E>> fields = new ArrayList<>();
+    private List<Object> loaded = List.of();
+
+    /**
+     * Adds a field compared by {@link Object#equals(Object)}.
+     *
+     * @param label the label shown in the dialog
+     * @param getter reads the field
+     * @param setter writes the field
+     * @param <V> the field type
+     * @return this merge
+     */
+    @SuppressWarnings("unchecked")
+    public <V> FieldMerge<E> field(String label, Function<E, V> getter, BiConsumer<E, V> setter) {
+        fields.add(new Field<>(label, getter, (entity, value) -> setter.accept(entity, (V) value)));
+        return this;
+    }
+
+    /**
+     * Captures the values of the entity shown in the form, before any edit.
+     *
+     * @param entity the entity as loaded
+     */
+    public void load(E entity) {
+        loaded = values(entity);
+    }
+
+    /**
+     * Applies the fields changed in the form only to the stored entity.
+     *
+     * @param mine the entity edited in the form
+     * @param theirs the stored entity, modified in place
+     * @return the fields changed differently on both sides, not applied
+     */
+    public List<Conflict> merge(E mine, E theirs) {
+        List<Conflict> conflicts = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Field<E> field = fields.get(i);
+            Object base = i < loaded.size() ? loaded.get(i) : null;
+            Object mineValue = field.getter().apply(mine);
+            Object theirsValue = field.getter().apply(theirs);
+            if (Objects.equals(mineValue, theirsValue) || Objects.equals(mineValue, base)) {
+                continue;
+            }
+            if (Objects.equals(theirsValue, base)) {
+                field.setter().accept(theirs, mineValue);
+            } else {
+                conflicts.add(new Conflict(field.label(), mineValue, theirsValue));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Merges the form into the stored entity, asking the user to settle the fields
+     * changed on both sides. The stored values become the new reference for the form.
+     *
+     * @param mine the entity edited in the form
+     * @param theirs the stored entity, modified in place
+     * @return the merged entity to save, or empty if the user cancelled
+     */
+    public Optional<E> resolve(E mine, E theirs) {
+        List<Object> stored = values(theirs);
+        List<Conflict> conflicts = merge(mine, theirs);
+        if (!conflicts.isEmpty() && !choose(conflicts, mine, theirs)) {
+            return Optional.empty();
+        }
+        loaded = stored;
+        return Optional.of(theirs);
+    }
+
+    /**
+     * Shows the conflicting fields, each with the form value selected, and applies
+     * the form values kept to the stored entity.
+     *
+     * @return false if the user cancelled
+     */
+    private boolean choose(List<Conflict> conflicts, E mine, E theirs) {
+        GridPane grid = new GridPane();
+        grid.setHgap(15);
+        grid.setVgap(8);
+        grid.addRow(0, new Label("Champ"), new Label("Votre saisie"), new Label("Version enregistrée"));
+        List<RadioButton> keepMine = new ArrayList<>();
+        for (int i = 0; i < conflicts.size(); i++) {
+            Conflict conflict = conflicts.get(i);
+            ToggleGroup group = new ToggleGroup();
+            RadioButton mineButton = new RadioButton(text(conflict.mine()));
+            RadioButton theirsButton = new RadioButton(text(conflict.theirs()));
+            mineButton.setToggleGroup(group);
+            theirsButton.setToggleGroup(group);
+            mineButton.setSelected(true);
+            keepMine.add(mineButton);
+            grid.addRow(i + 1, new Label(conflict.label()), mineButton, theirsButton);
+        }
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Conflit de modification");
+        dialog.setHeaderText("Cet élément a été modifié par un autre utilisateur.\n"
+                + "Choisissez la valeur à conserver pour chaque champ.");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        if (dialog.showAndWait().filter(ButtonType.OK::equals).isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < conflicts.size(); i++) {
+            if (keepMine.get(i).isSelected()) {
+                Field<E> field = fieldNamed(conflicts.get(i).label());
+                field.setter().accept(theirs, field.getter().apply(mine));
+            }
+        }
+        return true;
+    }
+
+    private Field<E> fieldNamed(String label) {
+        return fields.stream().filter(field -> field.label().equals(label)).findFirst().orElseThrow();
+    }
+
+    private List<Object> values(E entity) {
+        List<Object> values = new ArrayList<>(fields.size());
+        for (Field<E> field : fields) {
+            values.add(field.getter().apply(entity));
+        }
+        return values;
+    }
+
+    private static String text(Object value) {
+        return value == null || value.toString().isEmpty() ? "(vide)" : value.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.immosync.gesttravaux.utils;
+
+import com.immosync.gesttravaux.events.EntityChange;
+import com.immosync.gesttravaux.events.EntityEventBus;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Subscribes views to the {@link EntityEventBus}.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public final class FxEvents {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private FxEvents() {
+    }
+
+    /**
+     * Subscribes a view to the changes of an entity type.
+     * The listener runs on the JavaFX thread, and the subscription is closed when the
+     * owner leaves its scene, e.g. when its tab is closed.
+     *
+     * @param owner the node of the view, usually its root or its table
+     * @param entityType the entity class
+     * @param listener receives each burst of changes
+     * @return the subscription
+     */
+    public static EntityEventBus.Subscription subscribe(Node owner, Class<?> entityType,
+                                                        Consumer<List<EntityChange>> listener) {
+        EntityEventBus.Subscription subscription = EntityEventBus.getInstance()
+                .subscribe(entityType, Platform::runLater, listener);
+        owner.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                subscription.close();
+            }
+        });
+        return subscription;
+    }
+}
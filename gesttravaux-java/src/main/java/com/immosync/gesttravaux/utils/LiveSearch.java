@@ -0,0 +1,227 @@
+package com.immosync.gesttravaux.utils;
+
+import com.immosync.gesttravaux.dao.QueryCanceller;
+import com.immosync.gesttravaux.search.SearchIndex;
+import javafx.animation.PauseTransition;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Search-as-you-type for a search field.
+ * Keystrokes are debounced, and the search runs in a {@link BackgroundTask}. A search
+ * overtaken by a newer keystroke is cancelled, down to the JDBC statement, and its
+ * results are never shown.
+ * When the new text only extends the previous one ("par" then "pari"), the previous
+ * results are filtered in memory instead of querying again: a row is kept if its text
+ * contains every word typed, accents and case ignored. This is only exact for a
+ * monotonic source, whose results for the longer text are a subset of those for the
+ * shorter one: a LIKE query, or an indexed source while the {@link SearchIndex} is not
+ * built and falls back to LIKE. The index stems words, tolerates typos and ranks its
+ * hits, so the results of an indexed source are always queried again; the index lookup
+ * is in memory and cheap, and the cancellation of an overtaken search only interrupts
+ * its database work. Results capped at {@link SearchIndex#DEFAULT_LIMIT} rows may be
+ * incomplete and are never refined.
+ * All methods must be called on the JavaFX thread.
+ *
+ * @param <T> the row type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class LiveSearch<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSearch.class);
+
+    /**
+     * Pause after the last keystroke before searching.
+     */
+    public static final Duration DEFAULT_DELAY = Duration.millis(300);
+
+    private final Function<String, List<T>> source;
+    private final Function<T, String> text;
+    private final Consumer<List<T>> onResults;
+    private final Runnable onCleared;
+    private final boolean indexed;
+    private final PauseTransition debounce = new PauseTransition(DEFAULT_DELAY);
+
+    private String lastTerm;
+    private List<T> lastResults;
+    private boolean lastRefinable;
+    private QueryCanceller running;
+    private long generation;
+
+    /**
+     * Constructor for a source that runs a LIKE query. Starts listening to the field.
+     *
+     * @param field the search field
+     * @param source runs the search, on a background thread
+     * @param text the searchable text of a row, used to refine results in memory
+     * @param onResults shows the results
+     * @param onCleared called when the field is emptied
+     */
+    public LiveSearch(TextField field, Function<String, List<T>> source, Function<T, String> text,
+                      Consumer<List<T>> onResults, Runnable onCleared) {
+        this(field, source, false, text, onResults, onCleared);
+    }
+
+    /**
+     * Constructor. Starts listening to the field.
+     *
+     * @param field the search field
+     * @param source runs the search, on a background thread
+     * @param indexed true if the source searches the {@link SearchIndex} once it is built
+     * @param text the searchable text of a row, used to refine results in memory
+     * @param onResults shows the results
+     * @param onCleared called when the field is emptied
+     */
+    public LiveSearch(TextField field, Function<String, List<T>> source, boolean indexed,
+                      Function<T, String> text, Consumer<List<T>> onResults, Runnable onCleared) {
+        this.source = source;
+        this.indexed = indexed;
+        this.text = text;
+        this.onResults = onResults;
+        this.onCleared = onCleared;
+        debounce.setOnFinished(event -> search(field.getText()));
+        field.textProperty().addListener((obs, oldText, newText) -> debounce.playFromStart());
+    }
+
+    /**
+     * Searches right away, e.g. when the search button is pressed.
+     *
+     * @param searchText the text typed
+     */
+    public void search(String searchText) {
+        debounce.stop();
+        cancelRunning();
+        generation++;
+        String term = searchText == null ? "" : searchText.trim();
+        if (term.isEmpty()) {
+            invalidate();
+            onCleared.run();
+            return;
+        }
+        if (canRefine(term)) {
+            List<String> words = words(term);
+            List<T> refined = lastResults.stream()
+                    .filter(row -> matches(fold(text.apply(row)), words))
+                    .toList();
+            logger.debug("Search '{}' refined in memory: {} of {} rows", term, refined.size(), lastResults.size());
+            show(term, refined, true);
+            return;
+        }
+
+        long requestGeneration = generation;
+        boolean monotonic = isMonotonic();
+        QueryCanceller canceller = new QueryCanceller();
+        running = canceller;
+        BackgroundTask.call(() -> canceller.run(() -> source.apply(term)))
+                .status("Recherche de « " + term + " »...")
+                .onSuccess(rows -> {
+                    if (requestGeneration == generation) {
+                        running = null;
+                        // The index may have been built while the query ran
+                        show(term, rows, monotonic && isMonotonic());
+                    }
+                })
+                .onError(cause -> {
+                    if (requestGeneration == generation) {
+                        running = null;
+                        logger.error("Error searching '{}'", term, cause);
+                        AlertUtil.showError("Erreur de recherche", "La recherche a échoué", cause.getMessage());
+                    }
+                })
+                .start();
+    }
+
+    /**
+     * Forgets the previous results, so the next search queries again.
+     * Call it when the data may have changed. A search in progress is cancelled.
+     */
+    public void reset() {
+        debounce.stop();
+        cancelRunning();
+        generation++;
+        invalidate();
+    }
+
+    /**
+     * Forgets the previous results without cancelling the search in progress, so
+     * the next keystroke queries again instead of refining rows that changed.
+     */
+    public void invalidate() {
+        lastTerm = null;
+        lastResults = null;
+        lastRefinable = false;
+    }
+
+    private void show(String term, List<T> rows, boolean refinable) {
+        lastTerm = term;
+        lastResults = rows;
+        lastRefinable = refinable;
+        onResults.accept(rows);
+    }
+
+    private boolean canRefine(String term) {
+        return lastResults != null && lastRefinable && isMonotonic()
+                && lastResults.size() < SearchIndex.DEFAULT_LIMIT
+                && fold(term).startsWith(fold(lastTerm));
+    }
+
+    /**
+     * Checks if the source currently runs a LIKE query, whose results can be refined.
+     */
+    private boolean isMonotonic() {
+        return !indexed || !SearchIndex.getInstance().isReady();
+    }
+
+    private void cancelRunning() {
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+    }
+
+    private static boolean matches(String foldedText, List<String> words) {
+        for (String word : words) {
+            if (!foldedText.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> words(String term) {
+        return Stream.of(fold(term).split("\\s+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Lower-cases a text and strips its accents.
+     */
+    private static String fold(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Joins the searchable columns of a row, skipping null values.
+     *
+     * @param values the column values
+     * @return the row text
+     */
+    public static String text(String... values) {
+        return Stream.of(values).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
+}
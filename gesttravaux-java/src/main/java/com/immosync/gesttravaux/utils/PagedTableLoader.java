@@ -0,0 +1,410 @@
+package com.immosync.gesttravaux.utils;
+
+import com.immosync.gesttravaux.dao.Page;
+import com.immosync.gesttravaux.dao.Sort;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Fills a TableView page by page from a keyset-paginated source.
+ * The next page is fetched by a {@link BackgroundTask} when the user scrolls near the bottom,
+ * and clicking a column header reloads the table sorted by the database. The table shows
+ * a progress indicator while its first page loads.
+ * Only columns registered with {@link #sortable(TableColumn, String)} can be sorted.
+ * Items shown with {@link #showAll(List)} (e.g. search results) are not paged and
+ * are sorted in memory until the next {@link #reload()}. After a save or a delete,
+ * {@link #put(Object)} and {@link #remove(Object)} update the single row concerned;
+ * {@link TableSync} does the same for the changes made elsewhere, through
+ * {@link #putAll(List)} and {@link #removeAll(Collection)} which patch many rows in one pass.
+ *
+ * @param <T> the row type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class PagedTableLoader<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PagedTableLoader.class);
+
+    /**
+     * Number of rows fetched per page by default.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Fraction of the scroll range after which the next page is fetched.
+     */
+    private static final double PREFETCH_THRESHOLD = 0.85;
+
+    /**
+     * Source of pages, typically a service method.
+     *
+     * @param <T> the row type
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        Page<T> fetch(Sort sort, Page.Cursor after, int limit);
+    }
+
+    private final TableView<T> table;
+    private final PageSource<T> source;
+    private final int pageSize;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final Map<TableColumn<T, ?>, String> sortProperties = new HashMap<>();
+    private final Label emptyPlaceholder = new Label("Aucune donnée");
+    private final ProgressIndicator loadingPlaceholder = new ProgressIndicator();
+
+    private final Set<Object> changedIds = new HashSet<>();
+    private Function<T, ?> idOf;
+
+    private Sort sort = Sort.unsorted();
+    private Page.Cursor next;
+    private boolean paged = true;
+    private boolean loading;
+    private long generation;
+
+    /**
+     * Constructor with the default page size.
+     *
+     * @param table the table to fill
+     * @param source fetches the pages
+     */
+    public PagedTableLoader(TableView<T> table, PageSource<T> source) {
+        this(table, source, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param table the table to fill
+     * @param source fetches the pages; an empty sort asks for the source's default order
+     * @param pageSize the number of rows per page
+     */
+    public PagedTableLoader(TableView<T> table, PageSource<T> source, int pageSize) {
+        this.table = table;
+        this.source = source;
+        this.pageSize = pageSize;
+        table.setItems(items);
+        loadingPlaceholder.setMaxSize(40, 40);
+        table.getColumns().forEach(column -> column.setSortable(false));
+        table.setSortPolicy(t -> {
+            applySort();
+            return true;
+        });
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                hookScrollBar();
+            }
+        });
+    }
+
+    /**
+     * Makes a column sortable by the database.
+     *
+     * @param column the column
+     * @param property the entity property path sorted when the column is clicked
+     * @return this loader
+     */
+    public PagedTableLoader<T> sortable(TableColumn<T, ?> column, String property) {
+        sortProperties.put(column, property);
+        column.setSortable(true);
+        return this;
+    }
+
+    /**
+     * Sets the ID of a row, needed by {@link #put(Object)} and {@link #remove(Object)}.
+     *
+     * @param idOf gets the ID of a row
+     * @return this loader
+     */
+    public PagedTableLoader<T> identifiedBy(Function<T, ?> idOf) {
+        this.idOf = idOf;
+        return this;
+    }
+
+    /**
+     * Shows a created or updated row without reloading the table: the row with the
+     * same ID is replaced in place, otherwise the row is inserted at the top.
+     * The selection and the scroll position are kept. Pages loaded afterwards skip
+     * the row, so it never appears twice.
+     *
+     * @param row the new state of the row
+     */
+    public void put(T row) {
+        Object id = idOf(row);
+        T selected = table.getSelectionModel().getSelectedItem();
+        int index = indexOf(id);
+        changedIds.add(id);
+        if (index >= 0 && items.get(index).equals(row)) {
+            return;
+        }
+        if (index >= 0) {
+            items.set(index, row);
+        } else {
+            items.add(0, row);
+        }
+        if (selected != null && id.equals(idOf(selected)) && table.getSelectionModel().getSelectedItem() != row) {
+            table.getSelectionModel().select(row);
+        }
+    }
+
+    /**
+     * Shows several created or updated rows, like {@link #put(Object)} for each row,
+     * but looking the loaded rows up in a single pass. The new rows are inserted at
+     * the top, in the order of the list.
+     *
+     * @param rows the new state of the rows
+     */
+    public void putAll(List<T> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Object, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indexes.put(idOf(items.get(i)), i);
+        }
+        T selected = table.getSelectionModel().getSelectedItem();
+        Object selectedId = selected == null ? null : idOf(selected);
+        T reselected = null;
+        List<T> inserted = new ArrayList<>();
+        for (T row : rows) {
+            Object id = idOf(row);
+            Integer index = indexes.get(id);
+            changedIds.add(id);
+            if (index != null && items.get(index).equals(row)) {
+                continue;
+            }
+            if (index != null) {
+                items.set(index, row);
+            } else {
+                inserted.add(row);
+            }
+            if (id.equals(selectedId)) {
+                reselected = row;
+            }
+        }
+        items.addAll(0, inserted);
+        if (reselected != null && table.getSelectionModel().getSelectedItem() != reselected) {
+            table.getSelectionModel().select(reselected);
+        }
+    }
+
+    /**
+     * Removes several deleted rows in a single pass over the loaded rows.
+     *
+     * @param ids the IDs of the rows
+     */
+    public void removeAll(Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        changedIds.addAll(ids);
+        T selected = table.getSelectionModel().getSelectedItem();
+        if (selected != null && ids.contains(idOf(selected))) {
+            table.getSelectionModel().clearSelection();
+        }
+        items.removeIf(item -> ids.contains(idOf(item)));
+    }
+
+    /**
+     * Removes a deleted row without reloading the table.
+     * The row is unselected first, so the selection does not move to a neighbour.
+     *
+     * @param id the ID of the row
+     */
+    public void remove(Object id) {
+        int index = indexOf(id);
+        changedIds.add(id);
+        if (index < 0) {
+            return;
+        }
+        if (table.getSelectionModel().getSelectedIndex() == index) {
+            table.getSelectionModel().clearSelection();
+        }
+        items.remove(index);
+    }
+
+    /**
+     * Clears the table and loads the first page with the current sort.
+     */
+    public void reload() {
+        paged = true;
+        generation++;
+        loading = false;
+        next = null;
+        changedIds.clear();
+        items.clear();
+        table.setPlaceholder(loadingPlaceholder);
+        loadPage(null);
+    }
+
+    /**
+     * Shows a fixed list of rows instead of pages, e.g. search results.
+     *
+     * @param rows the rows to show
+     */
+    public void showAll(List<T> rows) {
+        paged = false;
+        generation++;
+        loading = false;
+        next = null;
+        changedIds.clear();
+        table.setPlaceholder(emptyPlaceholder);
+        items.setAll(rows);
+        if (!table.getSortOrder().isEmpty()) {
+            TableView.DEFAULT_SORT_POLICY.call(table);
+        }
+    }
+
+    /**
+     * Gets the rows currently loaded.
+     *
+     * @return the loaded rows
+     */
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Checks if a row is loaded.
+     *
+     * @param id the ID of the row
+     * @return true if the row is in the table
+     */
+    public boolean contains(Object id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Gets the IDs of the rows currently loaded.
+     *
+     * @return the IDs, in table order
+     */
+    public List<Object> getLoadedIds() {
+        return items.stream().<Object>map(this::idOf).toList();
+    }
+
+    /**
+     * Checks if the table shows pages rather than a fixed list of rows.
+     *
+     * @return false while search results are shown
+     */
+    public boolean isPaged() {
+        return paged;
+    }
+
+    /**
+     * Gets the table filled by this loader.
+     *
+     * @return the table
+     */
+    public TableView<T> getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the ID of a row.
+     *
+     * @param row the row
+     * @return the ID, as set by {@link #identifiedBy(Function)}
+     */
+    public Object idOf(T row) {
+        if (idOf == null) {
+            throw new IllegalStateException("Identifiant des lignes non défini (identifiedBy)");
+        }
+        return idOf.apply(row);
+    }
+
+    private int indexOf(Object id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (id.equals(idOf(items.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void applySort() {
+        if (!paged) {
+            TableView.DEFAULT_SORT_POLICY.call(table);
+            return;
+        }
+        Sort requested = Sort.unsorted();
+        for (TableColumn<T, ?> column : table.getSortOrder()) {
+            String property = sortProperties.get(column);
+            if (property != null) {
+                requested = requested.then(property, column.getSortType() == TableColumn.SortType.ASCENDING);
+            }
+        }
+        if (!requested.equals(sort)) {
+            sort = requested;
+            reload();
+        }
+    }
+
+    /**
+     * Fetches the next page when the vertical scroll bar gets near the bottom.
+     */
+    private void hookScrollBar() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, value) -> {
+                    if (value.doubleValue() >= bar.getMax() * PREFETCH_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+
+    private void loadNextPage() {
+        if (paged && next != null && !loading) {
+            loadPage(next);
+        }
+    }
+
+    private void loadPage(Page.Cursor after) {
+        loading = true;
+        long requestGeneration = generation;
+        Sort requestSort = sort;
+        BackgroundTask.call(() -> source.fetch(requestSort, after, pageSize))
+                .onSuccess(page -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading = false;
+                    table.setPlaceholder(emptyPlaceholder);
+                    items.addAll(changedIds.isEmpty() ? page.items()
+                            : page.items().stream().filter(item -> !changedIds.contains(idOf(item))).toList());
+                    next = page.next();
+                    logger.debug("Loaded page of {} rows ({} in table)", page.items().size(), items.size());
+                })
+                .onError(cause -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading = false;
+                    table.setPlaceholder(emptyPlaceholder);
+                    logger.error("Error loading page", cause);
+                    AlertUtil.showError("Erreur", "Impossible de charger les données", cause.getMessage());
+                })
+                .start();
+    }
+}
@@ -0,0 +1,162 @@
+package com.immosync.gesttravaux.utils;
+
+import com.immosync.gesttravaux.events.EntityChange;
+import javafx.scene.control.TableView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keeps a table filled by a {@link PagedTableLoader} in step with the changes committed
+ * elsewhere (another tab, an import), patching the rows concerned instead of reloading:
+ * <ul>
+ *   <li>a deleted entity's row is removed;</li>
+ *   <li>a created entity's row is fetched and shown at the top, unless search results
+ *       are shown;</li>
+ *   <li>an updated entity's row is fetched again if it is loaded;</li>
+ *   <li>after a bulk change of the type, or an update of a related entity touching an
+ *       attribute shown in the table (registered with
+ *       {@link #dependsOn(Class, String...)}), all the loaded rows are fetched again.</li>
+ * </ul>
+ * Rows are fetched by a {@link BackgroundTask}; a row equal to the one shown is left
+ * untouched, so the selection and the form stay as they are.
+ *
+ * <pre>
+ * new TableSync&lt;&gt;(pagedLoader, Bien.class, bienService::getBienRows)
+ *         .dependsOn(Proprietaire.class, "nomProprietaire", "prenomProprietaire")
+ *         .start();
+ * </pre>
+ *
+ * @param <T> the row type
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class TableSync<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableSync.class);
+
+    private final PagedTableLoader<T> loader;
+    private final Class<?> entityType;
+    private final Function<List<Integer>, List<T>> rowsById;
+    private final Map<Class<?>, String[]> dependencies = new LinkedHashMap<>();
+    private Runnable onChange = () -> { };
+
+    /**
+     * Constructor.
+     *
+     * @param loader the loader of the table, with {@link PagedTableLoader#identifiedBy} set
+     * @param entityType the entity class shown in the table
+     * @param rowsById fetches the rows of some entity IDs, on a background thread
+     */
+    public TableSync(PagedTableLoader<T> loader, Class<?> entityType, Function<List<Integer>, List<T>> rowsById) {
+        this.loader = loader;
+        this.entityType = entityType;
+        this.rowsById = rowsById;
+    }
+
+    /**
+     * Refreshes the rows when a related entity is updated, e.g. the owner whose name
+     * is shown in a column.
+     *
+     * @param type the related entity class
+     * @param attributes the attributes of the related entity shown in the table
+     * @return this synchronizer
+     */
+    public TableSync<T> dependsOn(Class<?> type, String... attributes) {
+        dependencies.put(type, attributes);
+        return this;
+    }
+
+    /**
+     * Sets an action run before the rows are patched, e.g. {@link LiveSearch#invalidate()}.
+     *
+     * @param action the action, run on the JavaFX thread
+     * @return this synchronizer
+     */
+    public TableSync<T> onChange(Runnable action) {
+        this.onChange = action;
+        return this;
+    }
+
+    /**
+     * Starts listening, until the table leaves its scene.
+     */
+    public void start() {
+        TableView<T> table = loader.getTable();
+        FxEvents.subscribe(table, entityType, this::apply);
+        dependencies.forEach((type, attributes) -> FxEvents.subscribe(table, type, changes -> {
+            boolean affected = changes.stream().anyMatch(change -> change.kind() == EntityChange.Kind.BULK
+                    || change.kind() == EntityChange.Kind.UPDATED && change.affects(attributes));
+            if (affected) {
+                onChange.run();
+                refreshLoaded();
+            }
+        }));
+    }
+
+    private void apply(List<EntityChange> changes) {
+        onChange.run();
+        List<Object> fetched = new ArrayList<>();
+        for (EntityChange change : changes) {
+            switch (change.kind()) {
+                case BULK -> {
+                    refreshLoaded();
+                    return;
+                }
+                case DELETED -> loader.remove(change.id());
+                case CREATED -> {
+                    if (loader.isPaged()) {
+                        fetched.add(change.id());
+                    }
+                }
+                case UPDATED -> {
+                    if (loader.contains(change.id())) {
+                        fetched.add(change.id());
+                    }
+                }
+            }
+        }
+        fetch(fetched);
+    }
+
+    private void refreshLoaded() {
+        fetch(loader.getLoadedIds());
+    }
+
+    /**
+     * Fetches rows and shows them. Rows that are loaded but no longer found are removed;
+     * rows unloaded in the meantime (reload, new search) are not brought back, unless new.
+     */
+    private void fetch(List<Object> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Object> loaded = new HashSet<>(loader.getLoadedIds());
+        List<Integer> requested = ids.stream().map(Integer.class::cast).toList();
+        BackgroundTask.call(() -> rowsById.apply(requested))
+                .onSuccess(rows -> {
+                    Set<Object> missing = new HashSet<>(ids);
+                    Set<Object> current = new HashSet<>(loader.getLoadedIds());
+                    List<T> shown = new ArrayList<>();
+                    for (T row : rows) {
+                        Object id = loader.idOf(row);
+                        missing.remove(id);
+                        if (!loaded.contains(id) || current.contains(id)) {
+                            shown.add(row);
+                        }
+                    }
+                    loader.putAll(shown);
+                    loader.removeAll(missing);
+                    logger.debug("Synchronized {} row(s) of {}", ids.size(), entityType.getSimpleName());
+                })
+                .onError(cause -> logger.warn("Error refreshing rows of {}", entityType.getSimpleName(), cause))
+                .start();
+    }
+}
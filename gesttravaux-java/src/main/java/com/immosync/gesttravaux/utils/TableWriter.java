@@ -0,0 +1,38 @@
+package com.immosync.gesttravaux.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes tabular data row by row to a file, without keeping rows in memory.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public interface TableWriter extends Closeable {
+
+    /**
+     * Writes one row. Numbers are written as numbers, null as an empty cell,
+     * everything else as text.
+     *
+     * @param values the cell values
+     * @throws IOException if the file cannot be written
+     */
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * Opens a writer for the file, choosing the format from its extension
+     * (.xlsx for Excel, anything else for CSV).
+     *
+     * @param file the output file
+     * @return the writer
+     * @throws IOException if the file cannot be created
+     */
+    static TableWriter open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".xlsx") ? new XlsxWriter(file) : new CsvWriter(file);
+    }
+}
@@ -97,7 +97,8 @@ public class ChantierServiceTest {
     @DisplayName("Test: Update Chantier Status")
     public void testUpdateStatut() {
         if (createdChantierId != null) {
-            Chantier updated = chantierService.updateStatut(createdChantierId, 1);
+            chantierService.updateStatut(createdChantierId, 1);
+            Chantier updated = chantierService.findById(createdChantierId).orElseThrow();
             assertEquals(1, updated.getStatutChantier());
             assertEquals("En cours", updated.getStatutString());
         }
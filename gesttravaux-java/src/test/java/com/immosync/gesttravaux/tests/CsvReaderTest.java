@@ -0,0 +1,60 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.utils.CsvReader;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Unit tests for CsvReader.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class CsvReaderTest {
+
+    @Test
+    @DisplayName("Test: Semicolon Separated With Quotes")
+    public void testQuotedFields() throws IOException {
+        String csv = "Nom;Prenom;Email\n"
+                + "Dupont;\"Jean; Pierre\";jean@test.com\n"
+                + "\"Martin \"\"Le Grand\"\"\";Paul;\n";
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            CsvReader.Row first = reader.next();
+            assertEquals(2, first.getLine());
+            assertEquals("Jean; Pierre", first.get("prenom"));
+            assertEquals("jean@test.com", first.get("EMAIL"));
+
+            CsvReader.Row second = reader.next();
+            assertEquals("Martin \"Le Grand\"", second.get("nom"));
+            assertNull(second.get("email"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Line Break Inside Quotes")
+    public void testMultilineField() throws IOException {
+        String csv = "adresse,ville,info\n"
+                + "1 rue A,Paris,\"ligne 1\nligne 2\"\n"
+                + "\n"
+                + "2 rue B,Lyon,\n";
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            assertEquals("ligne 1\nligne 2", reader.next().get("info"));
+            CsvReader.Row row = reader.next();
+            assertEquals(5, row.getLine());
+            assertEquals("Lyon", row.get("ville"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Missing Column Rejected")
+    public void testRequireColumns() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("\uFEFFnom;prenom\n"))) {
+            reader.requireColumns("nom", "prenom");
+            assertThrows(IllegalArgumentException.class, () -> reader.requireColumns("email"));
+        }
+    }
+}
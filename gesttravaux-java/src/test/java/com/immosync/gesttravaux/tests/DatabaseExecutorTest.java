@@ -0,0 +1,35 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.dao.DatabaseExecutor;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Unit tests for DatabaseExecutor, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class DatabaseExecutorTest {
+
+    @Test
+    @DisplayName("Test: Concurrency Limit Follows Pool And Carriers")
+    public void testConcurrencyLimit() {
+        assertEquals(10, DatabaseExecutor.concurrencyLimit(10, false, 4));
+        assertEquals(3, DatabaseExecutor.concurrencyLimit(10, true, 4));
+        assertEquals(10, DatabaseExecutor.concurrencyLimit(10, true, 16));
+        assertEquals(1, DatabaseExecutor.concurrencyLimit(10, true, 1));
+    }
+
+    @Test
+    @DisplayName("Test: Async Work Completes With Its Result Or Error")
+    public void testSupplyAsync() {
+        assertEquals("ok", DatabaseExecutor.supplyAsync(() -> "ok").join());
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> DatabaseExecutor.supplyAsync(() -> { throw new IllegalStateException("échec"); }).join());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
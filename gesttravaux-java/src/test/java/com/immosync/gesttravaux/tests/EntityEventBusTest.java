@@ -0,0 +1,68 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.events.EntityChange;
+import com.immosync.gesttravaux.events.EntityEventBus;
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Proprietaire;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for the coalescing of entity changes, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class EntityEventBusTest {
+
+    @Test
+    @DisplayName("Test: Changes Of An Entity Are Merged")
+    public void testMerge() {
+        EntityEventBus bus = new EntityEventBus(0);
+        List<List<EntityChange>> received = new ArrayList<>();
+        bus.subscribe(Bien.class, Runnable::run, received::add);
+        bus.subscribe(Proprietaire.class, Runnable::run, changes -> fail("Wrong type delivered"));
+
+        bus.publish(EntityChange.created(Bien.class, 1));
+        bus.publish(EntityChange.updated(Bien.class, 1, Set.of("villeBien")));
+        bus.publish(EntityChange.created(Bien.class, 2));
+        bus.publish(EntityChange.deleted(Bien.class, 2));
+        bus.publish(EntityChange.updated(Bien.class, 3, Set.of("villeBien")));
+        bus.publish(EntityChange.updated(Bien.class, 3, Set.of("adresseBien")));
+        bus.flush();
+
+        assertEquals(1, received.size());
+        List<EntityChange> changes = received.get(0);
+        assertEquals(2, changes.size());
+        assertEquals(EntityChange.created(Bien.class, 1), changes.get(0));
+        assertEquals(Set.of("villeBien", "adresseBien"), changes.get(1).attributes());
+        assertFalse(changes.get(1).affects("proprietaire"));
+        assertTrue(changes.get(1).affects("villeBien"));
+
+        bus.flush();
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    @DisplayName("Test: Large Bursts Collapse Into A Bulk Change")
+    public void testBulk() {
+        EntityEventBus bus = new EntityEventBus(0);
+        List<List<EntityChange>> received = new ArrayList<>();
+        EntityEventBus.Subscription subscription = bus.subscribe(Bien.class, Runnable::run, received::add);
+
+        for (int id = 0; id <= EntityEventBus.MAX_CHANGES_PER_TYPE; id++) {
+            bus.publish(EntityChange.created(Bien.class, id));
+        }
+        bus.flush();
+        assertEquals(List.of(EntityChange.bulk(Bien.class)), received.get(0));
+
+        subscription.close();
+        bus.publish(EntityChange.deleted(Bien.class, 1));
+        bus.flush();
+        assertEquals(1, received.size());
+    }
+}
@@ -0,0 +1,117 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.config.HibernateUtil;
+import com.immosync.gesttravaux.dao.TransactionRunner;
+import com.immosync.gesttravaux.models.Categorie;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.services.CategorieService;
+import com.immosync.gesttravaux.services.EntrepreneurService;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Checks that loading entrepreneurs with their categories takes a constant
+ * number of SQL statements, whatever the number of entrepreneurs.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class EntrepreneurFetchTest {
+
+    private static final int ENTREPRENEURS = 5;
+    private static final String VILLE = "Fetchville";
+
+    private static final EntrepreneurService entrepreneurService = new EntrepreneurService();
+    private static final CategorieService categorieService = new CategorieService();
+    private static final List<Integer> entrepreneurIds = new ArrayList<>();
+    private static final List<Integer> categorieIds = new ArrayList<>();
+
+    @BeforeAll
+    public static void createEntrepreneurs() {
+        List<Categorie> categories = new ArrayList<>();
+        for (String type : List.of("Fetch Plomberie", "Fetch Peinture")) {
+            Categorie categorie = categorieService.createCategorie(new Categorie(type));
+            categories.add(categorie);
+            categorieIds.add(categorie.getIdCategorie());
+        }
+        for (int i = 0; i < ENTREPRENEURS; i++) {
+            Entrepreneur entrepreneur = new Entrepreneur();
+            entrepreneur.setNomEntrepreneur("Fetch" + i);
+            entrepreneur.setPrenomEntrepreneur("Test");
+            entrepreneur.setEmailEntrepreneur("fetch" + i + "@test.com");
+            entrepreneur.setVilleDeploiement(VILLE);
+            Integer id = entrepreneurService.createEntrepreneur(entrepreneur).getIdEntrepreneur();
+            categories.forEach(categorie -> entrepreneurService.addCategorie(id, categorie));
+            entrepreneurIds.add(id);
+        }
+    }
+
+    @AfterAll
+    public static void deleteEntrepreneurs() {
+        entrepreneurIds.forEach(entrepreneurService::deleteEntrepreneur);
+        categorieIds.forEach(categorieService::deleteCategorie);
+    }
+
+    @Test
+    @DisplayName("Test: Find By City Fetches Categories In One Statement")
+    public void testFindByVille() {
+        List<Entrepreneur> found = countStatements(1, () -> entrepreneurService.findByVille(VILLE));
+        assertEquals(ENTREPRENEURS, found.size());
+    }
+
+    @Test
+    @DisplayName("Test: Search By Name Fetches Categories In One Statement")
+    public void testSearchByName() {
+        List<Entrepreneur> found = countStatements(1, () -> entrepreneurService.searchByName("Fetch"));
+        assertEquals(ENTREPRENEURS, found.size());
+    }
+
+    @Test
+    @DisplayName("Test: Find By Category Keeps Every Category")
+    public void testFindByCategorie() {
+        List<Entrepreneur> found = countStatements(1,
+                () -> entrepreneurService.findByCategorie(categorieIds.get(0)));
+        assertEquals(ENTREPRENEURS, found.size());
+        found.forEach(entrepreneur -> assertEquals(categorieIds.size(), entrepreneur.getCategories().size()));
+    }
+
+    @Test
+    @DisplayName("Test: Find All Fetches Categories In One Statement")
+    public void testFindAll() {
+        countStatements(1, entrepreneurService::getAllEntrepreneurs);
+    }
+
+    @Test
+    @DisplayName("Test: Lazy Categories Are Loaded By One Subselect")
+    public void testSubselect() {
+        countStatements(2, () -> TransactionRunner.withSession(session -> {
+            List<Entrepreneur> found = session.createQuery(
+                    "FROM Entrepreneur e WHERE e.villeDeploiement = :ville", Entrepreneur.class)
+                    .setParameter("ville", VILLE)
+                    .getResultList();
+            found.forEach(entrepreneur -> entrepreneur.getCategories().size());
+            return found;
+        }));
+    }
+
+    /**
+     * Runs a load from a cold cache, touches every entrepreneur's categories and
+     * checks the number of SQL statements sent.
+     */
+    private static List<Entrepreneur> countStatements(long expected, Supplier<List<Entrepreneur>> load) {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        statistics.clear();
+
+        List<Entrepreneur> found = load.get();
+        found.forEach(entrepreneur -> assertNotNull(entrepreneur.getCategories().iterator()));
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return found;
+    }
+}
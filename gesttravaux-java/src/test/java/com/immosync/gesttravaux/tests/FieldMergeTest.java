@@ -0,0 +1,68 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Proprietaire;
+import com.immosync.gesttravaux.utils.FieldMerge;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for the field-level merge of a form after an update conflict, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class FieldMergeTest {
+
+    private final FieldMerge<Bien> merge = new FieldMerge<Bien>()
+            .field("Adresse", Bien::getAdresseBien, Bien::setAdresseBien)
+            .field("Ville", Bien::getVilleBien, Bien::setVilleBien)
+            .field("Propriétaire", Bien::getProprietaire, Bien::setProprietaire);
+
+    @Test
+    @DisplayName("Test: Changes On One Side Merge Without Conflict")
+    public void testMergeOneSide() {
+        Proprietaire martin = proprietaire(1, "Martin");
+        Bien mine = bien("12 rue des Lilas", "Lyon", martin);
+        merge.load(mine);
+        mine.setAdresseBien("14 rue des Lilas");
+
+        Bien theirs = bien("12 rue des Lilas", "Villeurbanne", proprietaire(1, "Martin"));
+        theirs.setVersion(3);
+
+        assertTrue(merge.merge(mine, theirs).isEmpty());
+        assertEquals("14 rue des Lilas", theirs.getAdresseBien());
+        assertEquals("Villeurbanne", theirs.getVilleBien());
+        assertEquals(martin, theirs.getProprietaire());
+        assertEquals(3, theirs.getVersion());
+    }
+
+    @Test
+    @DisplayName("Test: Different Changes Of A Field Are A Conflict")
+    public void testMergeConflict() {
+        Bien mine = bien("12 rue des Lilas", "Lyon", proprietaire(1, "Martin"));
+        merge.load(mine);
+        mine.setVilleBien("Bron");
+        mine.setProprietaire(proprietaire(2, "Durand"));
+
+        Bien theirs = bien("12 rue des Lilas", "Villeurbanne", proprietaire(2, "Durand"));
+
+        List<FieldMerge.Conflict> conflicts = merge.merge(mine, theirs);
+        assertEquals(List.of(new FieldMerge.Conflict("Ville", "Bron", "Villeurbanne")), conflicts);
+        assertEquals("Villeurbanne", theirs.getVilleBien());
+    }
+
+    private static Bien bien(String adresse, String ville, Proprietaire proprietaire) {
+        Bien bien = new Bien(adresse, ville, proprietaire);
+        bien.setIdBien(7);
+        return bien;
+    }
+
+    private static Proprietaire proprietaire(int id, String nom) {
+        Proprietaire proprietaire = new Proprietaire(nom, "Claire", nom.toLowerCase() + "@example.com");
+        proprietaire.setIdProprietaire(id);
+        return proprietaire;
+    }
+}
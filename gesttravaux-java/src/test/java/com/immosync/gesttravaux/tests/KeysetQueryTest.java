@@ -0,0 +1,77 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.dao.KeysetQuery;
+import com.immosync.gesttravaux.dao.Sort;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for KeysetQuery and Sort.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class KeysetQueryTest {
+
+    @Test
+    @DisplayName("Test: First Page Has No Seek Predicate")
+    public void testFirstPage() {
+        KeysetQuery query = new KeysetQuery("Bien", Sort.by("villeBien", "idBien"), null);
+
+        assertEquals("SELECT e.villeBien, e.idBien FROM Bien e ORDER BY e.villeBien ASC, e.idBien ASC",
+                query.getHql());
+        assertTrue(query.getParameters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test: Next Page Seeks After Cursor")
+    public void testAscendingSeek() {
+        KeysetQuery query = new KeysetQuery("Bien", Sort.by("villeBien", "idBien"), List.of("Lyon", 42));
+
+        assertTrue(query.getHql().contains(
+                "WHERE ((e.villeBien > :k0) OR (e.villeBien = :k0 AND e.idBien > :k1))"));
+        assertEquals(Map.of("k0", "Lyon", "k1", 42), query.getParameters());
+    }
+
+    @Test
+    @DisplayName("Test: Descending Key Keeps Nulls Last")
+    public void testDescendingSeek() {
+        Sort sort = Sort.unsorted().then("dateCreation", false).then("idDevis", true);
+        KeysetQuery query = new KeysetQuery("Devis", sort, List.of("2024-01-01", 7));
+
+        assertTrue(query.getHql().contains("(e.dateCreation < :k0 OR e.dateCreation IS NULL)"));
+        assertTrue(query.getHql().endsWith("ORDER BY e.dateCreation DESC, e.idDevis ASC"));
+    }
+
+    @Test
+    @DisplayName("Test: Null Cursor Value Compared With IS NULL")
+    public void testNullCursorValue() {
+        KeysetQuery query = new KeysetQuery("Chantier", Sort.by("villeChantier", "idChantier"),
+                Arrays.asList(null, 3));
+
+        assertTrue(query.getHql().contains(
+                "WHERE ((e.villeChantier IS NOT NULL) OR (e.villeChantier IS NULL AND e.idChantier > :k1))"));
+        assertEquals(Map.of("k1", 3), query.getParameters());
+    }
+
+    @Test
+    @DisplayName("Test: Association Paths Are Left Joined Once")
+    public void testDottedPath() {
+        Sort sort = Sort.by("categorie.type", "categorie.idCategorie", "idPrestation");
+        KeysetQuery query = new KeysetQuery("Prestation", sort, null);
+
+        assertEquals("SELECT j0.type, j0.idCategorie, e.idPrestation FROM Prestation e "
+                + "LEFT JOIN e.categorie j0 "
+                + "ORDER BY j0.type ASC, j0.idCategorie ASC, e.idPrestation ASC", query.getHql());
+    }
+
+    @Test
+    @DisplayName("Test: Invalid Sort Property Rejected")
+    public void testInvalidProperty() {
+        assertThrows(IllegalArgumentException.class, () -> Sort.by("nom; DROP TABLE BIEN"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.config.PerformanceProfile;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Properties;
+
+/**
+ * Unit tests for the selection and the settings of the performance profiles, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class PerformanceProfileTest {
+
+    @AfterEach
+    public void clearSystemProperty() {
+        System.clearProperty(PerformanceProfile.SYSTEM_PROPERTY);
+    }
+
+    @Test
+    @DisplayName("Test: Profile Selection Order")
+    public void testSelect() {
+        Properties configuration = new Properties();
+        assertEquals(PerformanceProfile.OLTP, PerformanceProfile.select(configuration));
+
+        configuration.setProperty(PerformanceProfile.SETTING, "reporting");
+        assertEquals(PerformanceProfile.REPORTING, PerformanceProfile.select(configuration));
+
+        System.setProperty(PerformanceProfile.SYSTEM_PROPERTY, "BULK-LOAD");
+        assertEquals(PerformanceProfile.BULK_LOAD, PerformanceProfile.select(configuration));
+
+        System.setProperty(PerformanceProfile.SYSTEM_PROPERTY, "turbo");
+        assertThrows(IllegalArgumentException.class, () -> PerformanceProfile.select(configuration));
+    }
+
+    @Test
+    @DisplayName("Test: Driver Properties Are Passed To The Pool")
+    public void testSettings() {
+        Properties bulk = PerformanceProfile.BULK_LOAD.toProperties();
+        assertEquals("false", bulk.getProperty("hibernate.hikari.dataSource.useServerPrepStmts"));
+        assertEquals("true", bulk.getProperty("hibernate.hikari.dataSource.rewriteBatchedStatements"));
+        assertEquals("true", bulk.getProperty("hibernate.hikari.dataSource.cachePrepStmts"));
+        assertEquals("500", bulk.getProperty("hibernate.jdbc.batch_size"));
+
+        Properties reporting = PerformanceProfile.REPORTING.toProperties();
+        assertEquals("true", reporting.getProperty("hibernate.hikari.dataSource.useCursorFetch"));
+        assertEquals(reporting.getProperty("hibernate.jdbc.fetch_size"),
+                reporting.getProperty("hibernate.hikari.dataSource.defaultFetchSize"));
+    }
+}
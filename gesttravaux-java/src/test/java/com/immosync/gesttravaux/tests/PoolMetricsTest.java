@@ -0,0 +1,65 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.config.PoolMetrics;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for PoolMetrics.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class PoolMetricsTest {
+
+    private PoolMetrics poolMetrics;
+    private IMetricsTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        poolMetrics = new PoolMetrics();
+        tracker = poolMetrics.create("test-pool", null);
+    }
+
+    @Test
+    @DisplayName("Test: Empty Snapshot")
+    public void testEmptySnapshot() {
+        PoolMetrics.Snapshot snapshot = poolMetrics.snapshot();
+        assertEquals(0, snapshot.acquireCount());
+        assertEquals(0, snapshot.percentileMicros(99));
+        assertEquals(0, snapshot.active());
+    }
+
+    @Test
+    @DisplayName("Test: Acquire Time Histogram")
+    public void testAcquireHistogram() {
+        for (int i = 0; i < 98; i++) {
+            tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(40));
+        }
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.SECONDS.toNanos(8));
+
+        PoolMetrics.Snapshot snapshot = poolMetrics.snapshot();
+        assertEquals(100, snapshot.acquireCount());
+        assertEquals(98, snapshot.histogram()[0]);
+        assertEquals(1, snapshot.histogram()[snapshot.histogram().length - 1]);
+        assertEquals(50, snapshot.percentileMicros(50));
+        assertEquals(5_000, snapshot.percentileMicros(99));
+        assertEquals(8_000_000, snapshot.percentileMicros(100));
+    }
+
+    @Test
+    @DisplayName("Test: Timeouts and Created Connections")
+    public void testCounters() {
+        tracker.recordConnectionCreatedMillis(12);
+        tracker.recordConnectionCreatedMillis(15);
+        tracker.recordConnectionTimeout();
+
+        PoolMetrics.Snapshot snapshot = poolMetrics.snapshot();
+        assertEquals(2, snapshot.connectionsCreated());
+        assertEquals(1, snapshot.timeouts());
+    }
+}
@@ -0,0 +1,36 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.dao.QueryCanceller;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Unit tests for QueryCanceller, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class QueryCancellerTest {
+
+    @Test
+    @DisplayName("Test: Work Runs Until Cancelled")
+    public void testRun() {
+        QueryCanceller canceller = new QueryCanceller();
+
+        assertEquals("ok", canceller.run(() -> "ok"));
+        assertFalse(canceller.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Test: Cancelled Work Does Not Start")
+    public void testCancelledBeforeRun() {
+        QueryCanceller canceller = new QueryCanceller();
+        canceller.cancel();
+        canceller.cancel();
+
+        assertTrue(canceller.isCancelled());
+        assertThrows(CancellationException.class, () -> canceller.run(() -> fail("La recherche ne doit pas démarrer")));
+    }
+}
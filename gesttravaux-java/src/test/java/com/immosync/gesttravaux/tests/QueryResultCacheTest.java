@@ -0,0 +1,79 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.dao.QueryResultCache;
+import com.immosync.gesttravaux.models.Categorie;
+import com.immosync.gesttravaux.models.Prestation;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for QueryResultCache.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class QueryResultCacheTest {
+
+    private static final String QUERY = "FROM Prestation p ORDER BY p.libelle";
+
+    private QueryResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new QueryResultCache();
+        loads = new AtomicInteger();
+    }
+
+    private List<String> load() {
+        return cache.get(QUERY, List.of(), Set.of(Prestation.class, Categorie.class), () -> {
+            loads.incrementAndGet();
+            return List.of("Peinture", "Plomberie");
+        });
+    }
+
+    @Test
+    @DisplayName("Test: Repeated Query Served From Memory")
+    public void testHit() {
+        assertEquals(List.of("Peinture", "Plomberie"), load());
+        assertEquals(List.of("Peinture", "Plomberie"), load());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    @DisplayName("Test: Write On Dependency Invalidates")
+    public void testInvalidation() {
+        load();
+        cache.invalidate(Categorie.class);
+        load();
+        assertEquals(2, loads.get());
+
+        cache.invalidate(String.class);
+        load();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test: Result Loaded During A Write Is Not Cached")
+    public void testConcurrentWrite() {
+        cache.get(QUERY, List.of(), Set.of(Prestation.class), () -> {
+            loads.incrementAndGet();
+            cache.invalidate(Prestation.class);
+            return List.of("Peinture");
+        });
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    @DisplayName("Test: Callers Get Their Own Copy")
+    public void testCopy() {
+        load().clear();
+        assertEquals(2, load().size());
+    }
+}
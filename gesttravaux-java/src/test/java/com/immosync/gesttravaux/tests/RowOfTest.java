@@ -0,0 +1,46 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.dto.BienRow;
+import com.immosync.gesttravaux.dto.ChantierRow;
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Proprietaire;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the table rows built in memory after a save, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class RowOfTest {
+
+    @Test
+    @DisplayName("Test: Bien Row Matches Projection")
+    public void testBienRow() {
+        Proprietaire proprietaire = new Proprietaire("Martin", "Claire", "claire.martin@example.com");
+        Bien bien = new Bien("12 rue des Lilas", "Lyon", proprietaire);
+        bien.setIdBien(7);
+
+        assertEquals(new BienRow(7, "12 rue des Lilas", "Lyon", "Claire Martin"), BienRow.of(bien));
+
+        bien.setProprietaire(null);
+        assertNull(BienRow.of(bien).proprietaire());
+    }
+
+    @Test
+    @DisplayName("Test: Chantier Row Concatenates Like SQL")
+    public void testChantierRow() {
+        Bien bien = new Bien("12 rue des Lilas", null, null);
+        Chantier chantier = new Chantier("Lyon", "3 place Bellecour", bien);
+        chantier.setIdChantier(3);
+
+        ChantierRow row = ChantierRow.of(chantier);
+
+        assertEquals(3, row.idChantier());
+        assertNull(row.bien(), "CONCAT renvoie NULL si une partie est NULL");
+        assertNull(row.inspecteur());
+        assertEquals(0, row.statutChantier());
+    }
+}
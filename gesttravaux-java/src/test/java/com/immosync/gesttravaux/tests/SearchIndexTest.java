@@ -0,0 +1,123 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.models.Bien;
+import com.immosync.gesttravaux.models.Chantier;
+import com.immosync.gesttravaux.models.Entrepreneur;
+import com.immosync.gesttravaux.search.SearchHit;
+import com.immosync.gesttravaux.search.SearchIndex;
+import com.immosync.gesttravaux.search.SearchType;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Unit tests for the full-text SearchIndex, without database.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new SearchIndex();
+        index.indexAll(List.of(
+                entrepreneur(1, "Lefèvre", "Émile", "Évry"),
+                entrepreneur(2, "Dupont", "Jean", "Paris"),
+                entrepreneur(3, "Martin", "Paris", "Lyon"),
+                chantier(10, "12 rue des Peintres", "Nantes", "Peintures de la façade"),
+                bien(20, "3 avenue de l'Église", "Paris")));
+    }
+
+    @Test
+    @DisplayName("Test: Accents Are Folded")
+    public void testAccentFolding() {
+        assertEquals(List.of(1), ids("lefevre emile", SearchType.ENTREPRENEUR));
+        assertEquals(List.of(1), ids("EVRY", SearchType.ENTREPRENEUR));
+        assertEquals(List.of(20), ids("eglise", SearchType.BIEN));
+    }
+
+    @Test
+    @DisplayName("Test: French Words Are Stemmed")
+    public void testStemming() {
+        assertEquals(List.of(10), ids("peinture facade", SearchType.CHANTIER));
+    }
+
+    @Test
+    @DisplayName("Test: Typos And Unfinished Words Match")
+    public void testFuzzyAndPrefix() {
+        assertEquals(List.of(2), ids("Dupond", SearchType.ENTREPRENEUR));
+        assertEquals(List.of(2), ids("dup", SearchType.ENTREPRENEUR));
+    }
+
+    @Test
+    @DisplayName("Test: Name Outranks City")
+    public void testRanking() {
+        // "Paris" is the first name of Martin but only the city of Dupont
+        assertEquals(List.of(3, 2), ids("paris", SearchType.ENTREPRENEUR));
+    }
+
+    @Test
+    @DisplayName("Test: Global Search Covers Every Type")
+    public void testGlobalSearch() {
+        List<SearchHit> hits = index.search("paris", 10);
+
+        assertEquals(EnumSet.of(SearchType.ENTREPRENEUR, SearchType.BIEN),
+                EnumSet.copyOf(hits.stream().map(SearchHit::type).toList()));
+        assertTrue(hits.stream().anyMatch(hit -> hit.label().equals("3 avenue de l'Église, Paris")));
+    }
+
+    @Test
+    @DisplayName("Test: Updated And Removed Entities")
+    public void testUpdateAndRemove() {
+        index.index(entrepreneur(2, "Durand", "Jean", "Paris"));
+        assertTrue(ids("dupont", SearchType.ENTREPRENEUR).isEmpty());
+        assertEquals(List.of(2), ids("durand", SearchType.ENTREPRENEUR));
+
+        index.remove(Entrepreneur.class, List.of(2));
+        assertTrue(ids("durand", SearchType.ENTREPRENEUR).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test: Not Ready Before Rebuild")
+    public void testNotReady() {
+        assertFalse(index.isReady());
+        assertTrue(index.findIds(SearchType.ENTREPRENEUR, "dupont").isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    private List<Integer> ids(String text, SearchType type) {
+        return index.search(text, EnumSet.of(type), 10).stream().map(SearchHit::id).toList();
+    }
+
+    private static Entrepreneur entrepreneur(int id, String nom, String prenom, String ville) {
+        Entrepreneur entrepreneur = new Entrepreneur();
+        entrepreneur.setIdEntrepreneur(id);
+        entrepreneur.setNomEntrepreneur(nom);
+        entrepreneur.setPrenomEntrepreneur(prenom);
+        entrepreneur.setEmailEntrepreneur(nom.toLowerCase() + "@test.com");
+        entrepreneur.setVilleDeploiement(ville);
+        return entrepreneur;
+    }
+
+    private static Chantier chantier(int id, String adresse, String ville, String info) {
+        Chantier chantier = new Chantier();
+        chantier.setIdChantier(id);
+        chantier.setAdresseChantier(adresse);
+        chantier.setVilleChantier(ville);
+        chantier.setInfoChantier(info);
+        return chantier;
+    }
+
+    private static Bien bien(int id, String adresse, String ville) {
+        Bien bien = new Bien();
+        bien.setIdBien(id);
+        bien.setAdresseBien(adresse);
+        bien.setVilleBien(ville);
+        return bien;
+    }
+}
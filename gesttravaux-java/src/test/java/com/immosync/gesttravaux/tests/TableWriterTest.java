@@ -0,0 +1,60 @@
+package com.immosync.gesttravaux.tests;
+
+import com.immosync.gesttravaux.utils.CsvWriter;
+import com.immosync.gesttravaux.utils.TableWriter;
+import com.immosync.gesttravaux.utils.XlsxWriter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+/**
+ * Unit tests for the CSV and XLSX table writers.
+ *
+ * @author GestTravaux Pro
+ * @version 1.0
+ */
+public class TableWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test: CSV Quoting")
+    public void testCsvQuoting() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.writeRow(List.of("ID", "Adresse"));
+            writer.writeRow(Arrays.asList(1, "12 rue \"Haute\"; bât. B"));
+            writer.writeRow(Arrays.asList(2, null));
+        }
+        assertEquals("ID;Adresse\r\n1;\"12 rue \"\"Haute\"\"; bât. B\"\r\n2;\r\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Test: XLSX Workbook Structure")
+    public void testXlsx() throws IOException {
+        Path file = tempDir.resolve("export.xlsx");
+        try (TableWriter writer = TableWriter.open(file)) {
+            assertInstanceOf(XlsxWriter.class, writer);
+            writer.writeRow(List.of("ID", "Ville"));
+            writer.writeRow(Arrays.asList(42, "Saint-Étienne & <Loire>"));
+        }
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            assertNotNull(zip.getEntry("[Content_Types].xml"));
+            assertNotNull(zip.getEntry("xl/workbook.xml"));
+            String sheet = new String(zip.getInputStream(zip.getEntry("xl/worksheets/sheet1.xml")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            assertTrue(sheet.contains("<row r=\"2\"><c><v>42</v></c>"));
+            assertTrue(sheet.contains("Saint-Étienne &amp; &lt;Loire&gt;"));
+            assertTrue(sheet.endsWith("</sheetData></worksheet>"));
+        }
+    }
+}